@@ -1,5 +1,6 @@
 plugins {
     id("java")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "org.labs"
@@ -23,4 +24,43 @@ dependencies {
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+// Long dinners with a million portions and thousands of visitors live in src/stressTest/java
+// and are run with `./gradlew stressTest`. Throughput baselines are rewritten with `-PrecordBaselines`.
+sourceSets {
+    create("stressTest") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
+configurations["stressTestImplementation"].extendsFrom(configurations.implementation.get(), configurations.testImplementation.get())
+configurations["stressTestRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get(), configurations.testRuntimeOnly.get())
+
+val stressTest by tasks.registering(Test::class) {
+    description = "Runs the stress and soak dinners and checks them against the throughput baselines."
+    group = "verification"
+    testClassesDirs = sourceSets["stressTest"].output.classesDirs
+    classpath = sourceSets["stressTest"].runtimeClasspath
+    useJUnitPlatform()
+    shouldRunAfter(tasks.test)
+    maxHeapSize = "4g"
+    // Throughput depends on the machine, so the results are never cached
+    outputs.upToDateWhen { false }
+    systemProperty("stress.baselines", file("src/stressTest/resources/throughput-baselines.properties").path)
+    systemProperty("stress.recordBaselines", providers.gradleProperty("recordBaselines").isPresent)
+    systemProperty("stress.tolerance", providers.gradleProperty("stressTolerance").getOrElse("0.3"))
+}
+
+// Benchmarks live in src/jmh/java and are run with `./gradlew jmh`
+jmh {
+    jmhVersion = "1.37"
+    resultFormat = "JSON"
+    // gc.alloc.rate.norm shows the bytes allocated per operation
+    profilers.add("gc")
+    // With `-Pperfnorm` Linux perf adds the cache misses per operation, e.g. for SeatStatesLayoutBenchmark
+    if (providers.gradleProperty("perfnorm").isPresent) {
+        profilers.add("perfnorm")
+    }
+}
@@ -0,0 +1,50 @@
+package org.labs.benchmark;
+
+import org.labs.DinnerSimulation;
+import org.labs.config.DinnerConfig;
+import org.labs.config.ExecutionMode;
+import org.labs.model.DinnerStatistics;
+import org.labs.model.DurationRange;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Compares platform and virtual thread execution modes of the whole dinner while the programmers count grows.
+ * Platform mode is expected to fail at the largest sizes, because it needs one native thread per programmer.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DinnerScalingBenchmark {
+    @Param({ "1000", "10000", "100000" })
+    private int programmersCount;
+
+    @Param({ "PLATFORM", "VIRTUAL" })
+    private ExecutionMode.Kind executionMode;
+
+    private DinnerConfig config;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.config = DinnerConfig.builder()
+                .visitorsCount(programmersCount)
+                .waitersCount(16)
+                .soupPortionsCount(2L * programmersCount)
+                .waitersServingDelay(Duration.ZERO)
+                .visitorsDiscussionDelay(new DurationRange(Duration.ofMillis(1), Duration.ofMillis(2)))
+                .visitorsEatingDelay(new DurationRange(Duration.ofMillis(1), Duration.ofMillis(2)))
+                .executionMode(executionMode == ExecutionMode.Kind.VIRTUAL
+                        ? ExecutionMode.virtual()
+                        : ExecutionMode.platform())
+                .build();
+    }
+
+    @Benchmark
+    public DinnerStatistics simulateDinner() throws ExecutionException, InterruptedException {
+        return new DinnerSimulation(config).simulateDinner();
+    }
+}
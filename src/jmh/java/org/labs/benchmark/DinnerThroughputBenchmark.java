@@ -0,0 +1,51 @@
+package org.labs.benchmark;
+
+import org.labs.DinnerSimulation;
+import org.labs.config.DinnerConfig;
+import org.labs.model.DinnerStatistics;
+import org.labs.model.DurationRange;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole dinner without any delays, so the score is pure synchronization overhead in portions per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(DinnerThroughputBenchmark.PORTIONS_COUNT)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DinnerThroughputBenchmark {
+    static final int PORTIONS_COUNT = 100_000;
+
+    @Param({ "5", "50", "500" })
+    private int programmersCount;
+
+    @Param({ "1", "4", "16" })
+    private int waitersCount;
+
+    private DinnerConfig config;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var noDelay = new DurationRange(Duration.ZERO, Duration.ZERO);
+        this.config = DinnerConfig.builder()
+                .visitorsCount(programmersCount)
+                .waitersCount(waitersCount)
+                .soupPortionsCount(PORTIONS_COUNT)
+                .waitersServingDelay(Duration.ZERO)
+                .visitorsDiscussionDelay(noDelay)
+                .visitorsEatingDelay(noDelay)
+                .build();
+    }
+
+    @Benchmark
+    public DinnerStatistics simulateDinner() throws ExecutionException, InterruptedException {
+        return new DinnerSimulation(config).simulateDinner();
+    }
+}
@@ -0,0 +1,48 @@
+package org.labs.benchmark;
+
+import org.labs.config.EventJournalConfig;
+import org.labs.journal.EventJournal;
+import org.labs.journal.JournalEventType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording one event into an open journal with the flusher writing the file, by several threads at once.
+ * The closed journal shows the cost left on the hot path when tracing is off.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class EventJournalBenchmark {
+    @Param({ "true", "false" })
+    private boolean open;
+
+    private Path path;
+    private EventJournal journal;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.path = Files.createTempFile("dinner", ".journal");
+        this.journal = new EventJournal(open ? EventJournalConfig.to(path) : EventJournalConfig.disabled());
+        journal.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public void record() {
+        journal.record(JournalEventType.PORTION_SERVED, 1, 2, 3);
+    }
+}
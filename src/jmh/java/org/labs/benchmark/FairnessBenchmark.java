@@ -0,0 +1,77 @@
+package org.labs.benchmark;
+
+import org.labs.DinnerSimulation;
+import org.labs.config.DinnerConfig;
+import org.labs.model.DinnerStatistics;
+import org.labs.model.DurationRange;
+import org.labs.model.VisitorDelays;
+import org.labs.service.FairnessController;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Fairness against throughput: half of the visitors eat instantly and half of them slowly,
+ * and the fairness delta bounds how far the fast eaters may get ahead. Reports the dinner time,
+ * the secondary "portionsPerSecond" metric and the "eatenSpread" metric, the difference between
+ * the largest and the least eaten counts. A negative delta stands for {@link FairnessController#UNBOUNDED}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FairnessBenchmark {
+    private static final int VISITORS_COUNT = 20;
+    private static final int PORTIONS_COUNT = 5_000;
+
+    @Param({ "0", "1", "4", "16", "64", "-1" })
+    private int fairnessDelta;
+
+    private DinnerConfig config;
+    private List<VisitorDelays> delays;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        var noDelay = new DurationRange(Duration.ZERO, Duration.ZERO);
+        this.config = DinnerConfig.builder()
+                .visitorsCount(VISITORS_COUNT)
+                .waitersCount(4)
+                .soupPortionsCount(PORTIONS_COUNT)
+                .waitersServingDelay(Duration.ZERO)
+                .visitorsDiscussionDelay(noDelay)
+                .visitorsEatingDelay(noDelay)
+                .fairnessDelta(fairnessDelta < 0 ? FairnessController.UNBOUNDED : fairnessDelta)
+                .seed(42)
+                .build();
+        // Delays are stateful, so every dinner gets fresh ones
+        var slowEating = new DurationRange(Duration.ofMillis(1), Duration.ofMillis(2));
+        var random = new SplittableRandom(config.seed());
+        this.delays = new ArrayList<>(VISITORS_COUNT);
+        for (var i = 0; i < VISITORS_COUNT; i++) {
+            delays.add(VisitorDelays.random(noDelay, i % 2 == 0 ? noDelay : slowEating, random.split()));
+        }
+    }
+
+    @Benchmark
+    public DinnerStatistics simulateDinner(FairnessCounters counters)
+            throws ExecutionException, InterruptedException {
+        var statistics = new DinnerSimulation(config, delays).simulateDinner();
+        var eatenCounts = statistics.eatenCounts();
+        counters.eatenSpread = Arrays.stream(eatenCounts).max().orElse(0) - Arrays.stream(eatenCounts).min().orElse(0);
+        counters.portionsPerSecond = statistics.totalEatenCount() / (statistics.dinnerDuration().toNanos() / 1e9);
+        return statistics;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class FairnessCounters {
+        public double eatenSpread;
+        public double portionsPerSecond;
+    }
+}
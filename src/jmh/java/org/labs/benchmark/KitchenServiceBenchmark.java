@@ -0,0 +1,53 @@
+package org.labs.benchmark;
+
+import org.labs.config.KitchenCounterType;
+import org.labs.service.KitchenService;
+import org.labs.service.kitchen.PortionAllotment;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention on the kitchen stock when every waiter thread takes portions as fast as it can.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class KitchenServiceBenchmark {
+    @Param({ "ATOMIC", "STRIPED" })
+    private KitchenCounterType counterType;
+
+    private KitchenService kitchenService;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        this.kitchenService = new KitchenService(Long.MAX_VALUE, counterType);
+    }
+
+    @Benchmark
+    public boolean takeSoupPortion() throws InterruptedException {
+        return kitchenService.takeSoupPortion();
+    }
+
+    @Benchmark
+    public boolean takeSoupPortionFromAllotment(WaiterState waiter) throws InterruptedException {
+        return waiter.allotment.takePortion();
+    }
+
+    @State(Scope.Thread)
+    public static class WaiterState {
+        @Param({ "16" })
+        private int batchSize;
+
+        private PortionAllotment allotment;
+
+        @Setup(Level.Iteration)
+        public void setUp(KitchenServiceBenchmark benchmark) {
+            this.allotment = new PortionAllotment(benchmark.kitchenService, batchSize);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.labs.benchmark;
+
+import org.labs.config.OrderDispatcherType;
+import org.labs.config.PortionWaitStrategy;
+import org.labs.model.DurationRange;
+import org.labs.model.Order;
+import org.labs.model.Programmer;
+import org.labs.model.Spoon;
+import org.labs.service.OrdersService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady-state order round trip: a visitor places an order, a waiter takes it and delivers the portion.
+ * Run with the GC profiler: gc.alloc.rate.norm is expected to be zero bytes per operation
+ * for the PRIORITY_QUEUE and BUCKETS dispatchers, while the skip list allocates its nodes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderPathAllocationBenchmark {
+    private static final int VISITORS_COUNT = 64;
+
+    @Param({ "PRIORITY_QUEUE", "SKIP_LIST", "BUCKETS" })
+    private OrderDispatcherType dispatcherType;
+
+    private OrdersService ordersService;
+    private Programmer[] programmers;
+    private int nextProgrammer = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.ordersService = new OrdersService(VISITORS_COUNT, dispatcherType);
+        this.programmers = new Programmer[VISITORS_COUNT];
+        var noDelay = new DurationRange(Duration.ZERO, Duration.ZERO);
+        for (var i = 0; i < VISITORS_COUNT; i++) {
+            this.programmers[i] = new Programmer(
+                    i + 1,
+                    new Spoon(),
+                    new Spoon(),
+                    ordersService,
+                    noDelay,
+                    noDelay,
+                    PortionWaitStrategy.park()
+            );
+        }
+    }
+
+    @Benchmark
+    public Order orderRoundTrip() {
+        ordersService.makeOrder(programmers[nextProgrammer]);
+        nextProgrammer = (nextProgrammer + 1) % VISITORS_COUNT;
+
+        var order = ordersService.getOrder();
+        order.soupPortionNotifier().setSoupPortion();
+        return order;
+    }
+}
@@ -0,0 +1,102 @@
+package org.labs.benchmark;
+
+import org.labs.config.OrderDispatcherType;
+import org.labs.config.PortionWaitStrategy;
+import org.labs.model.DurationRange;
+import org.labs.model.Order;
+import org.labs.model.Programmer;
+import org.labs.model.Spoon;
+import org.labs.service.OrdersService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Throughput of the order queue: visitor threads place orders while waiter threads take them.
+ * As in the dinner, a programmer places the next order only after a waiter has taken the previous one,
+ * because the order slot of a programmer is reused.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class OrdersServiceBenchmark {
+    private static final int VISITORS_COUNT = 64;
+
+    @Param({ "PRIORITY_QUEUE", "SKIP_LIST", "BUCKETS" })
+    private OrderDispatcherType dispatcherType;
+
+    private OrdersService ordersService;
+    private Programmer[] programmers;
+    // 1 while the order of the programmer is queued
+    private AtomicIntegerArray queued;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        this.ordersService = new OrdersService(VISITORS_COUNT, dispatcherType);
+        this.queued = new AtomicIntegerArray(VISITORS_COUNT);
+        this.programmers = new Programmer[VISITORS_COUNT];
+        var noDelay = new DurationRange(Duration.ZERO, Duration.ZERO);
+        for (var i = 0; i < VISITORS_COUNT; i++) {
+            this.programmers[i] = new Programmer(
+                    i + 1,
+                    new Spoon(),
+                    new Spoon(),
+                    ordersService,
+                    noDelay,
+                    noDelay,
+                    PortionWaitStrategy.park()
+            );
+        }
+    }
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(4)
+    public boolean makeOrder(VisitorState visitor) {
+        var programmerIndex = visitor.nextProgrammerIndex();
+        if (!queued.compareAndSet(programmerIndex, 0, 1)) {
+            return false;
+        }
+        return ordersService.makeOrder(programmers[programmerIndex]);
+    }
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(4)
+    public Order getOrder() {
+        var order = ordersService.getOrder();
+        if (order != null) {
+            queued.set(order.visitorId() - 1, 0);
+        }
+        return order;
+    }
+
+    /**
+     * Every visitor thread cycles over its own slice of programmers, so that the queue holds
+     * at most one order per programmer as it does in the dinner.
+     */
+    @State(Scope.Thread)
+    public static class VisitorState {
+        private int firstIndex;
+        private int sliceSize;
+        private int offset = 0;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams threadParams) {
+            var threadsCount = threadParams.getThreadCount();
+            this.sliceSize = Math.max(1, VISITORS_COUNT / threadsCount);
+            this.firstIndex = (threadParams.getThreadIndex() * sliceSize) % VISITORS_COUNT;
+        }
+
+        int nextProgrammerIndex() {
+            offset = (offset + 1) % sliceSize;
+            return firstIndex + offset;
+        }
+    }
+}
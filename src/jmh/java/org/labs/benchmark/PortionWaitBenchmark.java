@@ -0,0 +1,61 @@
+package org.labs.benchmark;
+
+import org.labs.DinnerSimulation;
+import org.labs.config.DinnerConfig;
+import org.labs.config.PortionWaitStrategy;
+import org.labs.model.DinnerStatistics;
+import org.labs.model.DurationRange;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Compares the ways visitors wait for their orders by the dinner time
+ * and by the CPU time the visitors burn per delivered portion (secondary "waitCpuMicrosPerPortion" metric).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PortionWaitBenchmark {
+    @Param({ "SPIN", "SPIN_THEN_PARK", "PARK" })
+    private PortionWaitStrategy.Kind strategy;
+
+    @Param({ "1000" })
+    private int spinBudget;
+
+    private DinnerConfig config;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var portionWaitStrategy = switch (strategy) {
+            case SPIN -> PortionWaitStrategy.spin();
+            case SPIN_THEN_PARK -> PortionWaitStrategy.spinThenPark(spinBudget);
+            case PARK -> PortionWaitStrategy.park();
+        };
+        this.config = DinnerConfig.builder()
+                .visitorsCount(30)
+                .waitersCount(5)
+                .soupPortionsCount(3_000)
+                .waitersServingDelay(Duration.ofMillis(1))
+                .visitorsDiscussionDelay(new DurationRange(Duration.ofMillis(1), Duration.ofMillis(2)))
+                .visitorsEatingDelay(new DurationRange(Duration.ofMillis(1), Duration.ofMillis(2)))
+                .portionWaitStrategy(portionWaitStrategy.withCpuTimeMeasured())
+                .build();
+    }
+
+    @Benchmark
+    public DinnerStatistics simulateDinner(CpuCounters counters) throws ExecutionException, InterruptedException {
+        var statistics = new DinnerSimulation(config).simulateDinner();
+        counters.waitCpuMicrosPerPortion = statistics.portionWaitCpuTimePerPortion().toNanos() / 1_000.0;
+        return statistics;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CpuCounters {
+        public double waitCpuMicrosPerPortion;
+    }
+}
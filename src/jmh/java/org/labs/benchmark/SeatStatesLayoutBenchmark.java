@@ -0,0 +1,82 @@
+package org.labs.benchmark;
+
+import org.labs.model.SeatStates;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order round trips per microsecond on the seat states of a shared table: every thread owns the seats
+ * {@code threadIndex + k * threadsCount}, so neighbouring seats belong to different threads. A round trip
+ * answers the order, reads the answer back, clears it and counts the meal, as a waiter and a visitor do.
+ * <p>
+ * The compact layout puts four seats on a cache line, so the threads keep invalidating each other's lines.
+ * Run with {@code ./gradlew jmh -Pperfnorm} on a multi-core Linux machine to see L1-dcache-load-misses
+ * and LLC-load-misses per round trip next to the throughput.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class SeatStatesLayoutBenchmark {
+    @Param({ "COMPACT", "PADDED" })
+    private Layout layout;
+
+    // Every thread needs a seat of its own, so the table must not be smaller than the thread count
+    @Param({ "64", "256" })
+    private int seatsCount;
+
+    private SeatStates seatStates;
+
+    public enum Layout {
+        COMPACT,
+        PADDED
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.seatStates = switch (layout) {
+            case COMPACT -> SeatStates.compact(seatsCount);
+            case PADDED -> SeatStates.padded(seatsCount);
+        };
+    }
+
+    @State(Scope.Thread)
+    public static class Visitor {
+        private int firstSeat;
+        private int seatsStep;
+        private int seat;
+
+        @Setup(Level.Trial)
+        public void setUp(SeatStatesLayoutBenchmark table, ThreadParams threadParams) {
+            if (threadParams.getThreadIndex() >= table.seatsCount) {
+                throw new IllegalStateException("Not enough seats for " + threadParams.getThreadCount() + " threads");
+            }
+            this.firstSeat = threadParams.getThreadIndex();
+            this.seatsStep = threadParams.getThreadCount();
+            this.seat = firstSeat;
+        }
+
+        private int nextSeat(int seatsCount) {
+            seat += seatsStep;
+            if (seat >= seatsCount) {
+                seat = firstSeat;
+            }
+            return seat;
+        }
+    }
+
+    @Benchmark
+    public int orderRoundTrip(Visitor visitor) {
+        var seat = visitor.nextSeat(seatsCount);
+        seatStates.setStatus(seat, SeatStates.HAS_PORTION);
+        var status = seatStates.status(seat);
+        seatStates.setStatus(seat, SeatStates.NO_PORTION);
+        seatStates.setEatenCount(seat, seatStates.eatenCount(seat) + 1);
+        return status;
+    }
+}
@@ -0,0 +1,51 @@
+package org.labs.benchmark;
+
+import org.labs.DinnerSimulation;
+import org.labs.config.DinnerConfig;
+import org.labs.config.ExecutionMode;
+import org.labs.model.DinnerStatistics;
+import org.labs.model.DurationRange;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Whole dinner of many programmers at one shared table versus the same programmers and waiters
+ * split across independent tables.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShardedDinnerBenchmark {
+    private static final int WAITERS_COUNT = 16;
+
+    @Param({ "10000" })
+    private int programmersCount;
+
+    @Param({ "1", "2", "4", "8", "16" })
+    private int tablesCount;
+
+    private DinnerConfig config;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.config = DinnerConfig.builder()
+                .visitorsCount(programmersCount)
+                .waitersCount(WAITERS_COUNT)
+                .soupPortionsCount(20L * programmersCount)
+                .waitersServingDelay(Duration.ZERO)
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ZERO))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ZERO))
+                .executionMode(ExecutionMode.virtual())
+                .tablesCount(tablesCount)
+                .build();
+    }
+
+    @Benchmark
+    public DinnerStatistics simulateDinner() throws ExecutionException, InterruptedException {
+        return new DinnerSimulation(config).simulateDinner();
+    }
+}
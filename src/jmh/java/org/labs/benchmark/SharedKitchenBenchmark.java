@@ -0,0 +1,95 @@
+package org.labs.benchmark;
+
+import org.labs.service.KitchenService;
+import org.labs.service.kitchen.AtomicPortionCounter;
+import org.labs.service.kitchen.KitchenServer;
+import org.labs.service.kitchen.MappedPortionCounter;
+import org.labs.service.kitchen.RemotePortionCounter;
+import org.labs.service.kitchen.SharedPortionCounter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a portion reservation by a waiter thread, in the kitchen of the dinner itself and in kitchens shared
+ * with other processes. The kitchen server runs in the benchmark process, but is reached over the loopback
+ * interface or a Unix domain socket exactly as from another process.
+ * <p>
+ * The remote kitchen combines the reservations of the waiters into one round trip, so its latency
+ * grows slower than the thread count. Compare the runs with {@code -t 1} and {@code -t 4}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class SharedKitchenBenchmark {
+    @Param({ "IN_PROCESS", "MAPPED", "TCP", "UNIX" })
+    private Backend backend;
+
+    @Param({ "1", "16" })
+    private long batchSize;
+
+    private KitchenService kitchenService;
+    private KitchenServer server;
+    private SharedPortionCounter sharedCounter;
+    private Path path;
+
+    public enum Backend {
+        IN_PROCESS,
+        MAPPED,
+        TCP,
+        UNIX
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.sharedCounter = switch (backend) {
+            case IN_PROCESS -> null;
+            case MAPPED -> {
+                this.path = Files.createTempFile("kitchen", ".bin");
+                yield MappedPortionCounter.create(path, Long.MAX_VALUE);
+            }
+            case TCP -> {
+                var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+                this.server = new KitchenServer(new AtomicPortionCounter(Long.MAX_VALUE), address);
+                yield RemotePortionCounter.connect(server.address());
+            }
+            case UNIX -> {
+                this.path = Files.createTempDirectory("kitchen").resolve("kitchen.sock");
+                this.server = new KitchenServer(new AtomicPortionCounter(Long.MAX_VALUE),
+                        UnixDomainSocketAddress.of(path));
+                yield RemotePortionCounter.connect(server.address());
+            }
+        };
+        this.kitchenService = sharedCounter != null
+                ? new KitchenService(sharedCounter)
+                : new KitchenService(Long.MAX_VALUE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (sharedCounter != null) {
+            sharedCounter.close();
+        }
+        if (server != null) {
+            server.close();
+        }
+        if (path != null) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Benchmark
+    public long reservePortions() throws InterruptedException {
+        return kitchenService.reservePortions(batchSize);
+    }
+}
@@ -0,0 +1,79 @@
+package org.labs.benchmark;
+
+import org.labs.config.SpoonAcquisitionType;
+import org.labs.model.Spoon;
+import org.labs.service.table.SpoonAcquisitionStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meals per microsecond at a shared table: every thread owns the seats {@code threadIndex + k * threadsCount}
+ * and moves between them, so neighbouring seats belong to different threads. Each meal takes both spoons,
+ * eats for a fixed amount of work and puts the spoons down. A higher throughput means more neighbours
+ * eating concurrently under the given spoon acquisition strategy.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class SpoonAcquisitionBenchmark {
+    private static final long EATING_TOKENS = 200;
+
+    @Param({ "ORDERED", "CHANDY_MISRA", "BITMASK", "PADDED" })
+    private SpoonAcquisitionType acquisitionType;
+
+    // Every thread needs a seat of its own, so the table must not be smaller than the thread count
+    @Param({ "64", "1024" })
+    private int seatsCount;
+
+    private SpoonAcquisitionStrategy strategy;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var spoons = new ArrayList<Spoon>(seatsCount);
+        for (var i = 0; i < seatsCount; i++) {
+            spoons.add(new Spoon());
+        }
+        this.strategy = acquisitionType.create(spoons);
+    }
+
+    @State(Scope.Thread)
+    public static class Visitor {
+        private int firstSeat;
+        private int seatsStep;
+        private int seat;
+
+        @Setup(Level.Trial)
+        public void setUp(SpoonAcquisitionBenchmark table, ThreadParams threadParams) {
+            if (threadParams.getThreadIndex() >= table.seatsCount) {
+                throw new IllegalStateException("Not enough seats for " + threadParams.getThreadCount() + " threads");
+            }
+            this.firstSeat = threadParams.getThreadIndex();
+            this.seatsStep = threadParams.getThreadCount();
+            this.seat = firstSeat;
+        }
+
+        private int nextSeat(int seatsCount) {
+            seat += seatsStep;
+            if (seat >= seatsCount) {
+                seat = firstSeat;
+            }
+            return seat;
+        }
+    }
+
+    @Benchmark
+    public void meal(Visitor visitor) throws InterruptedException {
+        var seat = visitor.nextSeat(seatsCount);
+        strategy.acquire(seat);
+        Blackhole.consumeCPU(EATING_TOKENS);
+        strategy.release(seat);
+    }
+}
@@ -0,0 +1,48 @@
+package org.labs.benchmark;
+
+import org.labs.model.Spoon;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of taking and putting down a spoon, uncontended and fought for by two neighbours.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpoonBenchmark {
+    @State(Scope.Thread)
+    public static class OwnSpoon {
+        private final Spoon spoon = new Spoon();
+    }
+
+    @State(Scope.Group)
+    public static class SharedSpoon {
+        private final Spoon spoon = new Spoon();
+    }
+
+    @Benchmark
+    public void uncontended(OwnSpoon ownSpoon) {
+        ownSpoon.spoon.take();
+        ownSpoon.spoon.putDown();
+    }
+
+    @Benchmark
+    @Group("neighbours")
+    @GroupThreads(1)
+    public void leftNeighbour(SharedSpoon sharedSpoon) {
+        sharedSpoon.spoon.take();
+        sharedSpoon.spoon.putDown();
+    }
+
+    @Benchmark
+    @Group("neighbours")
+    @GroupThreads(1)
+    public void rightNeighbour(SharedSpoon sharedSpoon) {
+        sharedSpoon.spoon.take();
+        sharedSpoon.spoon.putDown();
+    }
+}
@@ -0,0 +1,55 @@
+package org.labs.benchmark;
+
+import org.labs.DinnerSimulation;
+import org.labs.config.DinnerConfig;
+import org.labs.config.TrayService;
+import org.labs.model.DinnerStatistics;
+import org.labs.model.DurationRange;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole dinner without any delays served by single-order waiters versus waiters carrying trays,
+ * in portions per second. A tray of one is the single-order waiter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(WaiterTrayBenchmark.PORTIONS_COUNT)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WaiterTrayBenchmark {
+    static final int PORTIONS_COUNT = 100_000;
+
+    @Param({ "50", "500" })
+    private int programmersCount;
+
+    @Param({ "1", "4", "16" })
+    private int traySize;
+
+    private DinnerConfig config;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var noDelay = new DurationRange(Duration.ZERO, Duration.ZERO);
+        this.config = DinnerConfig.builder()
+                .visitorsCount(programmersCount)
+                .waitersCount(4)
+                .soupPortionsCount(PORTIONS_COUNT)
+                .waitersServingDelay(Duration.ZERO)
+                .visitorsDiscussionDelay(noDelay)
+                .visitorsEatingDelay(noDelay)
+                .portionReservationBatchSize(traySize)
+                .trayService(TrayService.trays(traySize, Duration.ZERO, Duration.ZERO))
+                .build();
+    }
+
+    @Benchmark
+    public DinnerStatistics simulateDinner() throws ExecutionException, InterruptedException {
+        return new DinnerSimulation(config).simulateDinner();
+    }
+}
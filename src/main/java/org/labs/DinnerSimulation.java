@@ -1,44 +1,212 @@
 package org.labs;
 
+import org.labs.checkpoint.CheckpointFile;
+import org.labs.checkpoint.CheckpointWriter;
+import org.labs.checkpoint.DinnerCheckpoint;
 import org.labs.config.DinnerConfig;
+import org.labs.config.ExecutionMode;
+import org.labs.config.PortionWaitStrategy;
+import org.labs.config.SpoonAcquisitionType;
+import org.labs.config.TimeMode;
+import org.labs.engine.AsyncDinner;
+import org.labs.engine.LogicalTimeDinner;
+import org.labs.journal.EventJournal;
+import org.labs.metrics.DinnerMetrics;
+import org.labs.metrics.JmxDinnerMetrics;
+import org.labs.metrics.LatencyHistogram;
+import org.labs.metrics.LatencySummary;
+import org.labs.metrics.MetricsReporter;
 import org.labs.model.*;
+import org.labs.scenario.Scenario;
+import org.labs.scenario.ScenarioRecorder;
+import org.labs.service.FairnessController;
 import org.labs.service.KitchenService;
-import org.labs.service.OrdersService;
+import org.labs.service.WaiterStaffingController;
+import org.labs.service.kitchen.GlobalKitchen;
+import org.labs.service.kitchen.QuotaPortionCounter;
+import org.labs.service.kitchen.SharedPortionCounter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 import java.util.concurrent.*;
 import java.util.concurrent.locks.LockSupport;
-import java.util.stream.Collectors;
 
 public class DinnerSimulation {
     private static final Logger logger = LoggerFactory.getLogger(DinnerSimulation.class);
 
+    private final DinnerConfig config;
     private final long initialPortionsCount;
+    private final ExecutionMode executionMode;
+    private final PortionWaitStrategy portionWaitStrategy;
 
-    private final KitchenService kitchenService;
-    private final OrdersService ordersService;
+    private final DinnerMetrics metrics;
+    private final List<VisitorDelays> visitorsDelays;
+    private final ScenarioRecorder recorder;
+    private final EventJournal journal;
+    // Null unless the dinner continues from a checkpoint
+    private final DinnerCheckpoint resumedFrom;
 
-    private final ArrayList<Spoon> spoons;
-    private final List<Programmer> programmers;
-    private final List<Waiter> waiters;
+    // Built when the threaded dinner starts, the logical and async engines keep models of their own.
+    // The global kitchen stays null when the dinner is held at a single table or draws from a shared kitchen
+    private GlobalKitchen globalKitchen;
+    // Opened for the run of the threaded dinner, null unless the kitchen is shared with the dinners of other processes
+    private SharedPortionCounter sharedKitchen;
+    // Read by the metrics threads
+    private volatile List<DinnerTable> tables = List.of();
+    private List<Programmer> programmers = List.of();
+    private List<Waiter> waiters = List.of();
 
     public DinnerSimulation(DinnerConfig config) {
-        this.kitchenService = new KitchenService(config.soupPortionsCount());
-        this.ordersService = new OrdersService(config.visitorsCount());
-
-        this.spoons = createSpoons(config.visitorsCount());
-        this.programmers = createProgrammers(
-                config.visitorsCount(),
-                config.visitorsDiscussionDelay(),
-                config.visitorsEatingDelay()
-        );
+        this(config, VisitorDelays.seeded(config.visitorsDiscussionDelay(), config.visitorsEatingDelay(),
+                config.seed(), config.visitorsCount()));
+    }
+
+    /**
+     * Creates a dinner whose visitors take their discussion and eating times from the given sources
+     * instead of drawing them from the seeded ranges of the config.
+     *
+     * @param visitorsDelays sources of the visitors, indexed by visitor id minus one.
+     */
+    public DinnerSimulation(DinnerConfig config, List<VisitorDelays> visitorsDelays) {
+        this(config, visitorsDelays, null);
+    }
+
+    private DinnerSimulation(DinnerConfig config, List<VisitorDelays> visitorsDelays, DinnerCheckpoint resumedFrom) {
+        if (visitorsDelays.size() != config.visitorsCount()) {
+            throw new IllegalArgumentException("Every visitor needs its own delays, delays count: "
+                    + visitorsDelays.size());
+        }
+        var tablesCount = config.tablesCount();
+        if (tablesCount < 1 || tablesCount > Math.min(config.visitorsCount(), config.waitersCount())) {
+            throw new IllegalArgumentException("Every table needs at least one visitor and one waiter, tables count: "
+                    + tablesCount);
+        }
+        var staffing = config.waiterStaffing();
+        if (staffing.elastic() && staffing.minWaiters() > config.waitersCount()) {
+            throw new IllegalArgumentException("Minimum waiters exceed the waiters count: " + staffing.minWaiters());
+        }
+        checkEngineSettings(config);
+
+        this.config = config;
+        this.metrics = config.metricsConfig().enabled()
+                ? new DinnerMetrics(config.visitorsCount(), this::ordersCount)
+                : DinnerMetrics.DISABLED;
+        this.visitorsDelays = visitorsDelays;
+        this.recorder = config.scenarioRecording() ? new ScenarioRecorder() : ScenarioRecorder.DISABLED;
+        this.journal = config.eventJournal().enabled() ? new EventJournal(config.eventJournal()) : EventJournal.DISABLED;
+        this.resumedFrom = resumedFrom;
+        this.portionWaitStrategy = config.portionWaitStrategy();
+        this.initialPortionsCount = resumedFrom != null
+                ? resumedFrom.initialPortionsCount()
+                : config.soupPortionsCount();
+        this.executionMode = config.executionMode();
+    }
 
-        this.waiters = createWaiters(config.waitersCount(), config.waitersServingDelay());
-        this.initialPortionsCount = config.soupPortionsCount();
+    // The logical and async engines model one table of waiters serving single orders,
+    // and the logical clock keeps the dinner fair by the order queue alone
+    private static void checkEngineSettings(DinnerConfig config) {
+        var isLogicalTime = config.timeMode() == TimeMode.LOGICAL;
+        if (!isLogicalTime && config.executionMode().kind() != ExecutionMode.Kind.ASYNC) {
+            return;
+        }
+        var unsupportedSettings = new ArrayList<String>();
+        if (config.tablesCount() != 1) {
+            unsupportedSettings.add("tables count " + config.tablesCount());
+        }
+        if (config.trayService().traySize() > 1) {
+            unsupportedSettings.add("trays of " + config.trayService().traySize());
+        }
+        if (config.waiterStaffing().elastic()) {
+            unsupportedSettings.add("elastic waiter staffing");
+        }
+        if (config.portionReservationBatchSize() != 1) {
+            unsupportedSettings.add("reservation batches of " + config.portionReservationBatchSize());
+        }
+        if (config.sharedKitchen().enabled()) {
+            unsupportedSettings.add("shared kitchen");
+        }
+        if (config.eventJournal().enabled()) {
+            unsupportedSettings.add("event journal");
+        }
+        if (config.checkpoint().enabled()) {
+            unsupportedSettings.add("checkpoints");
+        }
+        if (config.scenarioRecording()) {
+            unsupportedSettings.add("scenario recording");
+        }
+        if (isLogicalTime && config.spoonAcquisitionType() != SpoonAcquisitionType.ORDERED) {
+            unsupportedSettings.add("spoon acquisition " + config.spoonAcquisitionType());
+        }
+        if (isLogicalTime && config.fairnessDelta() != FairnessController.UNBOUNDED) {
+            unsupportedSettings.add("fairness delta " + config.fairnessDelta());
+        }
+        if (!unsupportedSettings.isEmpty()) {
+            throw new IllegalArgumentException((isLogicalTime ? "The logical-time" : "The async")
+                    + " dinner does not support " + unsupportedSettings);
+        }
+    }
+
+    /**
+     * Creates a dinner which continues from the checkpoint. The kitchen holds the remaining portions,
+     * every programmer keeps its eaten count, so the least-fed programmers are still served first,
+     * and the programmers who were waiting for their orders order again right away.
+     * The config should be the one of the checkpointed dinner.
+     * <p>
+     * The checkpoint does not keep how far the delay sequences of the visitors have advanced, so a resumed dinner
+     * is not a continuation of a seeded run: its delays are drawn from the seed and the checkpoint sequence,
+     * which keeps resuming from the same checkpoint reproducible without replaying the delays of the first run.
+     */
+    public static DinnerSimulation resume(DinnerConfig config, DinnerCheckpoint checkpoint) {
+        if (config.timeMode() == TimeMode.LOGICAL || config.executionMode().kind() == ExecutionMode.Kind.ASYNC) {
+            throw new IllegalArgumentException("Only the threaded dinner can be resumed");
+        }
+        if (checkpoint.visitorsCount() != config.visitorsCount()
+                || checkpoint.initialPortionsCount() != config.soupPortionsCount()) {
+            throw new IllegalArgumentException("The checkpoint belongs to another dinner: "
+                    + checkpoint.visitorsCount() + " visitors, " + checkpoint.initialPortionsCount() + " portions");
+        }
+        var resumedConfig = config.toBuilder()
+                .soupPortionsCount(checkpoint.remainingPortionsCount())
+                .build();
+        var visitorsDelays = VisitorDelays.seeded(config.visitorsDiscussionDelay(), config.visitorsEatingDelay(),
+                resumedSeed(config.seed(), checkpoint.sequence()), config.visitorsCount());
+        return new DinnerSimulation(resumedConfig, visitorsDelays, checkpoint);
+    }
+
+    // The golden-ratio step is the gamma of SplittableRandom, so every checkpoint gets its own stream
+    private static long resumedSeed(long seed, long checkpointSequence) {
+        return new SplittableRandom(seed + (checkpointSequence + 1) * 0x9E3779B97F4A7C15L).nextLong();
+    }
+
+    /**
+     * Creates a dinner which continues from the latest complete checkpoint of the file.
+     */
+    public static DinnerSimulation resume(DinnerConfig config, Path checkpointPath) throws IOException {
+        return resume(config, CheckpointFile.read(checkpointPath));
+    }
+
+    /**
+     * @return live metrics of the dinner, which may be read while it runs.
+     * The metrics stay empty unless the metrics config records them.
+     */
+    public DinnerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Should be called after the dinner has finished.
+     *
+     * @return the events of the dinner, if the config enables scenario recording.
+     */
+    public Scenario getRecordedScenario() {
+        return recorder.toScenario(config);
     }
 
     /**
@@ -47,16 +215,64 @@ public class DinnerSimulation {
      * @return statistics of simulation.
      */
     public DinnerStatistics simulateDinner() throws ExecutionException, InterruptedException {
-        var programmersExecutor = Executors.newFixedThreadPool(programmers.size());
-        var waitersExecutor = Executors.newFixedThreadPool(waiters.size());
+        if (config.timeMode() == TimeMode.LOGICAL) {
+            logger.info("Simulating the dinner of {} programmers on a logical clock", config.visitorsCount());
+            var statistics = new LogicalTimeDinner(config, visitorsDelays).simulate();
+            printStatistics(statistics);
+            return statistics;
+        }
+
+        var metricsConfig = config.metricsConfig();
+        var jmxMetrics = metricsConfig.jmxEnabled() ? new JmxDinnerMetrics(metrics) : null;
+        var metricsReporter = metricsConfig.snapshotListener() != null
+                ? new MetricsReporter(metrics, metricsConfig.snapshotInterval(), metricsConfig.snapshotListener())
+                : null;
         try {
+            if (executionMode.kind() == ExecutionMode.Kind.ASYNC) {
+                logger.info("Simulating the dinner of {} programmers with async stages", config.visitorsCount());
+                var statistics = new AsyncDinner(config, visitorsDelays, metrics).simulate();
+                printStatistics(statistics);
+                return statistics;
+            }
+            return simulateRealTimeDinner();
+        } finally {
+            if (metricsReporter != null) {
+                metricsReporter.close();
+            }
+            if (jmxMetrics != null) {
+                jmxMetrics.close();
+            }
+        }
+    }
+
+    private DinnerStatistics simulateRealTimeDinner() throws ExecutionException, InterruptedException {
+        sharedKitchen = config.sharedKitchen().enabled() ? openSharedKitchen(config) : null;
+        ExecutorService programmersExecutor = null;
+        ExecutorService waitersExecutor = null;
+        WaiterStaffingController staffingController = null;
+        CheckpointWriter checkpointWriter = null;
+        Exception dinnerFailure = null;
+        try {
+            createTables();
+            programmersExecutor = executionMode.newExecutor(programmers.size());
+            waitersExecutor = executionMode.newExecutor(waiters.size());
+            if (config.waiterStaffing().elastic()) {
+                staffingController = new WaiterStaffingController(
+                        tables.stream().map(DinnerTable::getWaiterPool).toList(),
+                        config.waiterStaffing().checkInterval()
+                );
+            }
+            startJournal();
+            checkpointWriter = startCheckpoints();
 
             logger.info("Launching {} waiters", waiters.size());
+            tables.forEach(DinnerTable::registerWaiters);
             var waitersFutures = waiters.stream()
                     .map(waitersExecutor::submit)
                     .toList();
 
             var startTime = System.nanoTime();
+            recorder.start();
 
             logger.info("Launching {} programmers", programmers.size());
             var programmersFutures = programmers.stream()
@@ -82,88 +298,308 @@ public class DinnerSimulation {
             programmersExecutor.close();
 
             var simulationTime = System.nanoTime() - startTime;
-            var statistics = getStatistics(simulationTime);
+            var activeWaiters = List.of(new ActiveWaitersSample(Duration.ZERO, waiters.size()));
+            if (staffingController != null) {
+                staffingController.close();
+                activeWaiters = staffingController.getSamples();
+            }
+            var statistics = getStatistics(simulationTime, activeWaiters);
             printStatistics(statistics);
 
             return statistics;
         } catch (InterruptedException | ExecutionException e) {
-            waitersExecutor.shutdownNow();
-            programmersExecutor.shutdownNow();
+            if (waitersExecutor != null) {
+                waitersExecutor.shutdownNow();
+            }
+            if (programmersExecutor != null) {
+                programmersExecutor.shutdownNow();
+            }
             Thread.currentThread().interrupt();
+            dinnerFailure = e;
+            throw e;
+        } catch (RuntimeException e) {
+            dinnerFailure = e;
             throw e;
+        } finally {
+            closeResources(staffingController, checkpointWriter, dinnerFailure);
+        }
+    }
+
+    // Every resource is closed even if closing another one fails. A failure of the dinner itself is rethrown,
+    // so the closing failures are attached to it instead of replacing it
+    private void closeResources(WaiterStaffingController staffingController, CheckpointWriter checkpointWriter,
+                                Exception dinnerFailure) {
+        RuntimeException closeFailure = null;
+        if (staffingController != null) {
+            closeFailure = close(staffingController::close, closeFailure);
+        }
+        if (checkpointWriter != null) {
+            closeFailure = close(() -> closeCheckpoints(checkpointWriter), closeFailure);
+        }
+        closeFailure = close(this::closeJournal, closeFailure);
+        closeFailure = close(this::closeSharedKitchen, closeFailure);
+
+        if (closeFailure == null) {
+            return;
+        }
+        if (dinnerFailure != null) {
+            dinnerFailure.addSuppressed(closeFailure);
+            return;
+        }
+        throw closeFailure;
+    }
+
+    // Returns the first failure, with the later ones suppressed by it
+    private static RuntimeException close(Runnable closeAction, RuntimeException previousFailure) {
+        try {
+            closeAction.run();
+            return previousFailure;
+        } catch (RuntimeException exception) {
+            if (previousFailure == null) {
+                return exception;
+            }
+            previousFailure.addSuppressed(exception);
+            return previousFailure;
+        }
+    }
+
+    private static SharedPortionCounter openSharedKitchen(DinnerConfig config) {
+        try {
+            return config.sharedKitchen().open();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not open the shared kitchen", exception);
+        }
+    }
+
+    private void closeSharedKitchen() {
+        if (sharedKitchen == null) {
+            return;
+        }
+        try {
+            sharedKitchen.close();
+            sharedKitchen = null;
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not close the shared kitchen", exception);
+        }
+    }
+
+    // Null if checkpoints are disabled
+    private CheckpointWriter startCheckpoints() {
+        if (!config.checkpoint().enabled()) {
+            return null;
+        }
+        try {
+            return new CheckpointWriter(config.checkpoint(), programmers.size(), initialPortionsCount, resumedFrom,
+                    this::captureProgress);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not create the checkpoint file", exception);
+        }
+    }
+
+    private void captureProgress(int[] eatenCounts, boolean[] pendingOrders) {
+        for (var programmer : programmers) {
+            eatenCounts[programmer.getId() - 1] = programmer.getEatenCount();
+            pendingOrders[programmer.getId() - 1] = programmer.isAwaitingPortion();
+        }
+    }
+
+    private static void closeCheckpoints(CheckpointWriter checkpointWriter) {
+        try {
+            checkpointWriter.close();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not save the last checkpoint", exception);
+        }
+    }
+
+    private void startJournal() {
+        try {
+            journal.start();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not create the event journal", exception);
+        }
+    }
+
+    private void closeJournal() {
+        try {
+            journal.close();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not complete the event journal", exception);
         }
     }
 
     private void printStatistics(DinnerStatistics statistics) {
         logger.info("------------------Dinner Statistics----------------");
-        logger.info("Programmers count: {}, waiters count: {}", this.programmers.size(), this.waiters.size());
+        logger.info("Programmers count: {}, waiters count: {}, tables count: {}",
+                this.config.visitorsCount(), this.config.waitersCount(), this.config.tablesCount());
+        logger.info("Execution mode: {}, seed: {}", this.executionMode.kind(), this.config.seed());
+        logger.info("Spoon acquisition: {}", this.config.spoonAcquisitionType());
         logger.info("Soup portions count: {}", this.initialPortionsCount);
-        logger.info("Duration: {}", statistics.dinnerDuration());
+        logger.info("Duration: {}, simulated duration: {}", statistics.dinnerDuration(), statistics.simulatedDuration());
         logger.info("Dinner was successfully completed");
         logger.info("Remaining portions in the kitchen: {}", statistics.remainingPortionsInKitchen());
+        logger.info("Portion wait strategy: {}, CPU time per delivered portion: {}",
+                this.portionWaitStrategy.kind(), statistics.portionWaitCpuTimePerPortion());
+        logLatency("Order wait", statistics.orderWait());
+        logLatency("Spoon wait", statistics.spoonWait());
+        logLatency("Service time", statistics.serviceTime());
+        logLatency("Shutdown", statistics.shutdown());
+        for (var tier : statistics.tiers()) {
+            logLatency("Order wait of tier " + tier.tier().name(), tier.orderWait());
+            logger.info("Tier {}: deadline {}, {} of {} orders missed it",
+                    tier.tier().name(), tier.tier().deadline(), tier.deadlineMisses(), tier.orderWait().count());
+        }
+        logger.info("Waiter staffing: {}, average active waiters: {}",
+                this.config.waiterStaffing().elastic() ? "elastic" : "fixed",
+                String.format("%.2f", statistics.averageActiveWaiters()));
         logger.info("------------------Programmers eaten soups statistics: -----------------");
         statistics.visitorIdToEatenCount().forEach((key, value) ->
                 logger.info("Programmer {}: {} portions were eaten", key, value)
         );
     }
 
-    private DinnerStatistics getStatistics(long elapsedNanoseconds) {
-        var remainingFood = this.kitchenService.getSoupPortionsCount();
-        var visitorIdToEatenCount = programmers.stream()
-                .collect(Collectors.toMap(
-                        Programmer::getId,
-                        Programmer::getEatenCount
-                ));
+    private static void logLatency(String name, LatencySummary summary) {
+        logger.info("{}: p50 {}, p90 {}, p99 {}, p999 {}, max {}",
+                name, summary.p50(), summary.p90(), summary.p99(), summary.p999(), summary.max());
+    }
 
-        return new DinnerStatistics(
-                remainingFood,
-                visitorIdToEatenCount,
-                Duration.ofNanos(elapsedNanoseconds)
-        );
+    private DinnerStatistics getStatistics(long elapsedNanoseconds, List<ActiveWaitersSample> activeWaiters) {
+        long remainingFood;
+        if (sharedKitchen != null) {
+            // The other dinners hold no portions of the kitchen once it is exhausted
+            remainingFood = sharedKitchen.remaining();
+        } else {
+            remainingFood = globalKitchen != null ? globalKitchen.remaining() : 0;
+            for (var table : tables) {
+                remainingFood += table.getKitchenService().getSoupPortionsCount();
+            }
+        }
+        var eatenCounts = new int[programmers.size()];
+        for (var programmer : programmers) {
+            eatenCounts[programmer.getId() - 1] = programmer.getEatenCount();
+        }
+
+        var portionWaitCpuNanoseconds = programmers.stream()
+                .mapToLong(Programmer::getPortionWaitCpuNanoseconds)
+                .sum();
+
+        var orderWaitHistogram = new LatencyHistogram();
+        var spoonWaitHistogram = new LatencyHistogram();
+        var tierStatistics = TierStatistics.collector(config.serviceTiers());
+        for (var programmer : programmers) {
+            orderWaitHistogram.merge(programmer.getOrderWaitHistogram());
+            spoonWaitHistogram.merge(programmer.getSpoonWaitHistogram());
+            tierStatistics.add(programmer.getServiceTier(), programmer.getOrderWaitHistogram(),
+                    programmer.getDeadlineMissesCount());
+        }
+        var serviceTimeHistogram = new LatencyHistogram();
+        for (var waiter : waiters) {
+            serviceTimeHistogram.merge(waiter.getServiceTimeHistogram());
+        }
+        var shutdownHistogram = new LatencyHistogram();
+        for (var table : tables) {
+            var closedAtNanoseconds = table.getOrdersService().closedAtNanoseconds();
+            for (var programmer : table.getProgrammers()) {
+                shutdownHistogram.record(Math.max(0, programmer.getFinishedAtNanoseconds() - closedAtNanoseconds));
+            }
+            for (var waiter : table.getWaiters()) {
+                shutdownHistogram.record(Math.max(0, waiter.getFinishedAtNanoseconds() - closedAtNanoseconds));
+            }
+        }
+
+        return DinnerStatistics.builder()
+                .remainingPortionsInKitchen(remainingFood)
+                .eatenCounts(eatenCounts)
+                .dinnerDuration(Duration.ofNanos(elapsedNanoseconds))
+                .portionWaitCpuTime(Duration.ofNanos(portionWaitCpuNanoseconds))
+                .orderWait(orderWaitHistogram.summary())
+                .spoonWait(spoonWaitHistogram.summary())
+                .serviceTime(serviceTimeHistogram.summary())
+                .shutdown(shutdownHistogram.summary())
+                .activeWaiters(activeWaiters)
+                .tiers(tierStatistics.collect())
+                .build();
     }
 
-    private List<Waiter> createWaiters(int waitersCount, Duration servingDelay) {
-        var waiters = new ArrayList<Waiter>(waitersCount);
-        for (var i = 0; i < waitersCount; i++) {
-            var waiter = new Waiter(
-                    i + 1,
-                    this.ordersService,
-                    this.kitchenService,
-                    servingDelay
-            );
-            waiters.add(waiter);
+    private int ordersCount() {
+        var ordersCount = 0;
+        for (var table : tables) {
+            ordersCount += table.getOrdersService().ordersCount();
         }
-        return waiters;
+        return ordersCount;
     }
 
-    private List<Programmer> createProgrammers(int visitorsCount, DurationRange discussionRange, DurationRange eatingRange) {
-        var programmers = new ArrayList<Programmer>(visitorsCount);
-        for (var i = 0; i < visitorsCount; i++) {
-            var firstSpoonIndex = i;
-            var secondSpoonIndex = (i + 1) % visitorsCount;
+    // Builds the tables of the threaded dinner and restores the programmers of a resumed dinner
+    private void createTables() {
+        var tablesCount = config.tablesCount();
+        if (sharedKitchen == null && tablesCount > 1) {
+            this.globalKitchen = new GlobalKitchen(
+                    config.soupPortionsCount(),
+                    splitEvenly(config.visitorsCount(), tablesCount),
+                    GlobalKitchen.DEFAULT_ROUND_PORTIONS_PER_VISITOR
+            );
+        }
+        var tables = createTables(config, tablesCount);
+        this.programmers = tables.stream()
+                .flatMap(table -> table.getProgrammers().stream())
+                .toList();
+        this.waiters = tables.stream()
+                .flatMap(table -> table.getWaiters().stream())
+                .toList();
+        if (resumedFrom != null) {
+            var eatenCounts = resumedFrom.eatenCounts();
+            for (var programmer : programmers) {
+                var visitorIndex = programmer.getId() - 1;
+                programmer.restore(eatenCounts[visitorIndex], resumedFrom.pendingOrders()[visitorIndex]);
+            }
+            for (var table : tables) {
+                table.getOrdersService().restoreEatenCounts(eatenCounts);
+            }
+        }
+        this.tables = tables;
+    }
 
-            var leftSpoon = this.spoons.get(Math.min(firstSpoonIndex, secondSpoonIndex));
-            var rightSpoon = this.spoons.get(Math.max(firstSpoonIndex, secondSpoonIndex));
+    private List<DinnerTable> createTables(DinnerConfig config, int tablesCount) {
+        var tableVisitorsCounts = splitEvenly(config.visitorsCount(), tablesCount);
+        var tableWaitersCounts = splitEvenly(config.waitersCount(), tablesCount);
+        var tableMinWaiters = splitEvenly(config.waiterStaffing().minWaiters(), tablesCount);
 
-            var programmer = new Programmer(
-                    i + 1,
-                    leftSpoon,
-                    rightSpoon,
-                    this.ordersService,
-                    discussionRange,
-                    eatingRange
-            );
-            programmers.add(programmer);
+        var tables = new ArrayList<DinnerTable>(tablesCount);
+        var firstVisitorId = 1;
+        var firstWaiterId = 1;
+        for (var i = 0; i < tablesCount; i++) {
+            KitchenService kitchenService;
+            if (sharedKitchen != null) {
+                kitchenService = new KitchenService(sharedKitchen);
+            } else if (globalKitchen != null) {
+                kitchenService = new KitchenService(new QuotaPortionCounter(globalKitchen, i));
+            } else {
+                kitchenService = new KitchenService(config.soupPortionsCount(), config.kitchenCounterType());
+            }
+            tables.add(new DinnerTable(
+                    config,
+                    firstVisitorId,
+                    tableVisitorsCounts[i],
+                    firstWaiterId,
+                    tableWaitersCounts[i],
+                    Math.max(1, tableMinWaiters[i]),
+                    kitchenService,
+                    this.visitorsDelays,
+                    this.metrics,
+                    this.recorder,
+                    this.journal
+            ));
+            firstVisitorId += tableVisitorsCounts[i];
+            firstWaiterId += tableWaitersCounts[i];
         }
-        return programmers;
+        return tables;
     }
 
-    private static ArrayList<Spoon> createSpoons(int visitorsCount) {
-        var spoons = new ArrayList<Spoon>(visitorsCount);
-        for (var i = 0; i < visitorsCount; i++) {
-            var spoon = new Spoon(i + 1);
-            spoons.add(spoon);
+    // The first tables get one more participant when the count is not divisible
+    private static int[] splitEvenly(int count, int partsCount) {
+        var parts = new int[partsCount];
+        for (var i = 0; i < partsCount; i++) {
+            parts[i] = count / partsCount + (i < count % partsCount ? 1 : 0);
         }
-        return spoons;
+        return parts;
     }
 }
@@ -0,0 +1,110 @@
+package org.labs;
+
+import org.labs.config.DinnerConfig;
+import org.labs.journal.EventJournal;
+import org.labs.metrics.DinnerMetrics;
+import org.labs.model.Programmer;
+import org.labs.model.SeatStates;
+import org.labs.model.Spoon;
+import org.labs.model.TableContext;
+import org.labs.model.VisitorDelays;
+import org.labs.model.Waiter;
+import org.labs.service.KitchenService;
+import org.labs.scenario.ScenarioRecorder;
+import org.labs.service.OrdersService;
+import org.labs.service.WaiterPool;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One round table with its own spoons, order queue and waiters. Visitors and waiters of a table
+ * have consecutive ids, and the table takes its portions from its own kitchen.
+ */
+class DinnerTable {
+    private final KitchenService kitchenService;
+    private final OrdersService ordersService;
+    private final WaiterPool waiterPool;
+    private final List<Programmer> programmers;
+    private final List<Waiter> waiters;
+
+    /**
+     * @param minWaiters waiters of the table which always serve, if the waiters staff is elastic.
+     */
+    DinnerTable(DinnerConfig config, int firstVisitorId, int visitorsCount, int firstWaiterId, int waitersCount,
+                int minWaiters, KitchenService kitchenService, List<VisitorDelays> visitorsDelays, DinnerMetrics metrics,
+                ScenarioRecorder recorder, EventJournal journal) {
+        this.kitchenService = kitchenService;
+        this.ordersService = new OrdersService(visitorsCount, firstVisitorId, config);
+        this.waiterPool = config.waiterStaffing().elastic()
+                ? WaiterPool.elastic(config.waiterStaffing(), minWaiters, waitersCount, ordersService)
+                : WaiterPool.fixed();
+
+        var spoons = createSpoons(visitorsCount);
+        var context = TableContext.builder(ordersService)
+                .spoons(config.spoonAcquisitionType().create(spoons))
+                .seatStates(SeatStates.padded(visitorsCount))
+                .portionWaitStrategy(config.portionWaitStrategy())
+                .kitchenService(kitchenService)
+                .timePerClient(config.waitersServingDelay())
+                .portionReservationBatchSize(config.portionReservationBatchSize())
+                .trayService(config.trayService())
+                .waiterPool(waiterPool)
+                .metrics(metrics)
+                .journal(journal)
+                .build();
+
+        this.programmers = new ArrayList<>(visitorsCount);
+        for (var seat = 0; seat < visitorsCount; seat++) {
+            var visitorId = firstVisitorId + seat;
+            var programmer = new Programmer(visitorId, seat, visitorsDelays.get(visitorId - 1), recorder.newTrack(),
+                    context);
+            programmer.setServiceTier(config.serviceTiers().tierOf(visitorId),
+                    config.serviceTiers().deadlineNanosecondsOf(visitorId));
+            programmers.add(programmer);
+        }
+
+        this.waiters = new ArrayList<>(waitersCount);
+        for (var i = 0; i < waitersCount; i++) {
+            waiters.add(new Waiter(firstWaiterId + i, recorder.newTrack(), context));
+        }
+    }
+
+    /**
+     * Makes the waiters parties of the shutdown protocol of the table. Should be called right before
+     * the waiters are scheduled.
+     */
+    void registerWaiters() {
+        for (var i = 0; i < waiters.size(); i++) {
+            ordersService.registerWaiter();
+        }
+    }
+
+    KitchenService getKitchenService() {
+        return kitchenService;
+    }
+
+    OrdersService getOrdersService() {
+        return ordersService;
+    }
+
+    WaiterPool getWaiterPool() {
+        return waiterPool;
+    }
+
+    List<Programmer> getProgrammers() {
+        return programmers;
+    }
+
+    List<Waiter> getWaiters() {
+        return waiters;
+    }
+
+    private static List<Spoon> createSpoons(int visitorsCount) {
+        var spoons = new ArrayList<Spoon>(visitorsCount);
+        for (var i = 0; i < visitorsCount; i++) {
+            spoons.add(new Spoon());
+        }
+        return spoons;
+    }
+}
@@ -0,0 +1,186 @@
+package org.labs.checkpoint;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.zip.CRC32;
+
+/**
+ * File of two checkpoint slots written in turns, so that the previous checkpoint stays intact
+ * while the next one is being written. A slot is valid when its checksum matches, and the valid slot
+ * with the greater sequence holds the latest checkpoint.
+ * <p>
+ * The file starts with the magic, the version, the visitors count and the slot size. A slot holds the sequence,
+ * the elapsed nanoseconds, the initial and the remaining portions, the eaten counts, the bits of the pending orders
+ * and the CRC32 of all of them.
+ */
+public final class CheckpointFile implements AutoCloseable {
+    private static final int MAGIC = 0x444E5243;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int SLOTS_COUNT = 2;
+
+    private final FileChannel channel;
+    private final int visitorsCount;
+    private final int slotBytes;
+    // One buffer per slot, reused by every save
+    private final ByteBuffer[] slotBuffers = new ByteBuffer[SLOTS_COUNT];
+    private final CRC32 crc = new CRC32();
+
+    private CheckpointFile(FileChannel channel, int visitorsCount) {
+        this.channel = channel;
+        this.visitorsCount = visitorsCount;
+        this.slotBytes = slotBytes(visitorsCount);
+        for (var i = 0; i < SLOTS_COUNT; i++) {
+            slotBuffers[i] = ByteBuffer.allocateDirect(slotBytes);
+        }
+    }
+
+    /**
+     * Opens the file for writing checkpoints.
+     *
+     * @param truncate whether the existing checkpoints are dropped. A resumed dinner keeps them,
+     *                 so the checkpoint it was resumed from stays valid until a newer one is written.
+     */
+    public static CheckpointFile open(Path path, int visitorsCount, boolean truncate) throws IOException {
+        var channel = truncate
+                ? FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)
+                : FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        var file = new CheckpointFile(channel, visitorsCount);
+        var header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(visitorsCount)
+                .putInt(file.slotBytes)
+                .flip();
+        channel.write(header, 0);
+        return file;
+    }
+
+    /**
+     * Writes a checkpoint into the slot chosen by its sequence and forces it to the storage device.
+     */
+    public void write(long sequence, long elapsedNanoseconds, long initialPortionsCount, long remainingPortionsCount,
+                      int[] eatenCounts, boolean[] pendingOrders) throws IOException {
+        var slot = (int) (sequence % SLOTS_COUNT);
+        var buffer = slotBuffers[slot].clear();
+        buffer.putLong(sequence)
+                .putLong(elapsedNanoseconds)
+                .putLong(initialPortionsCount)
+                .putLong(remainingPortionsCount);
+        for (var i = 0; i < visitorsCount; i++) {
+            buffer.putInt(eatenCounts[i]);
+        }
+        for (var word = 0; word < pendingWords(visitorsCount); word++) {
+            var bits = 0L;
+            for (var bit = 0; bit < Long.SIZE && word * Long.SIZE + bit < visitorsCount; bit++) {
+                if (pendingOrders[word * Long.SIZE + bit]) {
+                    bits |= 1L << bit;
+                }
+            }
+            buffer.putLong(bits);
+        }
+        crc.reset();
+        crc.update(buffer.flip());
+        buffer.limit(slotBytes).putInt(slotBytes - Integer.BYTES, (int) crc.getValue()).position(0);
+
+        var position = HEADER_BYTES + (long) slot * slotBytes;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * @return the latest complete checkpoint of the file.
+     */
+    public static DinnerCheckpoint read(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(channel, header, 0);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a dinner checkpoint: " + path);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("Unsupported checkpoint version: " + header.getInt(4));
+            }
+            var visitorsCount = header.getInt(8);
+            var slotBytes = header.getInt(12);
+            if (slotBytes != slotBytes(visitorsCount)) {
+                throw new IOException("Corrupted checkpoint header: " + path);
+            }
+
+            DinnerCheckpoint latest = null;
+            for (var slot = 0; slot < SLOTS_COUNT; slot++) {
+                var buffer = ByteBuffer.allocate(slotBytes);
+                var position = HEADER_BYTES + (long) slot * slotBytes;
+                if (channel.size() < position + slotBytes) {
+                    continue;
+                }
+                readFully(channel, buffer, position);
+                var checkpoint = decodeSlot(buffer, visitorsCount);
+                if (checkpoint != null && (latest == null || checkpoint.sequence() > latest.sequence())) {
+                    latest = checkpoint;
+                }
+            }
+            if (latest == null) {
+                throw new IOException("No complete checkpoint in " + path);
+            }
+            return latest;
+        }
+    }
+
+    // Null if the slot was not completely written
+    private static DinnerCheckpoint decodeSlot(ByteBuffer buffer, int visitorsCount) {
+        var crc = new CRC32();
+        crc.update(buffer.slice(0, buffer.capacity() - Integer.BYTES));
+        if ((int) crc.getValue() != buffer.getInt(buffer.capacity() - Integer.BYTES)) {
+            return null;
+        }
+        var sequence = buffer.getLong();
+        var elapsedNanoseconds = buffer.getLong();
+        var initialPortionsCount = buffer.getLong();
+        var remainingPortionsCount = buffer.getLong();
+        var eatenCounts = new int[visitorsCount];
+        for (var i = 0; i < visitorsCount; i++) {
+            eatenCounts[i] = buffer.getInt();
+        }
+        var pendingOrders = new boolean[visitorsCount];
+        for (var word = 0; word < pendingWords(visitorsCount); word++) {
+            var bits = buffer.getLong();
+            for (var bit = 0; bit < Long.SIZE && word * Long.SIZE + bit < visitorsCount; bit++) {
+                pendingOrders[word * Long.SIZE + bit] = (bits & (1L << bit)) != 0;
+            }
+        }
+        return new DinnerCheckpoint(sequence, Duration.ofNanos(elapsedNanoseconds), initialPortionsCount,
+                remainingPortionsCount, eatenCounts, pendingOrders);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            var readCount = channel.read(buffer, position + buffer.position());
+            if (readCount < 0) {
+                throw new IOException("Unexpected end of the checkpoint file");
+            }
+        }
+        buffer.flip();
+    }
+
+    private static int pendingWords(int visitorsCount) {
+        return (visitorsCount + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private static int slotBytes(int visitorsCount) {
+        return 4 * Long.BYTES + visitorsCount * Integer.BYTES + pendingWords(visitorsCount) * Long.BYTES
+                + Integer.BYTES;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
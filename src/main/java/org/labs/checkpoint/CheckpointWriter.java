@@ -0,0 +1,107 @@
+package org.labs.checkpoint;
+
+import org.labs.config.CheckpointConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically saves the progress of a running dinner on a daemon thread. The progress is read without locks,
+ * so neither the programmers nor the waiters ever wait for a checkpoint. A last checkpoint is saved on close,
+ * whether the dinner has finished or failed.
+ */
+public class CheckpointWriter implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointWriter.class);
+
+    /**
+     * Reads the current progress of the visitors into the given arrays, indexed by visitor id - 1.
+     */
+    @FunctionalInterface
+    public interface ProgressSource {
+        void capture(int[] eatenCounts, boolean[] pendingOrders);
+    }
+
+    private final CheckpointFile file;
+    private final ProgressSource source;
+    private final long initialPortionsCount;
+    private final long startNanoseconds = System.nanoTime();
+    private final long elapsedBeforeStartNanoseconds;
+    private final ScheduledExecutorService scheduler;
+
+    // Used by one thread at a time: the scheduler thread, then the closing thread after it has terminated
+    private final int[] eatenCounts;
+    private final boolean[] pendingOrders;
+    private long nextSequence;
+
+    /**
+     * @param resumedFrom checkpoint the dinner was resumed from, null for a new dinner.
+     */
+    public CheckpointWriter(CheckpointConfig config, int visitorsCount, long initialPortionsCount,
+                            DinnerCheckpoint resumedFrom, ProgressSource source) throws IOException {
+        this.file = CheckpointFile.open(config.path(), visitorsCount, resumedFrom == null);
+        this.source = source;
+        this.initialPortionsCount = initialPortionsCount;
+        this.elapsedBeforeStartNanoseconds = resumedFrom != null ? resumedFrom.elapsed().toNanos() : 0;
+        this.nextSequence = resumedFrom != null ? resumedFrom.sequence() + 1 : 0;
+        this.eatenCounts = new int[visitorsCount];
+        this.pendingOrders = new boolean[visitorsCount];
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("dinner-checkpoint").daemon().factory()
+        );
+        var intervalNanoseconds = config.interval().toNanos();
+        scheduler.scheduleAtFixedRate(this::saveQuietly, intervalNanoseconds, intervalNanoseconds,
+                TimeUnit.NANOSECONDS);
+    }
+
+    private void save() throws IOException {
+        source.capture(eatenCounts, pendingOrders);
+        // Portions delivered but not eaten yet are served again after a resume
+        var eatenPortionsCount = 0L;
+        for (var eatenCount : eatenCounts) {
+            eatenPortionsCount += eatenCount;
+        }
+        file.write(
+                nextSequence++,
+                elapsedBeforeStartNanoseconds + System.nanoTime() - startNanoseconds,
+                initialPortionsCount,
+                initialPortionsCount - eatenPortionsCount,
+                eatenCounts,
+                pendingOrders
+        );
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (IOException exception) {
+            logger.error("Could not save a checkpoint", exception);
+        }
+    }
+
+    /**
+     * Saves the last checkpoint. An interrupted dinner saves it too, so the interrupt status is restored
+     * only afterwards: interruptible file channels would be closed by it.
+     */
+    @Override
+    public void close() throws IOException {
+        var wasInterrupted = Thread.interrupted();
+        scheduler.shutdown();
+        try {
+            if (scheduler.awaitTermination(1, TimeUnit.MINUTES)) {
+                save();
+            }
+        } catch (InterruptedException exception) {
+            wasInterrupted = true;
+        } finally {
+            file.close();
+            if (wasInterrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
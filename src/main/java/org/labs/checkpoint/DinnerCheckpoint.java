@@ -0,0 +1,25 @@
+package org.labs.checkpoint;
+
+import java.time.Duration;
+
+/**
+ * Progress of a dinner at some moment. Portions taken from the kitchen but not eaten yet count as remaining,
+ * so the remaining and the eaten portions always add up to the initial count.
+ *
+ * @param sequence number of the checkpoint within its file, growing with every save.
+ * @param elapsed time since the start of the dinner, or of the first dinner for a resumed one.
+ * @param eatenCounts portions eaten by each visitor, indexed by visitor id - 1.
+ * @param pendingOrders whether each visitor was waiting for its order, indexed by visitor id - 1.
+ */
+public record DinnerCheckpoint(
+    long sequence,
+    Duration elapsed,
+    long initialPortionsCount,
+    long remainingPortionsCount,
+    int[] eatenCounts,
+    boolean[] pendingOrders
+) {
+    public int visitorsCount() {
+        return eatenCounts.length;
+    }
+}
@@ -0,0 +1,33 @@
+package org.labs.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Defines whether the progress of a dinner is periodically saved, so that an interrupted dinner can be resumed.
+ *
+ * @param path checkpoint file, null if checkpoints are disabled.
+ * @param interval period of the checkpoints. A last checkpoint is saved when the dinner ends or fails.
+ */
+public record CheckpointConfig(
+    Path path,
+    Duration interval
+) {
+    public CheckpointConfig {
+        if (path != null && (interval == null || !interval.isPositive())) {
+            throw new IllegalArgumentException("Checkpoint interval should be positive: " + interval);
+        }
+    }
+
+    public static CheckpointConfig disabled() {
+        return new CheckpointConfig(null, null);
+    }
+
+    public static CheckpointConfig every(Duration interval, Path path) {
+        return new CheckpointConfig(path, interval);
+    }
+
+    public boolean enabled() {
+        return path != null;
+    }
+}
@@ -1,14 +1,272 @@
 package org.labs.config;
 
-import org.labs.model.DurationRange;
+import org.labs.model.DelayDistribution;
+import org.labs.service.FairnessController;
 
 import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
 
 public record DinnerConfig(
     int visitorsCount,
     int waitersCount,
     long soupPortionsCount,
     Duration waitersServingDelay,
-    DurationRange visitorsDiscussionDelay,
-    DurationRange visitorsEatingDelay
-) { }
+    DelayDistribution visitorsDiscussionDelay,
+    DelayDistribution visitorsEatingDelay,
+    ExecutionMode executionMode,
+    PortionWaitStrategy portionWaitStrategy,
+    OrderDispatcherType orderDispatcherType,
+    KitchenCounterType kitchenCounterType,
+    int portionReservationBatchSize,
+    TimeMode timeMode,
+    SpoonAcquisitionType spoonAcquisitionType,
+    MetricsConfig metricsConfig,
+    int tablesCount,
+    TrayService trayService,
+    long seed,
+    boolean scenarioRecording,
+    WaiterStaffing waiterStaffing,
+    EventJournalConfig eventJournal,
+    CheckpointConfig checkpoint,
+    int fairnessDelta,
+    ServiceTiers serviceTiers,
+    SharedKitchenConfig sharedKitchen
+) {
+    public DinnerConfig(int visitorsCount, int waitersCount, long soupPortionsCount, Duration waitersServingDelay,
+                        DelayDistribution visitorsDiscussionDelay, DelayDistribution visitorsEatingDelay) {
+        this(visitorsCount, waitersCount, soupPortionsCount, waitersServingDelay,
+                visitorsDiscussionDelay, visitorsEatingDelay,
+                ExecutionMode.platform(),
+                PortionWaitStrategy.spinThenPark(),
+                OrderDispatcherType.PRIORITY_QUEUE,
+                KitchenCounterType.ATOMIC,
+                1,
+                TimeMode.REAL,
+                SpoonAcquisitionType.ORDERED,
+                MetricsConfig.disabled(),
+                1,
+                TrayService.single(),
+                ThreadLocalRandom.current().nextLong(),
+                false,
+                WaiterStaffing.fixed(),
+                EventJournalConfig.disabled(),
+                CheckpointConfig.disabled(),
+                FairnessController.UNBOUNDED,
+                ServiceTiers.none(),
+                SharedKitchenConfig.none());
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Builder toBuilder() {
+        return new Builder()
+                .visitorsCount(visitorsCount)
+                .waitersCount(waitersCount)
+                .soupPortionsCount(soupPortionsCount)
+                .waitersServingDelay(waitersServingDelay)
+                .visitorsDiscussionDelay(visitorsDiscussionDelay)
+                .visitorsEatingDelay(visitorsEatingDelay)
+                .executionMode(executionMode)
+                .portionWaitStrategy(portionWaitStrategy)
+                .orderDispatcherType(orderDispatcherType)
+                .kitchenCounterType(kitchenCounterType)
+                .portionReservationBatchSize(portionReservationBatchSize)
+                .timeMode(timeMode)
+                .spoonAcquisitionType(spoonAcquisitionType)
+                .metricsConfig(metricsConfig)
+                .tablesCount(tablesCount)
+                .trayService(trayService)
+                .seed(seed)
+                .scenarioRecording(scenarioRecording)
+                .waiterStaffing(waiterStaffing)
+                .eventJournal(eventJournal)
+                .checkpoint(checkpoint)
+                .fairnessDelta(fairnessDelta)
+                .serviceTiers(serviceTiers)
+                .sharedKitchen(sharedKitchen);
+    }
+
+    public static final class Builder {
+        private int visitorsCount;
+        private int waitersCount;
+        private long soupPortionsCount;
+        private Duration waitersServingDelay = Duration.ZERO;
+        private DelayDistribution visitorsDiscussionDelay;
+        private DelayDistribution visitorsEatingDelay;
+        private ExecutionMode executionMode = ExecutionMode.platform();
+        private PortionWaitStrategy portionWaitStrategy = PortionWaitStrategy.spinThenPark();
+        private OrderDispatcherType orderDispatcherType = OrderDispatcherType.PRIORITY_QUEUE;
+        private KitchenCounterType kitchenCounterType = KitchenCounterType.ATOMIC;
+        private int portionReservationBatchSize = 1;
+        private TimeMode timeMode = TimeMode.REAL;
+        private SpoonAcquisitionType spoonAcquisitionType = SpoonAcquisitionType.ORDERED;
+        private MetricsConfig metricsConfig = MetricsConfig.disabled();
+        private int tablesCount = 1;
+        private TrayService trayService = TrayService.single();
+        private long seed = ThreadLocalRandom.current().nextLong();
+        private boolean scenarioRecording = false;
+        private WaiterStaffing waiterStaffing = WaiterStaffing.fixed();
+        private EventJournalConfig eventJournal = EventJournalConfig.disabled();
+        private CheckpointConfig checkpoint = CheckpointConfig.disabled();
+        private int fairnessDelta = FairnessController.UNBOUNDED;
+        private ServiceTiers serviceTiers = ServiceTiers.none();
+        private SharedKitchenConfig sharedKitchen = SharedKitchenConfig.none();
+
+        private Builder() { }
+
+        public Builder visitorsCount(int visitorsCount) {
+            this.visitorsCount = visitorsCount;
+            return this;
+        }
+
+        public Builder waitersCount(int waitersCount) {
+            this.waitersCount = waitersCount;
+            return this;
+        }
+
+        public Builder soupPortionsCount(long soupPortionsCount) {
+            this.soupPortionsCount = soupPortionsCount;
+            return this;
+        }
+
+        public Builder waitersServingDelay(Duration waitersServingDelay) {
+            this.waitersServingDelay = waitersServingDelay;
+            return this;
+        }
+
+        public Builder visitorsDiscussionDelay(DelayDistribution visitorsDiscussionDelay) {
+            this.visitorsDiscussionDelay = visitorsDiscussionDelay;
+            return this;
+        }
+
+        public Builder visitorsEatingDelay(DelayDistribution visitorsEatingDelay) {
+            this.visitorsEatingDelay = visitorsEatingDelay;
+            return this;
+        }
+
+        public Builder executionMode(ExecutionMode executionMode) {
+            this.executionMode = executionMode;
+            return this;
+        }
+
+        public Builder portionWaitStrategy(PortionWaitStrategy portionWaitStrategy) {
+            this.portionWaitStrategy = portionWaitStrategy;
+            return this;
+        }
+
+        public Builder orderDispatcherType(OrderDispatcherType orderDispatcherType) {
+            this.orderDispatcherType = orderDispatcherType;
+            return this;
+        }
+
+        public Builder kitchenCounterType(KitchenCounterType kitchenCounterType) {
+            this.kitchenCounterType = kitchenCounterType;
+            return this;
+        }
+
+        public Builder portionReservationBatchSize(int portionReservationBatchSize) {
+            this.portionReservationBatchSize = portionReservationBatchSize;
+            return this;
+        }
+
+        public Builder timeMode(TimeMode timeMode) {
+            this.timeMode = timeMode;
+            return this;
+        }
+
+        public Builder spoonAcquisitionType(SpoonAcquisitionType spoonAcquisitionType) {
+            this.spoonAcquisitionType = spoonAcquisitionType;
+            return this;
+        }
+
+        public Builder metricsConfig(MetricsConfig metricsConfig) {
+            this.metricsConfig = metricsConfig;
+            return this;
+        }
+
+        public Builder tablesCount(int tablesCount) {
+            this.tablesCount = tablesCount;
+            return this;
+        }
+
+        public Builder trayService(TrayService trayService) {
+            this.trayService = trayService;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder scenarioRecording(boolean scenarioRecording) {
+            this.scenarioRecording = scenarioRecording;
+            return this;
+        }
+
+        public Builder waiterStaffing(WaiterStaffing waiterStaffing) {
+            this.waiterStaffing = waiterStaffing;
+            return this;
+        }
+
+        public Builder eventJournal(EventJournalConfig eventJournal) {
+            this.eventJournal = eventJournal;
+            return this;
+        }
+
+        public Builder checkpoint(CheckpointConfig checkpoint) {
+            this.checkpoint = checkpoint;
+            return this;
+        }
+
+        /**
+         * Bounds how far the eaten counts of the visitors at one table may drift apart. Every table keeps its own
+         * bound, so the eaten counts of visitors at different tables are not bounded against each other.
+         */
+        public Builder fairnessDelta(int fairnessDelta) {
+            this.fairnessDelta = fairnessDelta;
+            return this;
+        }
+
+        public Builder serviceTiers(ServiceTiers serviceTiers) {
+            this.serviceTiers = serviceTiers;
+            return this;
+        }
+
+        public Builder sharedKitchen(SharedKitchenConfig sharedKitchen) {
+            this.sharedKitchen = sharedKitchen;
+            return this;
+        }
+
+        public DinnerConfig build() {
+            return new DinnerConfig(
+                    visitorsCount,
+                    waitersCount,
+                    soupPortionsCount,
+                    waitersServingDelay,
+                    visitorsDiscussionDelay,
+                    visitorsEatingDelay,
+                    executionMode,
+                    portionWaitStrategy,
+                    orderDispatcherType,
+                    kitchenCounterType,
+                    portionReservationBatchSize,
+                    timeMode,
+                    spoonAcquisitionType,
+                    metricsConfig,
+                    tablesCount,
+                    trayService,
+                    seed,
+                    scenarioRecording,
+                    waiterStaffing,
+                    eventJournal,
+                    checkpoint,
+                    fairnessDelta,
+                    serviceTiers,
+                    sharedKitchen
+            );
+        }
+    }
+}
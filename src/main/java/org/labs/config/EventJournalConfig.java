@@ -0,0 +1,50 @@
+package org.labs.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Defines whether the events of a dinner are traced into a binary journal file.
+ * <p>
+ * The journal buffers events in {@code ringsCount} rings of {@code ringCapacity} events, 32 bytes per event
+ * with its publication mark, so it takes {@code ringsCount * ringCapacity * 32} bytes however many threads record.
+ * The default of 16 rings of 1024 events takes 512 KiB. Threads are striped onto the rings by their ids,
+ * so more rings let more threads record without contending for a ring.
+ *
+ * @param path journal file, null if the journal is disabled.
+ * @param ringsCount rings the recording threads are striped onto, a power of two.
+ * @param ringCapacity events buffered per ring, a power of two. A thread waits for the flusher once its ring is full.
+ * @param flushInterval pause of the flusher when there is nothing to flush.
+ */
+public record EventJournalConfig(
+    Path path,
+    int ringsCount,
+    int ringCapacity,
+    Duration flushInterval
+) {
+    public EventJournalConfig {
+        if (path != null) {
+            if (ringsCount < 1 || Integer.bitCount(ringsCount) != 1) {
+                throw new IllegalArgumentException("Rings count should be a power of two: " + ringsCount);
+            }
+            if (ringCapacity < 1 || Integer.bitCount(ringCapacity) != 1) {
+                throw new IllegalArgumentException("Ring capacity should be a power of two: " + ringCapacity);
+            }
+            if (!flushInterval.isPositive()) {
+                throw new IllegalArgumentException("Flush interval should be positive: " + flushInterval);
+            }
+        }
+    }
+
+    public static EventJournalConfig disabled() {
+        return new EventJournalConfig(null, 0, 0, Duration.ZERO);
+    }
+
+    public static EventJournalConfig to(Path path) {
+        return new EventJournalConfig(path, 16, 1024, Duration.ofMillis(1));
+    }
+
+    public boolean enabled() {
+        return path != null;
+    }
+}
@@ -0,0 +1,76 @@
+package org.labs.config;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Defines which threads run programmers and waiters of the dinner.
+ */
+public record ExecutionMode(
+    Kind kind,
+    ThreadFactory threadFactory
+) {
+    public ExecutionMode {
+        Objects.requireNonNull(kind);
+        if (kind == Kind.CUSTOM) {
+            Objects.requireNonNull(threadFactory, "Custom execution mode requires a thread factory");
+        }
+    }
+
+    /**
+     * One platform thread per programmer and per waiter.
+     */
+    public static ExecutionMode platform() {
+        return new ExecutionMode(Kind.PLATFORM, null);
+    }
+
+    /**
+     * One virtual thread per programmer and per waiter.
+     */
+    public static ExecutionMode virtual() {
+        return new ExecutionMode(Kind.VIRTUAL, null);
+    }
+
+    /**
+     * Programmers and waiters are chains of non-blocking stages run by a pool of one thread per core.
+     */
+    public static ExecutionMode async() {
+        return new ExecutionMode(Kind.ASYNC, null);
+    }
+
+    public static ExecutionMode custom(ThreadFactory threadFactory) {
+        return new ExecutionMode(Kind.CUSTOM, threadFactory);
+    }
+
+    /**
+     * Creates an executor able to run the given count of long-living tasks concurrently.
+     */
+    public ExecutorService newExecutor(int tasksCount) {
+        return switch (kind) {
+            case PLATFORM -> Executors.newFixedThreadPool(tasksCount);
+            case VIRTUAL -> Executors.newVirtualThreadPerTaskExecutor();
+            case CUSTOM -> Executors.newFixedThreadPool(tasksCount, threadFactory);
+            case ASYNC -> throw new IllegalStateException("Async mode does not run long-living tasks");
+        };
+    }
+
+    /**
+     * Creates the scheduler running the stages of the async mode.
+     */
+    public ScheduledExecutorService newScheduler() {
+        var threadFactory = this.threadFactory != null
+                ? this.threadFactory
+                : Thread.ofPlatform().name("dinner-async-", 1).daemon().factory();
+        return Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors(), threadFactory);
+    }
+
+    public enum Kind {
+        PLATFORM,
+        VIRTUAL,
+        CUSTOM,
+        ASYNC
+    }
+}
@@ -0,0 +1,27 @@
+package org.labs.config;
+
+import org.labs.service.kitchen.AtomicPortionCounter;
+import org.labs.service.kitchen.PortionCounter;
+import org.labs.service.kitchen.StripedPortionCounter;
+
+public enum KitchenCounterType {
+    /**
+     * Single atomic counter.
+     */
+    ATOMIC,
+
+    /**
+     * Counter striped by the available processors.
+     */
+    STRIPED;
+
+    public PortionCounter create(long initialPortionsCount) {
+        return switch (this) {
+            case ATOMIC -> new AtomicPortionCounter(initialPortionsCount);
+            case STRIPED -> new StripedPortionCounter(
+                    initialPortionsCount,
+                    Runtime.getRuntime().availableProcessors()
+            );
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package org.labs.config;
+
+import org.labs.metrics.MetricsSnapshot;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Defines whether the live metrics of a dinner are recorded and how they are published.
+ * Recorded metrics can be read through {@code DinnerSimulation.getMetrics()}. Recording updates shared counters
+ * and histograms on every served portion, so a dinner without recorded metrics skips it altogether.
+ *
+ * @param enabled whether the metrics are recorded, implied by publishing them.
+ * @param jmxEnabled whether the metrics are registered as an MBean while the dinner runs.
+ * @param snapshotInterval period of the snapshot callback.
+ * @param snapshotListener callback receiving the snapshots, null if there is none.
+ */
+public record MetricsConfig(
+    boolean enabled,
+    boolean jmxEnabled,
+    Duration snapshotInterval,
+    Consumer<MetricsSnapshot> snapshotListener
+) {
+    public MetricsConfig {
+        if (snapshotListener != null && (snapshotInterval == null || !snapshotInterval.isPositive())) {
+            throw new IllegalArgumentException("Snapshot interval should be positive: " + snapshotInterval);
+        }
+        if (!enabled && (jmxEnabled || snapshotListener != null)) {
+            throw new IllegalArgumentException("Published metrics have to be recorded");
+        }
+    }
+
+    /**
+     * Metrics recorded whenever they are published.
+     */
+    public MetricsConfig(boolean jmxEnabled, Duration snapshotInterval, Consumer<MetricsSnapshot> snapshotListener) {
+        this(jmxEnabled || snapshotListener != null, jmxEnabled, snapshotInterval, snapshotListener);
+    }
+
+    public static MetricsConfig disabled() {
+        return new MetricsConfig(false, false, null, null);
+    }
+
+    /**
+     * The metrics are recorded for {@code DinnerSimulation.getMetrics()}, but not published.
+     */
+    public static MetricsConfig recorded() {
+        return new MetricsConfig(true, false, null, null);
+    }
+
+    public static MetricsConfig jmx() {
+        return new MetricsConfig(true, true, null, null);
+    }
+
+    public static MetricsConfig snapshots(Duration interval, Consumer<MetricsSnapshot> listener) {
+        return new MetricsConfig(true, false, interval, listener);
+    }
+}
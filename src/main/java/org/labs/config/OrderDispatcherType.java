@@ -0,0 +1,50 @@
+package org.labs.config;
+
+import org.labs.service.dispatcher.BucketOrderDispatcher;
+import org.labs.service.dispatcher.DeadlineOrderDispatcher;
+import org.labs.service.dispatcher.OrderDispatcher;
+import org.labs.service.dispatcher.PriorityQueueOrderDispatcher;
+import org.labs.service.dispatcher.SkipListOrderDispatcher;
+
+public enum OrderDispatcherType {
+    /**
+     * Heap behind a single global lock.
+     */
+    PRIORITY_QUEUE,
+
+    /**
+     * Lock-free skip list.
+     */
+    SKIP_LIST,
+
+    /**
+     * Lock-free and allocation-free buckets by eaten portions. The least-fed visitor is served first only while
+     * the eaten counts of the pending orders spread over fewer than 64 portions, e.g. with a fairness delta below 64,
+     * and orders of equally fed visitors are served last in, first out.
+     */
+    BUCKETS;
+
+    public OrderDispatcher create(int visitorsCount) {
+        return create(visitorsCount, 1);
+    }
+
+    /**
+     * Creates a dispatcher for the visitors with consecutive ids starting from {@code firstVisitorId}.
+     */
+    public OrderDispatcher create(int visitorsCount, int firstVisitorId) {
+        return switch (this) {
+            case PRIORITY_QUEUE -> new PriorityQueueOrderDispatcher(visitorsCount);
+            case SKIP_LIST -> new SkipListOrderDispatcher();
+            case BUCKETS -> new BucketOrderDispatcher(visitorsCount, firstVisitorId);
+        };
+    }
+
+    /**
+     * Creates a dispatcher of this type, or an earliest-deadline-first one if the visitors are in service tiers.
+     */
+    public OrderDispatcher create(int visitorsCount, int firstVisitorId, ServiceTiers serviceTiers) {
+        return serviceTiers.isEnabled()
+                ? new DeadlineOrderDispatcher(visitorsCount, firstVisitorId, serviceTiers.longestDeadlineNanoseconds())
+                : create(visitorsCount, firstVisitorId);
+    }
+}
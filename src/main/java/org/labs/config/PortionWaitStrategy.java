@@ -0,0 +1,57 @@
+package org.labs.config;
+
+/**
+ * Defines how a visitor waits for the answer to its order.
+ *
+ * @param kind waiting algorithm.
+ * @param spinBudget count of busy-wait iterations before parking, used by {@link Kind#SPIN_THEN_PARK} only.
+ * @param cpuTimeMeasured whether the CPU time of every wait is measured, which costs two system calls per order.
+ */
+public record PortionWaitStrategy(
+    Kind kind,
+    int spinBudget,
+    boolean cpuTimeMeasured
+) {
+    public static final int DEFAULT_SPIN_BUDGET = 1_000;
+
+    public PortionWaitStrategy {
+        if (spinBudget < 0) {
+            throw new IllegalArgumentException("Spin budget should be non-negative: " + spinBudget);
+        }
+    }
+
+    /**
+     * Lowest latency, but the visitor occupies a core for the whole wait.
+     */
+    public static PortionWaitStrategy spin() {
+        return new PortionWaitStrategy(Kind.SPIN, 0, false);
+    }
+
+    /**
+     * The visitor parks immediately and is unparked by the waiter.
+     */
+    public static PortionWaitStrategy park() {
+        return new PortionWaitStrategy(Kind.PARK, 0, false);
+    }
+
+    public static PortionWaitStrategy spinThenPark(int spinBudget) {
+        return new PortionWaitStrategy(Kind.SPIN_THEN_PARK, spinBudget, false);
+    }
+
+    public static PortionWaitStrategy spinThenPark() {
+        return spinThenPark(DEFAULT_SPIN_BUDGET);
+    }
+
+    /**
+     * @return the same strategy which also measures the CPU time visitors spend waiting for their orders.
+     */
+    public PortionWaitStrategy withCpuTimeMeasured() {
+        return new PortionWaitStrategy(kind, spinBudget, true);
+    }
+
+    public enum Kind {
+        SPIN,
+        SPIN_THEN_PARK,
+        PARK
+    }
+}
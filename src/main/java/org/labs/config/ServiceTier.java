@@ -0,0 +1,38 @@
+package org.labs.config;
+
+import java.time.Duration;
+
+/**
+ * Class of service of a group of visitors. An order of the tier should be served within the deadline after
+ * it was placed. Best-effort visitors have no objective, and their deadline is the longest time their orders
+ * may be passed over by orders with objectives, which keeps them from starving.
+ *
+ * @param weight share of the visitors in the tier relative to the weights of the other tiers.
+ */
+public record ServiceTier(
+    String name,
+    Duration deadline,
+    int weight,
+    boolean isBestEffort
+) {
+    public ServiceTier {
+        if (!deadline.isPositive() || weight < 1) {
+            throw new IllegalArgumentException("Tier deadline and weight should be positive: " + deadline + ", "
+                    + weight);
+        }
+    }
+
+    /**
+     * Visitors with a latency objective.
+     */
+    public static ServiceTier objective(String name, Duration deadline, int weight) {
+        return new ServiceTier(name, deadline, weight, false);
+    }
+
+    /**
+     * Visitors without an objective whose orders are aged to the front after the aging time.
+     */
+    public static ServiceTier bestEffort(String name, Duration agingTime, int weight) {
+        return new ServiceTier(name, agingTime, weight, true);
+    }
+}
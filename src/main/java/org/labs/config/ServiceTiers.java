@@ -0,0 +1,59 @@
+package org.labs.config;
+
+import java.util.List;
+
+/**
+ * Service tiers of the visitors. Without tiers the least-fed visitor is served first. With tiers the order
+ * with the earliest deadline is served first, whatever the dispatcher type, and deadline misses are counted per tier.
+ * <p>
+ * Visitors are dealt to the tiers by id in proportion to the weights, e.g. with weights 1 and 3 every fourth
+ * visitor is in the first tier, so every table gets its share of each tier.
+ */
+public record ServiceTiers(
+    List<ServiceTier> tiers
+) {
+    public ServiceTiers {
+        tiers = List.copyOf(tiers);
+    }
+
+    public static ServiceTiers none() {
+        return new ServiceTiers(List.of());
+    }
+
+    public static ServiceTiers of(ServiceTier... tiers) {
+        return new ServiceTiers(List.of(tiers));
+    }
+
+    public boolean isEnabled() {
+        return !tiers.isEmpty();
+    }
+
+    /**
+     * @return index of the tier of the visitor, 0 without tiers.
+     */
+    public int tierOf(int visitorId) {
+        if (tiers.isEmpty()) {
+            return 0;
+        }
+        var totalWeight = tiers.stream().mapToInt(ServiceTier::weight).sum();
+        var position = (visitorId - 1) % totalWeight;
+        for (var i = 0; i < tiers.size(); i++) {
+            position -= tiers.get(i).weight();
+            if (position < 0) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Visitor " + visitorId + " fits no tier");
+    }
+
+    /**
+     * @return deadline of the orders of the visitor, {@link Long#MAX_VALUE} without tiers.
+     */
+    public long deadlineNanosecondsOf(int visitorId) {
+        return tiers.isEmpty() ? Long.MAX_VALUE : tiers.get(tierOf(visitorId)).deadline().toNanos();
+    }
+
+    public long longestDeadlineNanoseconds() {
+        return tiers.stream().mapToLong(tier -> tier.deadline().toNanos()).max().orElse(Long.MAX_VALUE);
+    }
+}
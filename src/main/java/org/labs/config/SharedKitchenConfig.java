@@ -0,0 +1,54 @@
+package org.labs.config;
+
+import org.labs.service.kitchen.MappedPortionCounter;
+import org.labs.service.kitchen.RemotePortionCounter;
+import org.labs.service.kitchen.SharedPortionCounter;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.file.Path;
+
+/**
+ * Defines whether the dinner draws its portions from a kitchen shared with the dinners of other processes
+ * instead of a kitchen of its own. The shared kitchen is created outside of the dinner, either by
+ * a {@link org.labs.service.kitchen.KitchenServer} or by {@link MappedPortionCounter#create(Path, long)},
+ * and the soup portions count of the dinner is then ignored.
+ *
+ * @param serverAddress address of the kitchen server, null unless the kitchen is served over a socket.
+ * @param mappedFile kitchen file mapped into the memory of every process, null unless the kitchen is a file.
+ */
+public record SharedKitchenConfig(
+    SocketAddress serverAddress,
+    Path mappedFile
+) {
+    public SharedKitchenConfig {
+        if (serverAddress != null && mappedFile != null) {
+            throw new IllegalArgumentException("The kitchen is either served or mapped, not both");
+        }
+    }
+
+    public static SharedKitchenConfig none() {
+        return new SharedKitchenConfig(null, null);
+    }
+
+    public static SharedKitchenConfig server(SocketAddress serverAddress) {
+        return new SharedKitchenConfig(serverAddress, null);
+    }
+
+    public static SharedKitchenConfig mappedFile(Path mappedFile) {
+        return new SharedKitchenConfig(null, mappedFile);
+    }
+
+    public boolean enabled() {
+        return serverAddress != null || mappedFile != null;
+    }
+
+    /**
+     * Connects to the kitchen server or maps the kitchen file. Should only be called if the shared kitchen is enabled.
+     */
+    public SharedPortionCounter open() throws IOException {
+        return serverAddress != null
+                ? RemotePortionCounter.connect(serverAddress)
+                : MappedPortionCounter.open(mappedFile);
+    }
+}
@@ -0,0 +1,41 @@
+package org.labs.config;
+
+import org.labs.model.Spoon;
+import org.labs.service.table.BitmaskSpoonAcquisition;
+import org.labs.service.table.ChandyMisraSpoonAcquisition;
+import org.labs.service.table.OrderedSpoonAcquisition;
+import org.labs.service.table.PaddedSpoonAcquisition;
+import org.labs.service.table.SpoonAcquisitionStrategy;
+
+import java.util.List;
+
+public enum SpoonAcquisitionType {
+    /**
+     * Spoon locks taken in the order of their indexes.
+     */
+    ORDERED,
+
+    /**
+     * Chandy/Misra dirty/clean spoons.
+     */
+    CHANDY_MISRA,
+
+    /**
+     * Both spoons taken at once with a CAS over a bitmask of spoon states.
+     */
+    BITMASK,
+
+    /**
+     * Spoons taken in the order of their indexes with a CAS over padded spoon states, one spoon per cache line.
+     */
+    PADDED;
+
+    public SpoonAcquisitionStrategy create(List<Spoon> spoons) {
+        return switch (this) {
+            case ORDERED -> new OrderedSpoonAcquisition(spoons);
+            case CHANDY_MISRA -> new ChandyMisraSpoonAcquisition(spoons.size());
+            case BITMASK -> new BitmaskSpoonAcquisition(spoons.size());
+            case PADDED -> new PaddedSpoonAcquisition(spoons.size());
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package org.labs.config;
+
+public enum TimeMode {
+    /**
+     * Programmers and waiters are threads which really sleep for discussion, eating and serving.
+     */
+    REAL,
+
+    /**
+     * Single-threaded discrete-event simulation which advances a virtual clock instead of sleeping.
+     */
+    LOGICAL
+}
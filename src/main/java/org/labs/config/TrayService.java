@@ -0,0 +1,37 @@
+package org.labs.config;
+
+import java.time.Duration;
+
+/**
+ * Defines how many orders a waiter takes at once and how long it serves them.
+ * A tray of several portions is served in {@code trayDelay + portions * perPortionDelay} and delivered at once,
+ * while a waiter with a tray of one portion serves every order in the waiters serving delay of the dinner.
+ *
+ * @param traySize maximum count of orders taken by a waiter at once.
+ */
+public record TrayService(
+    int traySize,
+    Duration trayDelay,
+    Duration perPortionDelay
+) {
+    public TrayService {
+        if (traySize < 1) {
+            throw new IllegalArgumentException("Tray size should be positive: " + traySize);
+        }
+    }
+
+    /**
+     * One order at a time.
+     */
+    public static TrayService single() {
+        return new TrayService(1, Duration.ZERO, Duration.ZERO);
+    }
+
+    public static TrayService trays(int traySize, Duration trayDelay, Duration perPortionDelay) {
+        return new TrayService(traySize, trayDelay, perPortionDelay);
+    }
+
+    public Duration serviceTime(int portionsCount) {
+        return trayDelay.plus(perPortionDelay.multipliedBy(portionsCount));
+    }
+}
@@ -0,0 +1,50 @@
+package org.labs.config;
+
+import java.time.Duration;
+
+/**
+ * Defines how many of the waiters serve at once. A fixed staff keeps every waiter serving for the whole dinner.
+ * An elastic staff starts with the minimum, calls one more waiter when orders pile up and lets a waiter go
+ * once it has been idle for the idle timeout, so the waiters count of the dinner becomes the maximum.
+ *
+ * @param minWaiters waiters which always serve, split between the tables.
+ * @param scaleUpQueueDepth pending orders per serving waiter above which another waiter is called.
+ * @param scaleUpOrderAge time an order may wait in the queue before another waiter is called.
+ * @param idleTimeout time an idle waiter keeps serving before it leaves. Being much longer than the check interval,
+ *                    it keeps the staff from growing and shrinking on every burst.
+ * @param checkInterval period of the decisions to call another waiter.
+ */
+public record WaiterStaffing(
+    boolean elastic,
+    int minWaiters,
+    int scaleUpQueueDepth,
+    Duration scaleUpOrderAge,
+    Duration idleTimeout,
+    Duration checkInterval
+) {
+    public WaiterStaffing {
+        if (elastic) {
+            if (minWaiters < 1 || scaleUpQueueDepth < 1) {
+                throw new IllegalArgumentException("Minimum waiters and scale-up queue depth should be positive: "
+                        + minWaiters + ", " + scaleUpQueueDepth);
+            }
+            if (!scaleUpOrderAge.isPositive() || !idleTimeout.isPositive() || !checkInterval.isPositive()) {
+                throw new IllegalArgumentException("Staffing durations should be positive");
+            }
+        }
+    }
+
+    public static WaiterStaffing fixed() {
+        return new WaiterStaffing(false, 0, 0, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+    }
+
+    public static WaiterStaffing elastic(int minWaiters) {
+        return new WaiterStaffing(true, minWaiters, 2, Duration.ofMillis(20), Duration.ofMillis(100),
+                Duration.ofMillis(5));
+    }
+
+    public static WaiterStaffing elastic(int minWaiters, int scaleUpQueueDepth, Duration scaleUpOrderAge,
+                                         Duration idleTimeout, Duration checkInterval) {
+        return new WaiterStaffing(true, minWaiters, scaleUpQueueDepth, scaleUpOrderAge, idleTimeout, checkInterval);
+    }
+}
@@ -0,0 +1,306 @@
+package org.labs.engine;
+
+import org.labs.config.DinnerConfig;
+import org.labs.metrics.DinnerMetrics;
+import org.labs.metrics.LatencyHistogram;
+import org.labs.model.ActiveWaitersSample;
+import org.labs.model.DinnerStatistics;
+import org.labs.model.Order;
+import org.labs.model.Spoon;
+import org.labs.model.TierStatistics;
+import org.labs.model.VisitorDelays;
+import org.labs.model.notifier.NoMorePortionsNotifier;
+import org.labs.model.notifier.SoupPortionNotifier;
+import org.labs.service.FairnessController;
+import org.labs.service.KitchenService;
+import org.labs.service.dispatcher.OrderDispatcher;
+import org.labs.service.table.AsyncSpoonAcquisition;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dinner in which the life of every programmer is a chain of non-blocking stages: discuss, order,
+ * await the delivery, take the spoons, eat and put them down. Delays are scheduled on a small pool
+ * instead of sleeping, so tens of thousands of programmers run on a handful of threads.
+ * <p>
+ * Waiters are a count of idle servers: an order is assigned to an idle waiter as soon as one is available,
+ * and the waiter becomes idle again once the serving delay has passed. The rules of the threaded dinner are kept:
+ * orders of the least-fed visitors are served first, orders of visitors too far ahead are held back
+ * and the order queue closes once the kitchen is empty.
+ * The dinner is held at a single table, and every waiter serves one order at a time.
+ */
+public class AsyncDinner {
+    private final DinnerConfig config;
+    private final DinnerMetrics metrics;
+    private final KitchenService kitchenService;
+    private final OrderDispatcher orders;
+    private final FairnessController fairness;
+    private final AtomicBoolean areOrdersAccepted = new AtomicBoolean(true);
+    private final AtomicInteger idleWaiters;
+    private final AtomicInteger dispatchRequests = new AtomicInteger(0);
+    private final AsyncSpoonAcquisition spoons;
+    private final long servingDelayNanoseconds;
+    private final List<Visitor> visitors;
+    private volatile long closedAtNanoseconds;
+
+    private ScheduledExecutorService scheduler;
+
+    public AsyncDinner(DinnerConfig config, DinnerMetrics metrics) {
+        this(config, VisitorDelays.seeded(config.visitorsDiscussionDelay(), config.visitorsEatingDelay(),
+                config.seed(), config.visitorsCount()), metrics);
+    }
+
+    /**
+     * @param visitorsDelays sources of the discussion and eating times, indexed by visitor id minus one.
+     */
+    public AsyncDinner(DinnerConfig config, List<VisitorDelays> visitorsDelays, DinnerMetrics metrics) {
+        this.config = config;
+        this.metrics = metrics;
+        this.kitchenService = new KitchenService(config.soupPortionsCount(), config.kitchenCounterType());
+        this.orders = config.orderDispatcherType().create(config.visitorsCount(), 1, config.serviceTiers());
+        this.fairness = new FairnessController(orders, config.fairnessDelta(), config.visitorsCount(), 1);
+        this.idleWaiters = new AtomicInteger(config.waitersCount());
+        this.servingDelayNanoseconds = config.waitersServingDelay().toNanos();
+
+        var spoonsList = new ArrayList<Spoon>(config.visitorsCount());
+        for (var i = 0; i < config.visitorsCount(); i++) {
+            spoonsList.add(new Spoon());
+        }
+        this.spoons = new AsyncSpoonAcquisition(config.spoonAcquisitionType().create(spoonsList),
+                config.visitorsCount());
+
+        this.visitors = new ArrayList<>(config.visitorsCount());
+        for (var i = 0; i < config.visitorsCount(); i++) {
+            visitors.add(new Visitor(i, visitorsDelays.get(i)));
+        }
+    }
+
+    /**
+     * Runs the dinner until every visitor has finished.
+     */
+    public DinnerStatistics simulate() throws InterruptedException, ExecutionException {
+        this.scheduler = config.executionMode().newScheduler();
+        try {
+            var startTime = System.nanoTime();
+            for (var visitor : visitors) {
+                visitor.startMeal();
+            }
+            CompletableFuture.allOf(visitors.stream()
+                    .map(visitor -> visitor.finished)
+                    .toArray(CompletableFuture[]::new)
+            ).get();
+            var elapsedNanoseconds = System.nanoTime() - startTime;
+
+            return getStatistics(elapsedNanoseconds);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private DinnerStatistics getStatistics(long elapsedNanoseconds) {
+        var eatenCounts = new int[visitors.size()];
+        var orderWaitHistogram = new LatencyHistogram();
+        var spoonWaitHistogram = new LatencyHistogram();
+        var serviceTimeHistogram = new LatencyHistogram();
+        var shutdownHistogram = new LatencyHistogram();
+        var tierStatistics = TierStatistics.collector(config.serviceTiers());
+        for (var visitor : visitors) {
+            eatenCounts[visitor.index] = visitor.eatenCount;
+            orderWaitHistogram.merge(visitor.orderWaitHistogram);
+            tierStatistics.add(visitor.order.tier(), visitor.orderWaitHistogram, visitor.deadlineMissesCount);
+            spoonWaitHistogram.merge(visitor.spoonWaitHistogram);
+            serviceTimeHistogram.merge(visitor.serviceTimeHistogram);
+            shutdownHistogram.record(Math.max(0, visitor.finishedAtNanoseconds - closedAtNanoseconds));
+        }
+
+        return DinnerStatistics.builder()
+                .remainingPortionsInKitchen(kitchenService.getSoupPortionsCount())
+                .eatenCounts(eatenCounts)
+                .dinnerDuration(Duration.ofNanos(elapsedNanoseconds))
+                .orderWait(orderWaitHistogram.summary())
+                .spoonWait(spoonWaitHistogram.summary())
+                .serviceTime(serviceTimeHistogram.summary())
+                .shutdown(shutdownHistogram.summary())
+                .activeWaiters(List.of(new ActiveWaitersSample(Duration.ZERO, config.waitersCount())))
+                .tiers(tierStatistics.collect())
+                .build();
+    }
+
+    private CompletableFuture<Void> delay(long nanoseconds) {
+        var delayed = new CompletableFuture<Void>();
+        scheduler.schedule(() -> delayed.complete(null), nanoseconds, TimeUnit.NANOSECONDS);
+        return delayed;
+    }
+
+    // Hands the queued orders to idle waiters. Visitors placing orders and waiters becoming idle both call it,
+    // so an order is never left in the queue while a waiter is idle. One caller drains the queue at a time,
+    // and every call made meanwhile costs the drainer one more pass instead of being lost.
+    // The passes are driven by poll() alone, as the size of some dispatchers is not exact.
+    private void dispatchOrders() {
+        if (dispatchRequests.getAndIncrement() != 0) {
+            return;
+        }
+        var requests = 1;
+        do {
+            drainOrders();
+            requests = dispatchRequests.addAndGet(-requests);
+        } while (requests != 0);
+    }
+
+    private void drainOrders() {
+        while (true) {
+            var idle = idleWaiters.get();
+            if (idle == 0) {
+                return;
+            }
+            if (!idleWaiters.compareAndSet(idle, idle - 1)) {
+                continue;
+            }
+
+            var order = orders.poll();
+            if (order == null) {
+                idleWaiters.incrementAndGet();
+                return;
+            }
+            if (!takeSoupPortion()) {
+                idleWaiters.incrementAndGet();
+                closeOrders(order);
+                return;
+            }
+            var serviceStartNanoseconds = System.nanoTime();
+            scheduler.schedule(() -> serve(order, serviceStartNanoseconds),
+                    servingDelayNanoseconds, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // The async dinner runs on a stock which never waits for a refill, so an interrupt only comes from the outside
+    private boolean takeSoupPortion() {
+        try {
+            return kitchenService.takeSoupPortion();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void serve(Order order, long serviceStartNanoseconds) {
+        var serviceNanoseconds = System.nanoTime() - serviceStartNanoseconds;
+        visitors.get(order.visitorId() - 1).serviceTimeHistogram.record(serviceNanoseconds);
+        metrics.recordPortionServed(serviceNanoseconds);
+        order.soupPortionNotifier().setSoupPortion();
+
+        idleWaiters.incrementAndGet();
+        dispatchOrders();
+    }
+
+    private void closeOrders(Order unservedOrder) {
+        if (areOrdersAccepted.getAndSet(false)) {
+            closedAtNanoseconds = System.nanoTime();
+        }
+        fairness.releaseAll();
+        unservedOrder.noMorePortionsNotifier().notifyVisitor();
+        Order order;
+        while ((order = orders.poll()) != null) {
+            order.noMorePortionsNotifier().notifyVisitor();
+        }
+    }
+
+    private final class Visitor implements SoupPortionNotifier, NoMorePortionsNotifier {
+        private final int index;
+        private final VisitorDelays delays;
+        private final Order order;
+        private final CompletableFuture<Void> finished = new CompletableFuture<>();
+        private final LatencyHistogram orderWaitHistogram = new LatencyHistogram();
+        private final LatencyHistogram spoonWaitHistogram = new LatencyHistogram();
+        private final LatencyHistogram serviceTimeHistogram = new LatencyHistogram();
+
+        // Stages of a visitor never run concurrently, and each of them happens after the previous one
+        private int eatenCount = 0;
+        private long orderedAtNanoseconds;
+        private long deadlineMissesCount = 0;
+        private CompletableFuture<Boolean> delivery;
+        private long finishedAtNanoseconds;
+
+        private Visitor(int index, VisitorDelays delays) {
+            this.index = index;
+            this.delays = delays;
+            this.order = new Order(index + 1, 0, this, this);
+            order.setServiceTier(config.serviceTiers().tierOf(index + 1),
+                    config.serviceTiers().deadlineNanosecondsOf(index + 1));
+        }
+
+        private void startMeal() {
+            delay(delays.nextDiscussionNanoseconds())
+                    .thenCompose(ignored -> placeOrder())
+                    .thenCompose(isServed -> isServed ? eat() : CompletableFuture.completedFuture(false))
+                    .whenComplete((hasEaten, failure) -> {
+                        if (failure != null) {
+                            finished.completeExceptionally(failure);
+                        } else if (hasEaten && areOrdersAccepted.get()) {
+                            startMeal();
+                        } else {
+                            finishedAtNanoseconds = System.nanoTime();
+                            finished.complete(null);
+                        }
+                    });
+        }
+
+        // Completes with false if the visitor will not get any more soup
+        private CompletableFuture<Boolean> placeOrder() {
+            if (!areOrdersAccepted.get()) {
+                return CompletableFuture.completedFuture(false);
+            }
+            delivery = new CompletableFuture<>();
+            orderedAtNanoseconds = System.nanoTime();
+            fairness.submit(order.renew(eatenCount));
+
+            // Same withdrawal rule as in OrdersService: an order taken by a waiter is always answered
+            if (!areOrdersAccepted.get() && (fairness.withdraw(order) || orders.remove(order))) {
+                return CompletableFuture.completedFuture(false);
+            }
+            dispatchOrders();
+            return delivery;
+        }
+
+        private CompletableFuture<Boolean> eat() {
+            var spoonWaitStartNanoseconds = System.nanoTime();
+            return spoons.acquire(index)
+                    .thenCompose(ignored -> {
+                        var spoonWaitNanoseconds = System.nanoTime() - spoonWaitStartNanoseconds;
+                        spoonWaitHistogram.record(spoonWaitNanoseconds);
+                        metrics.recordSpoonWait(spoonWaitNanoseconds);
+                        return delay(delays.nextEatingNanoseconds());
+                    })
+                    .thenApply(ignored -> {
+                        spoons.release(index);
+                        eatenCount++;
+                        return true;
+                    });
+        }
+
+        @Override
+        public void setSoupPortion() {
+            var receivedAtNanoseconds = System.nanoTime();
+            var orderWaitNanoseconds = receivedAtNanoseconds - orderedAtNanoseconds;
+            if (receivedAtNanoseconds > order.deadlineNanoseconds()) {
+                deadlineMissesCount++;
+            }
+            orderWaitHistogram.record(orderWaitNanoseconds);
+            metrics.recordOrderLatency(index + 1, orderWaitNanoseconds);
+            delivery.complete(true);
+        }
+
+        @Override
+        public void notifyVisitor() {
+            delivery.complete(false);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package org.labs.engine;
+
+import org.labs.config.DinnerConfig;
+import org.labs.config.ServiceTiers;
+import org.labs.metrics.LatencyHistogram;
+import org.labs.model.ActiveWaitersSample;
+import org.labs.model.DinnerStatistics;
+import org.labs.model.TierStatistics;
+import org.labs.model.VisitorDelays;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Discrete-event model of the dinner. Events are processed in the order of a virtual clock,
+ * so a dinner of any length takes only as much real time as its bookkeeping.
+ * The model follows the rules of the threaded dinner: orders of the least-fed visitors are served first,
+ * or the orders with the earliest deadlines if the visitors are in service tiers,
+ * the order queue closes once a waiter fails to take a portion from the empty kitchen,
+ * and spoons are taken in the order of their indexes and handed over to the waiting neighbours in FIFO order.
+ */
+public class LogicalTimeDinner {
+    private static final int NO_HOLDER = -1;
+
+    private final int visitorsCount;
+    private final int waitersCount;
+    private final long servingDelayNanoseconds;
+    private final List<VisitorDelays> visitorsDelays;
+    private final ServiceTiers serviceTiers;
+
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private long now = 0;
+    private long scheduledEventsCount = 0;
+
+    private long remainingPortions;
+    private boolean areOrdersAccepted = true;
+    private int idleWaiters;
+    private final PriorityQueue<PendingOrder> pendingOrders;
+
+    private final int[] eatenCounts;
+    // Virtual time when each visitor placed its order or received its soup
+    private final long[] orderedAt;
+    private final long[] servedAt;
+    private final LatencyHistogram orderWaitHistogram = new LatencyHistogram();
+    private final LatencyHistogram spoonWaitHistogram = new LatencyHistogram();
+    private final LatencyHistogram serviceTimeHistogram = new LatencyHistogram();
+    private final int[] tiers;
+    private final long[] deadlines;
+    private final LatencyHistogram[] tierOrderWaitHistograms;
+    private final long[] tierDeadlineMisses;
+    // Count of spoons each visitor already holds while acquiring them
+    private final int[][] visitorSpoons;
+    private final int[] heldSpoons;
+    private final int[] spoonHolders;
+    private final List<ArrayDeque<Integer>> spoonQueues;
+
+    public LogicalTimeDinner(DinnerConfig config) {
+        this(config, VisitorDelays.seeded(config.visitorsDiscussionDelay(), config.visitorsEatingDelay(),
+                config.seed(), config.visitorsCount()));
+    }
+
+    /**
+     * @param visitorsDelays sources of the discussion and eating times, indexed by visitor id minus one.
+     */
+    public LogicalTimeDinner(DinnerConfig config, List<VisitorDelays> visitorsDelays) {
+        this.visitorsCount = config.visitorsCount();
+        this.servingDelayNanoseconds = config.waitersServingDelay().toNanos();
+        this.visitorsDelays = visitorsDelays;
+        this.remainingPortions = config.soupPortionsCount();
+        this.waitersCount = config.waitersCount();
+        this.idleWaiters = waitersCount;
+        this.serviceTiers = config.serviceTiers();
+        this.pendingOrders = new PriorityQueue<>(serviceTiers.isEnabled()
+                ? Comparator.comparingLong(PendingOrder::deadline).thenComparingInt(PendingOrder::visitorIndex)
+                : Comparator.comparingInt(PendingOrder::portionsEaten).thenComparingInt(PendingOrder::visitorIndex));
+
+        this.eatenCounts = new int[visitorsCount];
+        this.orderedAt = new long[visitorsCount];
+        this.servedAt = new long[visitorsCount];
+        this.visitorSpoons = new int[visitorsCount][];
+        this.heldSpoons = new int[visitorsCount];
+        this.spoonHolders = new int[visitorsCount];
+        this.spoonQueues = new ArrayList<>(visitorsCount);
+
+        this.tiers = new int[visitorsCount];
+        this.deadlines = new long[visitorsCount];
+        this.tierOrderWaitHistograms = new LatencyHistogram[serviceTiers.tiers().size()];
+        this.tierDeadlineMisses = new long[serviceTiers.tiers().size()];
+        for (var i = 0; i < tierOrderWaitHistograms.length; i++) {
+            tierOrderWaitHistograms[i] = new LatencyHistogram();
+        }
+
+        for (var i = 0; i < visitorsCount; i++) {
+            tiers[i] = serviceTiers.tierOf(i + 1);
+            deadlines[i] = serviceTiers.deadlineNanosecondsOf(i + 1);
+            spoonHolders[i] = NO_HOLDER;
+            spoonQueues.add(new ArrayDeque<>());
+            visitorSpoons[i] = spoonsOf(i);
+        }
+    }
+
+    /**
+     * Runs the model until every visitor has finished.
+     *
+     * @return statistics of the dinner, where the dinner duration is measured in real time
+     * and the simulated duration is the time on the virtual clock.
+     */
+    public DinnerStatistics simulate() {
+        var startTime = System.nanoTime();
+
+        for (var i = 0; i < visitorsCount; i++) {
+            startDiscussion(i);
+        }
+
+        Event event;
+        while ((event = events.poll()) != null) {
+            now = event.time();
+            switch (event.type()) {
+                case DISCUSSION_END -> onDiscussionEnd(event.visitorIndex());
+                case SERVING_END -> onServingEnd(event.visitorIndex());
+                case EATING_END -> onEatingEnd(event.visitorIndex());
+            }
+        }
+
+        var tierStatistics = TierStatistics.collector(serviceTiers);
+        for (var i = 0; i < tierOrderWaitHistograms.length; i++) {
+            tierStatistics.add(i, tierOrderWaitHistograms[i], tierDeadlineMisses[i]);
+        }
+
+        // Visitors of the model finish their discussions before leaving, so the shutdown is not measured
+        return DinnerStatistics.builder()
+                .remainingPortionsInKitchen(remainingPortions)
+                .eatenCounts(eatenCounts)
+                .dinnerDuration(Duration.ofNanos(System.nanoTime() - startTime))
+                .simulatedDuration(Duration.ofNanos(now))
+                .orderWait(orderWaitHistogram.summary())
+                .spoonWait(spoonWaitHistogram.summary())
+                .serviceTime(serviceTimeHistogram.summary())
+                .activeWaiters(List.of(new ActiveWaitersSample(Duration.ZERO, waitersCount)))
+                .tiers(tierStatistics.collect())
+                .build();
+    }
+
+    private void startDiscussion(int visitorIndex) {
+        schedule(EventType.DISCUSSION_END, visitorIndex, visitorsDelays.get(visitorIndex).nextDiscussionNanoseconds());
+    }
+
+    private void onDiscussionEnd(int visitorIndex) {
+        if (!areOrdersAccepted) {
+            return;
+        }
+        orderedAt[visitorIndex] = now;
+        var deadline = deadlines[visitorIndex] == Long.MAX_VALUE ? Long.MAX_VALUE : now + deadlines[visitorIndex];
+        pendingOrders.add(new PendingOrder(visitorIndex, eatenCounts[visitorIndex], deadline));
+        dispatchOrders();
+    }
+
+    private void dispatchOrders() {
+        while (idleWaiters > 0 && !pendingOrders.isEmpty()) {
+            var order = pendingOrders.poll();
+            if (remainingPortions == 0) {
+                // The failed take closes the queue, and the visitors who wait for soup are sent away
+                areOrdersAccepted = false;
+                pendingOrders.clear();
+                return;
+            }
+            remainingPortions--;
+            idleWaiters--;
+            serviceTimeHistogram.record(servingDelayNanoseconds);
+            schedule(EventType.SERVING_END, order.visitorIndex(), servingDelayNanoseconds);
+        }
+    }
+
+    private void onServingEnd(int visitorIndex) {
+        idleWaiters++;
+        servedAt[visitorIndex] = now;
+        var orderWaitNanoseconds = now - orderedAt[visitorIndex];
+        orderWaitHistogram.record(orderWaitNanoseconds);
+        if (serviceTiers.isEnabled()) {
+            tierOrderWaitHistograms[tiers[visitorIndex]].record(orderWaitNanoseconds);
+            if (orderWaitNanoseconds > deadlines[visitorIndex]) {
+                tierDeadlineMisses[tiers[visitorIndex]]++;
+            }
+        }
+        acquireSpoons(visitorIndex);
+        dispatchOrders();
+    }
+
+    private void acquireSpoons(int visitorIndex) {
+        var spoons = visitorSpoons[visitorIndex];
+        while (heldSpoons[visitorIndex] < spoons.length) {
+            var spoon = spoons[heldSpoons[visitorIndex]];
+            if (spoonHolders[spoon] != NO_HOLDER) {
+                spoonQueues.get(spoon).addLast(visitorIndex);
+                return;
+            }
+            spoonHolders[spoon] = visitorIndex;
+            heldSpoons[visitorIndex]++;
+        }
+        spoonWaitHistogram.record(now - servedAt[visitorIndex]);
+        schedule(EventType.EATING_END, visitorIndex, visitorsDelays.get(visitorIndex).nextEatingNanoseconds());
+    }
+
+    private void onEatingEnd(int visitorIndex) {
+        var spoons = visitorSpoons[visitorIndex];
+        heldSpoons[visitorIndex] = 0;
+        for (var i = spoons.length - 1; i >= 0; i--) {
+            releaseSpoon(spoons[i]);
+        }
+        eatenCounts[visitorIndex]++;
+
+        if (areOrdersAccepted) {
+            startDiscussion(visitorIndex);
+        }
+    }
+
+    private void releaseSpoon(int spoon) {
+        var nextHolder = spoonQueues.get(spoon).pollFirst();
+        if (nextHolder == null) {
+            spoonHolders[spoon] = NO_HOLDER;
+            return;
+        }
+        spoonHolders[spoon] = nextHolder;
+        heldSpoons[nextHolder]++;
+        acquireSpoons(nextHolder);
+    }
+
+    // Spoons in the order of acquisition. A single visitor uses the same spoon as the left and the right one.
+    private int[] spoonsOf(int visitorIndex) {
+        var firstSpoon = visitorIndex;
+        var secondSpoon = (visitorIndex + 1) % visitorsCount;
+        if (firstSpoon == secondSpoon) {
+            return new int[] { firstSpoon };
+        }
+        return new int[] { Math.min(firstSpoon, secondSpoon), Math.max(firstSpoon, secondSpoon) };
+    }
+
+    private void schedule(EventType type, int visitorIndex, long delayNanoseconds) {
+        events.add(new Event(now + delayNanoseconds, scheduledEventsCount++, type, visitorIndex));
+    }
+
+    private enum EventType {
+        DISCUSSION_END,
+        SERVING_END,
+        EATING_END
+    }
+
+    private record Event(long time, long sequence, EventType type, int visitorIndex) implements Comparable<Event> {
+        @Override
+        public int compareTo(Event other) {
+            var timeComparison = Long.compare(time, other.time);
+            return timeComparison != 0 ? timeComparison : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private record PendingOrder(int visitorIndex, int portionsEaten, long deadline) { }
+}
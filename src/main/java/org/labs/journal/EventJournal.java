@@ -0,0 +1,187 @@
+package org.labs.journal;
+
+import org.labs.config.EventJournalConfig;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Binary trace of the dinner events. Threads record into a fixed set of rings of primitive events, striped
+ * by the thread id, and a background thread moves the events from the rings into a memory-mapped file.
+ * The rings take the same memory however many threads record, so a dinner of virtual threads can be traced.
+ * Recording does not allocate or box, and costs a single volatile read while the journal is not open.
+ * <p>
+ * The file starts with a header of the magic, the version and the events count, followed by 24 bytes per event:
+ * the timestamp, the type with the actor and subject ids, and the value. Events of one thread follow
+ * in their order, while events of different threads are interleaved in the order they were flushed.
+ * Ids are stored in 28 bits. The file is decoded by {@link JournalDecoder}.
+ */
+public final class EventJournal implements AutoCloseable {
+    /**
+     * Journal which drops every event.
+     */
+    public static final EventJournal DISABLED = new EventJournal(EventJournalConfig.disabled());
+
+    static final int MAGIC = 0x444E524A;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int EVENT_BYTES = JournalRing.LONGS_PER_EVENT * Long.BYTES;
+    static final int ID_BITS = 28;
+    static final long ID_MASK = (1L << ID_BITS) - 1;
+    private static final long REGION_BYTES = 16L << 20;
+
+    private final EventJournalConfig config;
+    private final JournalRing[] rings;
+
+    private volatile boolean open = false;
+    private long startNanoseconds;
+
+    // Used by the flusher thread, and by the closing thread after the flusher has stopped
+    private FileChannel channel;
+    private MappedByteBuffer region;
+    private long endPosition = HEADER_BYTES;
+    private Thread flusher;
+    private volatile IOException failure;
+
+    public EventJournal(EventJournalConfig config) {
+        this.config = config;
+        this.rings = new JournalRing[config.enabled() ? config.ringsCount() : 0];
+        for (var i = 0; i < rings.length; i++) {
+            rings[i] = new JournalRing(this, config.ringCapacity());
+        }
+    }
+
+    /**
+     * Creates the journal file and starts flushing. Events recorded before the start are dropped.
+     */
+    public void start() throws IOException {
+        if (!config.enabled()) {
+            return;
+        }
+        this.channel = FileChannel.open(config.path(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.startNanoseconds = System.nanoTime();
+        this.open = true;
+        this.flusher = Thread.ofPlatform().name("dinner-journal").daemon().start(this::flush);
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public void record(JournalEventType type, int actorId, int subjectId, long value) {
+        if (!open) {
+            return;
+        }
+        var packedHeader = ((long) type.ordinal() << (2 * ID_BITS))
+                | ((actorId & ID_MASK) << ID_BITS)
+                | (subjectId & ID_MASK);
+        // A thread always records into the same ring, so its events keep their order
+        var ring = rings[(int) Thread.currentThread().threadId() & (rings.length - 1)];
+        ring.put(System.nanoTime() - startNanoseconds, packedHeader, value);
+    }
+
+    private void flush() {
+        try {
+            while (open) {
+                if (drainRings() == 0) {
+                    LockSupport.parkNanos(config.flushInterval().toNanos());
+                }
+            }
+        } catch (IOException exception) {
+            failure = exception;
+            open = false;
+        }
+    }
+
+    private long drainRings() throws IOException {
+        var drainedCount = 0L;
+        for (var ring : rings) {
+            var from = ring.consumed.get();
+            // A pass takes at most a ring of events, so busy producers cannot hold the flusher on one ring
+            var limit = from + ring.capacity();
+            var to = from;
+            while (to < limit && ring.isPublished(to)) {
+                var offset = ring.offset(to);
+                var target = writableRegion();
+                target.putLong(ring.events[offset]);
+                target.putLong(ring.events[offset + 1]);
+                target.putLong(ring.events[offset + 2]);
+                endPosition += EVENT_BYTES;
+                to++;
+            }
+            ring.consumed.lazySet(to);
+            drainedCount += to - from;
+        }
+        return drainedCount;
+    }
+
+    // Regions are mapped one after another at the end of the written events, so an event never spans two regions
+    private MappedByteBuffer writableRegion() throws IOException {
+        if (region == null || region.remaining() < EVENT_BYTES) {
+            if (region != null) {
+                region.force();
+            }
+            region = channel.map(FileChannel.MapMode.READ_WRITE, endPosition, REGION_BYTES);
+        }
+        return region;
+    }
+
+    /**
+     * Stops recording, flushes the remaining events and completes the file. Should be called
+     * once the recording threads have finished, because events recorded while closing may be lost.
+     * The file is completed even by an interrupted thread, so the interrupt status is restored
+     * only afterwards: interruptible file channels would be closed by it.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        var wasInterrupted = Thread.interrupted();
+        open = false;
+        LockSupport.unpark(flusher);
+        try {
+            wasInterrupted |= joinFlusher();
+            if (failure != null) {
+                throw failure;
+            }
+            drainRings();
+            if (region != null) {
+                region.force();
+            }
+            var header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong((endPosition - HEADER_BYTES) / EVENT_BYTES)
+                    .flip();
+            channel.write(header, 0);
+            channel.truncate(endPosition);
+        } finally {
+            channel.close();
+            channel = null;
+            region = null;
+            if (wasInterrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // The flusher stops after its current pass, and the file may only be completed once it has stopped,
+    // so an interrupt does not cut the wait short
+    private boolean joinFlusher() {
+        var wasInterrupted = false;
+        while (true) {
+            try {
+                flusher.join();
+                return wasInterrupted;
+            } catch (InterruptedException exception) {
+                wasInterrupted = true;
+            }
+        }
+    }
+}
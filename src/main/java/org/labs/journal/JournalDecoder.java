@@ -0,0 +1,105 @@
+package org.labs.journal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Serial;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Offline decoder of the journal files written by {@link EventJournal}.
+ * <p>
+ * Usage: {@code JournalDecoder <journal file> [text|csv]}, which prints the events to the standard output.
+ */
+public final class JournalDecoder {
+    private static final JournalEventType[] EVENT_TYPES = JournalEventType.values();
+    private static final int READ_BUFFER_BYTES = 1 << 16;
+
+    private JournalDecoder() { }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: JournalDecoder <journal file> [text|csv]");
+            System.exit(2);
+        }
+        var format = args.length == 2 ? JournalFormat.valueOf(args[1].toUpperCase(Locale.ROOT)) : JournalFormat.TEXT;
+        var output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        decode(Path.of(args[0]), format, output);
+        output.flush();
+    }
+
+    /**
+     * Writes the events of the journal as lines of the given format.
+     *
+     * @return count of the decoded events.
+     */
+    public static long decode(Path journal, JournalFormat format, Appendable output) throws IOException {
+        var header = format.header();
+        if (header != null) {
+            output.append(header).append('\n');
+        }
+        var eventsCount = new long[1];
+        try {
+            forEachEvent(journal, event -> {
+                try {
+                    output.append(format.format(event)).append('\n');
+                    eventsCount[0]++;
+                } catch (IOException exception) {
+                    throw new OutputWriteException(exception);
+                }
+            });
+        } catch (OutputWriteException exception) {
+            throw exception.getCause();
+        }
+        return eventsCount[0];
+    }
+
+    /**
+     * Passes the events of the journal to the consumer in the order they are stored.
+     */
+    public static void forEachEvent(Path journal, Consumer<JournalEvent> consumer) throws IOException {
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(journal), READ_BUFFER_BYTES))) {
+            if (input.readInt() != EventJournal.MAGIC) {
+                throw new IOException("Not a dinner event journal: " + journal);
+            }
+            var version = input.readInt();
+            if (version != EventJournal.VERSION) {
+                throw new IOException("Unsupported journal version: " + version);
+            }
+            var eventsCount = input.readLong();
+            for (var i = 0L; i < eventsCount; i++) {
+                var timestampNanoseconds = input.readLong();
+                var packedHeader = input.readLong();
+                var value = input.readLong();
+                consumer.accept(new JournalEvent(
+                        timestampNanoseconds,
+                        EVENT_TYPES[(int) (packedHeader >>> (2 * EventJournal.ID_BITS))],
+                        (int) ((packedHeader >>> EventJournal.ID_BITS) & EventJournal.ID_MASK),
+                        (int) (packedHeader & EventJournal.ID_MASK),
+                        value
+                ));
+            }
+        }
+    }
+
+    // Carries write failures of the output through the consumer
+    private static final class OutputWriteException extends RuntimeException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private OutputWriteException(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.labs.journal;
+
+/**
+ * Decoded journal event.
+ *
+ * @param timestampNanoseconds time since the journal was started.
+ */
+public record JournalEvent(
+    long timestampNanoseconds,
+    JournalEventType type,
+    int actorId,
+    int subjectId,
+    long value
+) { }
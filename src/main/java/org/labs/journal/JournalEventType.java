@@ -0,0 +1,42 @@
+package org.labs.journal;
+
+/**
+ * Kinds of journal events. Besides the timestamp, an event carries the id of the participant which caused it,
+ * a subject id and a value, whose meanings are given by the labels. An unused field is labeled null.
+ */
+public enum JournalEventType {
+    DISCUSSION_STARTED("programmer", null, "durationNs"),
+    ORDER_PLACED("programmer", null, "portionsEaten"),
+    PORTION_RECEIVED("programmer", null, "orderWaitNs"),
+    SPOONS_TAKEN("programmer", "seat", "spoonWaitNs"),
+    EATING_STARTED("programmer", null, "durationNs"),
+    SPOONS_PUT_DOWN("programmer", "seat", null),
+    PROGRAMMER_FINISHED("programmer", null, "portionsEaten"),
+    PORTION_SERVED("waiter", "visitor", "serviceNs"),
+    WAITER_LEFT("waiter", null, null),
+    WAITER_CALLED("waiter", null, null),
+    ORDERS_CLOSED("waiter", null, null),
+    WAITER_FINISHED("waiter", null, null);
+
+    private final String actorLabel;
+    private final String subjectLabel;
+    private final String valueLabel;
+
+    JournalEventType(String actorLabel, String subjectLabel, String valueLabel) {
+        this.actorLabel = actorLabel;
+        this.subjectLabel = subjectLabel;
+        this.valueLabel = valueLabel;
+    }
+
+    public String actorLabel() {
+        return actorLabel;
+    }
+
+    public String subjectLabel() {
+        return subjectLabel;
+    }
+
+    public String valueLabel() {
+        return valueLabel;
+    }
+}
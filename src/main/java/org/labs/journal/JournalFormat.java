@@ -0,0 +1,54 @@
+package org.labs.journal;
+
+/**
+ * Text forms of decoded journal events.
+ */
+public enum JournalFormat {
+    /**
+     * One readable line per event, naming only the fields the event uses.
+     */
+    TEXT {
+        @Override
+        public String header() {
+            return null;
+        }
+
+        @Override
+        public String format(JournalEvent event) {
+            var type = event.type();
+            var line = new StringBuilder()
+                    .append(event.timestampNanoseconds()).append(" ns ")
+                    .append(type.name())
+                    .append(' ').append(type.actorLabel()).append('=').append(event.actorId());
+            if (type.subjectLabel() != null) {
+                line.append(' ').append(type.subjectLabel()).append('=').append(event.subjectId());
+            }
+            if (type.valueLabel() != null) {
+                line.append(' ').append(type.valueLabel()).append('=').append(event.value());
+            }
+            return line.toString();
+        }
+    },
+    /**
+     * Comma-separated values with a header line.
+     */
+    CSV {
+        @Override
+        public String header() {
+            return "timestamp_ns,event,actor_id,subject_id,value";
+        }
+
+        @Override
+        public String format(JournalEvent event) {
+            return event.timestampNanoseconds() + "," + event.type().name() + "," + event.actorId() + ","
+                    + event.subjectId() + "," + event.value();
+        }
+    };
+
+    /**
+     * @return the first line of the output, null if there is none.
+     */
+    public abstract String header();
+
+    public abstract String format(JournalEvent event);
+}
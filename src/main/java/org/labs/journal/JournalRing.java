@@ -0,0 +1,71 @@
+package org.labs.journal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Multi-producer single-consumer ring of events of the threads striped onto it. An event takes three longs:
+ * the timestamp, the packed type and ids, and the value. A producer claims a slot with a single atomic increment,
+ * writes the event and publishes the slot with an ordered write, so recording takes no locks and does not allocate.
+ * Slots are claimed in the order a thread records its events, so the events of one thread keep their order.
+ */
+final class JournalRing {
+    static final int LONGS_PER_EVENT = 3;
+    private static final int SPINS_BEFORE_PARKING = 64;
+    private static final long PARK_NANOSECONDS = 10_000;
+
+    final long[] events;
+    final AtomicLong consumed = new AtomicLong();
+    private final AtomicLong claimed = new AtomicLong();
+    // Sequence of the event in each slot plus one, written once the event is complete
+    private final AtomicLongArray publishedSequences;
+    private final int mask;
+    private final EventJournal journal;
+
+    JournalRing(EventJournal journal, int capacity) {
+        this.journal = journal;
+        this.events = new long[capacity * LONGS_PER_EVENT];
+        this.publishedSequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+    }
+
+    void put(long timestampNanoseconds, long packedHeader, long value) {
+        var sequence = claimed.getAndIncrement();
+        var capacity = mask + 1;
+        if (sequence - consumed.get() >= capacity) {
+            var spins = 0;
+            // A full ring waits for the flusher, so no event is lost while the journal is open
+            while (sequence - consumed.get() >= capacity) {
+                if (!journal.isOpen()) {
+                    return;
+                }
+                if (++spins < SPINS_BEFORE_PARKING) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(PARK_NANOSECONDS);
+                }
+            }
+        }
+        var offset = offset(sequence);
+        events[offset] = timestampNanoseconds;
+        events[offset + 1] = packedHeader;
+        events[offset + 2] = value;
+        publishedSequences.lazySet((int) (sequence & mask), sequence + 1);
+    }
+
+    /**
+     * @return true if the event of the given sequence is written, read by the consumer only.
+     */
+    boolean isPublished(long sequence) {
+        return publishedSequences.get((int) (sequence & mask)) == sequence + 1;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    int offset(long sequence) {
+        return (int) (sequence & mask) * LONGS_PER_EVENT;
+    }
+}
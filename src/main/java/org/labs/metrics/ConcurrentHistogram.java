@@ -0,0 +1,84 @@
+package org.labs.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Lock-free histogram of nanosecond latencies with HdrHistogram-style buckets:
+ * every power of two is split into 8 linear sub-buckets.
+ */
+public class ConcurrentHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS_COUNT = 1 << SUB_BUCKET_BITS;
+    // Values below 2 * SUB_BUCKETS_COUNT get a bucket of their own
+    private static final int LINEAR_BUCKETS_COUNT = 2 * SUB_BUCKETS_COUNT;
+    private static final int LINEAR_MAGNITUDE = SUB_BUCKET_BITS + 1;
+    static final int BUCKETS_COUNT = LINEAR_BUCKETS_COUNT + (Long.SIZE - 1 - LINEAR_MAGNITUDE) * SUB_BUCKETS_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS_COUNT);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanoseconds) {
+        var value = Math.max(nanoseconds, 0);
+        counts.incrementAndGet(bucketIndex(value));
+        max.accumulate(value);
+    }
+
+    public LatencySummary summary() {
+        var snapshot = new long[BUCKETS_COUNT];
+        for (var i = 0; i < BUCKETS_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return summarize(snapshot, max.get());
+    }
+
+    static LatencySummary summarize(long[] bucketCounts, long maxValue) {
+        var count = 0L;
+        for (var bucketCount : bucketCounts) {
+            count += bucketCount;
+        }
+        if (count == 0) {
+            return LatencySummary.EMPTY;
+        }
+        return new LatencySummary(
+                count,
+                percentile(bucketCounts, count, 0.5, maxValue),
+                percentile(bucketCounts, count, 0.9, maxValue),
+                percentile(bucketCounts, count, 0.99, maxValue),
+                percentile(bucketCounts, count, 0.999, maxValue),
+                Duration.ofNanos(maxValue)
+        );
+    }
+
+    static int bucketIndex(long value) {
+        if (value < LINEAR_BUCKETS_COUNT) {
+            return (int) value;
+        }
+        var magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        var subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS_COUNT - 1);
+        return LINEAR_BUCKETS_COUNT + (magnitude - LINEAR_MAGNITUDE) * SUB_BUCKETS_COUNT + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < LINEAR_BUCKETS_COUNT) {
+            return index;
+        }
+        var magnitude = (index - LINEAR_BUCKETS_COUNT) / SUB_BUCKETS_COUNT + LINEAR_MAGNITUDE;
+        var subBucket = (index - LINEAR_BUCKETS_COUNT) % SUB_BUCKETS_COUNT;
+        var bucketWidth = 1L << (magnitude - SUB_BUCKET_BITS);
+        return (SUB_BUCKETS_COUNT + subBucket) * bucketWidth + bucketWidth - 1;
+    }
+
+    private static Duration percentile(long[] bucketCounts, long count, double percentile, long maxValue) {
+        var rank = (long) Math.ceil(count * percentile);
+        var seen = 0L;
+        for (var i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return Duration.ofNanos(Math.min(bucketUpperBound(i), maxValue));
+            }
+        }
+        return Duration.ofNanos(maxValue);
+    }
+}
@@ -0,0 +1,134 @@
+package org.labs.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Metrics registry of a running dinner. Recording is lock-free and safe from any thread,
+ * snapshots may be taken at any moment while the dinner runs.
+ */
+public class DinnerMetrics {
+    /**
+     * Registry that records nothing, for participants created outside a simulation.
+     */
+    public static final DinnerMetrics DISABLED = new DinnerMetrics(0, () -> 0, false);
+
+    // Each visitor's latency sum and count share a slot padded to their own cache lines
+    private static final int VISITOR_STRIDE = 16;
+
+    private final boolean enabled;
+    private final long startNanoseconds = System.nanoTime();
+    private final int visitorsCount;
+    private final IntSupplier orderQueueDepth;
+
+    private final LongAdder portionsServed = new LongAdder();
+    private final LongAdder waiterBusyNanoseconds = new LongAdder();
+    private final LongAdder waiterIdleNanoseconds = new LongAdder();
+    private final ConcurrentHistogram spoonWait = new ConcurrentHistogram();
+    private final ConcurrentHistogram orderLatency = new ConcurrentHistogram();
+    private final AtomicLongArray visitorOrderLatencies;
+
+    public DinnerMetrics(int visitorsCount, IntSupplier orderQueueDepth) {
+        this(visitorsCount, orderQueueDepth, true);
+    }
+
+    private DinnerMetrics(int visitorsCount, IntSupplier orderQueueDepth, boolean enabled) {
+        this.enabled = enabled;
+        this.visitorsCount = visitorsCount;
+        this.orderQueueDepth = orderQueueDepth;
+        this.visitorOrderLatencies = new AtomicLongArray(visitorsCount * VISITOR_STRIDE);
+    }
+
+    public void recordPortionServed(long serviceNanoseconds) {
+        recordPortionsServed(1, serviceNanoseconds);
+    }
+
+    public void recordPortionsServed(int portionsCount, long serviceNanoseconds) {
+        if (enabled) {
+            portionsServed.add(portionsCount);
+            waiterBusyNanoseconds.add(serviceNanoseconds);
+        }
+    }
+
+    public void recordWaiterIdle(long idleNanoseconds) {
+        if (enabled) {
+            waiterIdleNanoseconds.add(idleNanoseconds);
+        }
+    }
+
+    public void recordSpoonWait(long waitNanoseconds) {
+        if (enabled) {
+            spoonWait.record(waitNanoseconds);
+        }
+    }
+
+    /**
+     * Records the time between placing an order and receiving the soup.
+     */
+    public void recordOrderLatency(int visitorId, long latencyNanoseconds) {
+        if (enabled) {
+            orderLatency.record(latencyNanoseconds);
+            var slot = (visitorId - 1) * VISITOR_STRIDE;
+            visitorOrderLatencies.getAndAdd(slot, latencyNanoseconds);
+            visitorOrderLatencies.getAndIncrement(slot + 1);
+        }
+    }
+
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(
+                Duration.ofNanos(elapsedNanoseconds()),
+                portionsServed(),
+                orderQueueDepth(),
+                Duration.ofNanos(waiterBusyNanoseconds()),
+                Duration.ofNanos(waiterIdleNanoseconds()),
+                spoonWait(),
+                orderLatency(),
+                meanOrderLatencyNanoseconds()
+        );
+    }
+
+    // Single metrics are read without taking a whole snapshot
+
+    public long elapsedNanoseconds() {
+        return System.nanoTime() - startNanoseconds;
+    }
+
+    public long portionsServed() {
+        return portionsServed.sum();
+    }
+
+    public int orderQueueDepth() {
+        return orderQueueDepth.getAsInt();
+    }
+
+    public long waiterBusyNanoseconds() {
+        return waiterBusyNanoseconds.sum();
+    }
+
+    public long waiterIdleNanoseconds() {
+        return waiterIdleNanoseconds.sum();
+    }
+
+    public LatencySummary spoonWait() {
+        return spoonWait.summary();
+    }
+
+    public LatencySummary orderLatency() {
+        return orderLatency.summary();
+    }
+
+    /**
+     * @return mean order-to-soup latency of each visitor, indexed by visitor id - 1.
+     */
+    public long[] meanOrderLatencyNanoseconds() {
+        var meanOrderLatencies = new long[visitorsCount];
+        for (var i = 0; i < visitorsCount; i++) {
+            var slot = i * VISITOR_STRIDE;
+            var ordersCount = visitorOrderLatencies.get(slot + 1);
+            meanOrderLatencies[i] = ordersCount == 0 ? 0 : visitorOrderLatencies.get(slot) / ordersCount;
+        }
+        return meanOrderLatencies;
+    }
+}
@@ -0,0 +1,28 @@
+package org.labs.metrics;
+
+/**
+ * JMX view of the metrics of a running dinner. Rates are measured since the previous read of the rate.
+ */
+public interface DinnerMetricsMXBean {
+    long getPortionsServed();
+
+    double getPortionsPerSecond();
+
+    int getOrderQueueDepth();
+
+    double getWaiterBusyRatio();
+
+    long getSpoonWaitP50Nanoseconds();
+
+    long getSpoonWaitP99Nanoseconds();
+
+    long getSpoonWaitMaxNanoseconds();
+
+    long getOrderLatencyP50Nanoseconds();
+
+    long getOrderLatencyP99Nanoseconds();
+
+    long getOrderLatencyMaxNanoseconds();
+
+    long[] getMeanOrderLatencyNanoseconds();
+}
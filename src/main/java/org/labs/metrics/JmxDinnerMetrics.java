@@ -0,0 +1,121 @@
+package org.labs.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registers the metrics of a dinner in the platform MBean server as {@code org.labs:type=DinnerMetrics,id=<n>}
+ * for as long as the object is open.
+ */
+public final class JmxDinnerMetrics implements DinnerMetricsMXBean, AutoCloseable {
+    private static final AtomicInteger nextId = new AtomicInteger(1);
+
+    private final DinnerMetrics metrics;
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    private final ObjectName objectName;
+
+    // Counters at the previous read of each rate
+    private long previousElapsedNanoseconds;
+    private long previousPortionsServed;
+    private long previousBusyNanoseconds;
+    private long previousIdleNanoseconds;
+
+    public JmxDinnerMetrics(DinnerMetrics metrics) {
+        this.metrics = metrics;
+        this.previousElapsedNanoseconds = metrics.elapsedNanoseconds();
+        this.previousPortionsServed = metrics.portionsServed();
+        this.previousBusyNanoseconds = metrics.waiterBusyNanoseconds();
+        this.previousIdleNanoseconds = metrics.waiterIdleNanoseconds();
+        try {
+            this.objectName = new ObjectName("org.labs:type=DinnerMetrics,id=" + nextId.getAndIncrement());
+            server.registerMBean(this, objectName);
+        } catch (JMException exception) {
+            throw new IllegalStateException("Could not register dinner metrics MBean", exception);
+        }
+    }
+
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    @Override
+    public long getPortionsServed() {
+        return metrics.portionsServed();
+    }
+
+    @Override
+    public synchronized double getPortionsPerSecond() {
+        var elapsedNanoseconds = metrics.elapsedNanoseconds();
+        var portionsServed = metrics.portionsServed();
+        var intervalNanoseconds = elapsedNanoseconds - previousElapsedNanoseconds;
+        var portionsPerSecond = intervalNanoseconds <= 0
+                ? 0
+                : (portionsServed - previousPortionsServed) * 1e9 / intervalNanoseconds;
+        previousElapsedNanoseconds = elapsedNanoseconds;
+        previousPortionsServed = portionsServed;
+        return portionsPerSecond;
+    }
+
+    @Override
+    public int getOrderQueueDepth() {
+        return metrics.orderQueueDepth();
+    }
+
+    @Override
+    public synchronized double getWaiterBusyRatio() {
+        var busyNanoseconds = metrics.waiterBusyNanoseconds();
+        var idleNanoseconds = metrics.waiterIdleNanoseconds();
+        var intervalBusyNanoseconds = busyNanoseconds - previousBusyNanoseconds;
+        var intervalNanoseconds = intervalBusyNanoseconds + idleNanoseconds - previousIdleNanoseconds;
+        previousBusyNanoseconds = busyNanoseconds;
+        previousIdleNanoseconds = idleNanoseconds;
+        return intervalNanoseconds == 0 ? 0 : (double) intervalBusyNanoseconds / intervalNanoseconds;
+    }
+
+    @Override
+    public long getSpoonWaitP50Nanoseconds() {
+        return metrics.spoonWait().p50().toNanos();
+    }
+
+    @Override
+    public long getSpoonWaitP99Nanoseconds() {
+        return metrics.spoonWait().p99().toNanos();
+    }
+
+    @Override
+    public long getSpoonWaitMaxNanoseconds() {
+        return metrics.spoonWait().max().toNanos();
+    }
+
+    @Override
+    public long getOrderLatencyP50Nanoseconds() {
+        return metrics.orderLatency().p50().toNanos();
+    }
+
+    @Override
+    public long getOrderLatencyP99Nanoseconds() {
+        return metrics.orderLatency().p99().toNanos();
+    }
+
+    @Override
+    public long getOrderLatencyMaxNanoseconds() {
+        return metrics.orderLatency().max().toNanos();
+    }
+
+    @Override
+    public long[] getMeanOrderLatencyNanoseconds() {
+        return metrics.meanOrderLatencyNanoseconds();
+    }
+
+    @Override
+    public void close() {
+        try {
+            server.unregisterMBean(objectName);
+        } catch (JMException exception) {
+            throw new IllegalStateException("Could not unregister dinner metrics MBean", exception);
+        }
+    }
+}
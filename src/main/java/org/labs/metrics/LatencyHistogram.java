@@ -0,0 +1,110 @@
+package org.labs.metrics;
+
+/**
+ * Single-writer histogram of nanosecond latencies with the buckets of {@link ConcurrentHistogram}.
+ * Each participant of the dinner records into its own histogram without synchronization,
+ * and the histograms are merged once their writers have finished.
+ * <p>
+ * Buckets are allocated in chunks on the first hit, because latencies of one participant span few magnitudes
+ * and a dinner may have hundreds of thousands of participants. Recording allocates only during warm-up.
+ */
+public class LatencyHistogram {
+    private static final int CHUNK_BITS = 3;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNKS_COUNT = (ConcurrentHistogram.BUCKETS_COUNT + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+    private final long[][] chunks = new long[CHUNKS_COUNT][];
+    private long max = 0;
+
+    public void record(long nanoseconds) {
+        record(nanoseconds, 1);
+    }
+
+    /**
+     * Records the same latency several times.
+     */
+    public void record(long nanoseconds, int count) {
+        var value = Math.max(nanoseconds, 0);
+        var index = ConcurrentHistogram.bucketIndex(value);
+        chunk(index >>> CHUNK_BITS)[index & (CHUNK_SIZE - 1)] += count;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public void merge(LatencyHistogram other) {
+        for (var i = 0; i < CHUNKS_COUNT; i++) {
+            var otherChunk = other.chunks[i];
+            if (otherChunk == null) {
+                continue;
+            }
+            var chunk = chunk(i);
+            for (var j = 0; j < CHUNK_SIZE; j++) {
+                chunk[j] += otherChunk[j];
+            }
+        }
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @return count of the non-empty buckets.
+     */
+    public int bucketsCount() {
+        var bucketsCount = 0;
+        for (var chunk : chunks) {
+            if (chunk != null) {
+                for (var count : chunk) {
+                    bucketsCount += count > 0 ? 1 : 0;
+                }
+            }
+        }
+        return bucketsCount;
+    }
+
+    /**
+     * Passes every non-empty bucket to the consumer in the order of the latencies.
+     */
+    public void forEachBucket(BucketConsumer consumer) {
+        for (var i = 0; i < CHUNKS_COUNT; i++) {
+            if (chunks[i] == null) {
+                continue;
+            }
+            for (var j = 0; j < CHUNK_SIZE; j++) {
+                var count = chunks[i][j];
+                if (count > 0) {
+                    var index = i * CHUNK_SIZE + j;
+                    var lowerBound = index == 0 ? 0 : ConcurrentHistogram.bucketUpperBound(index - 1) + 1;
+                    consumer.accept(lowerBound, ConcurrentHistogram.bucketUpperBound(index), count);
+                }
+            }
+        }
+    }
+
+    public LatencySummary summary() {
+        var counts = new long[CHUNKS_COUNT * CHUNK_SIZE];
+        for (var i = 0; i < CHUNKS_COUNT; i++) {
+            if (chunks[i] != null) {
+                System.arraycopy(chunks[i], 0, counts, i * CHUNK_SIZE, CHUNK_SIZE);
+            }
+        }
+        return ConcurrentHistogram.summarize(counts, max);
+    }
+
+    private long[] chunk(int chunkIndex) {
+        var chunk = chunks[chunkIndex];
+        if (chunk == null) {
+            chunk = new long[CHUNK_SIZE];
+            chunks[chunkIndex] = chunk;
+        }
+        return chunk;
+    }
+
+    @FunctionalInterface
+    public interface BucketConsumer {
+        /**
+         * @param lowerBound the smallest latency of the bucket, inclusive.
+         * @param upperBound the largest latency of the bucket, inclusive.
+         */
+        void accept(long lowerBound, long upperBound, long count);
+    }
+}
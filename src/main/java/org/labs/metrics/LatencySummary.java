@@ -0,0 +1,19 @@
+package org.labs.metrics;
+
+import java.time.Duration;
+
+/**
+ * Percentiles of recorded latencies. Percentiles are upper bounds of histogram buckets
+ * and are accurate to within 12.5%, the maximum is exact.
+ */
+public record LatencySummary(
+    long count,
+    Duration p50,
+    Duration p90,
+    Duration p99,
+    Duration p999,
+    Duration max
+) {
+    public static final LatencySummary EMPTY =
+            new LatencySummary(0, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+}
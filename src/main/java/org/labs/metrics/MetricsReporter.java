@@ -0,0 +1,47 @@
+package org.labs.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Periodically passes snapshots of the metrics to a listener on a daemon thread.
+ * A final snapshot is delivered when the reporter is closed.
+ */
+public class MetricsReporter implements AutoCloseable {
+    private final DinnerMetrics metrics;
+    private final Consumer<MetricsSnapshot> listener;
+    private final ScheduledExecutorService scheduler;
+
+    public MetricsReporter(DinnerMetrics metrics, Duration interval, Consumer<MetricsSnapshot> listener) {
+        this.metrics = metrics;
+        this.listener = listener;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("dinner-metrics").daemon().factory()
+        );
+        var intervalNanoseconds = interval.toNanos();
+        scheduler.scheduleAtFixedRate(this::report, intervalNanoseconds, intervalNanoseconds, TimeUnit.NANOSECONDS);
+    }
+
+    private void report() {
+        listener.accept(metrics.snapshot());
+    }
+
+    /**
+     * Stops reporting and delivers the final snapshot. If the closing thread is interrupted while waiting
+     * for a report in progress, the final snapshot is skipped and the interrupt flag is restored.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            if (scheduler.awaitTermination(1, TimeUnit.MINUTES)) {
+                report();
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.labs.metrics;
+
+import java.time.Duration;
+
+/**
+ * Cumulative metrics of a running dinner at one moment.
+ *
+ * @param elapsed time since the metrics were created.
+ * @param meanOrderLatencyNanoseconds mean order-to-soup latency of each visitor, indexed by visitor id - 1.
+ */
+public record MetricsSnapshot(
+    Duration elapsed,
+    long portionsServed,
+    int orderQueueDepth,
+    Duration waiterBusyTime,
+    Duration waiterIdleTime,
+    LatencySummary spoonWait,
+    LatencySummary orderLatency,
+    long[] meanOrderLatencyNanoseconds
+) {
+    public double portionsPerSecondSince(MetricsSnapshot previous) {
+        var intervalNanoseconds = elapsed.minus(previous.elapsed).toNanos();
+        return intervalNanoseconds <= 0
+                ? 0
+                : (portionsServed - previous.portionsServed) * 1e9 / intervalNanoseconds;
+    }
+
+    /**
+     * @return share of the waiters' time spent serving since the previous snapshot.
+     */
+    public double waiterBusyRatioSince(MetricsSnapshot previous) {
+        return busyRatio(
+                waiterBusyTime.minus(previous.waiterBusyTime),
+                waiterIdleTime.minus(previous.waiterIdleTime)
+        );
+    }
+
+    public double waiterBusyRatio() {
+        return busyRatio(waiterBusyTime, waiterIdleTime);
+    }
+
+    private static double busyRatio(Duration busyTime, Duration idleTime) {
+        var totalNanoseconds = busyTime.plus(idleTime).toNanos();
+        return totalNanoseconds == 0 ? 0 : (double) busyTime.toNanos() / totalNanoseconds;
+    }
+}
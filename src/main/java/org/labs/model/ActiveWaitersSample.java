@@ -0,0 +1,11 @@
+package org.labs.model;
+
+import java.time.Duration;
+
+/**
+ * Count of serving waiters from the given time since the start of the dinner until the next sample.
+ */
+public record ActiveWaitersSample(
+    Duration elapsed,
+    int activeWaiters
+) { }
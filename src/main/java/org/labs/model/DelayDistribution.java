@@ -0,0 +1,52 @@
+package org.labs.model;
+
+import org.labs.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Distribution of the discussion or eating times of the visitors, in nanoseconds.
+ * Draws take the random generator of the visitor, so a seeded dinner gets the same times with any distribution.
+ */
+public interface DelayDistribution {
+    long nextNanoseconds(SplittableRandom random);
+
+    static DelayDistribution fixed(Duration duration) {
+        return new FixedDelay(duration);
+    }
+
+    static DelayDistribution uniform(Duration minDuration, Duration maxDuration) {
+        return new DurationRange(minDuration, maxDuration);
+    }
+
+    /**
+     * Memoryless times, mostly short with an occasional long one.
+     */
+    static DelayDistribution exponential(Duration mean) {
+        return new ExponentialDelay(mean);
+    }
+
+    /**
+     * Times whose logarithm is normal. A larger sigma gives a heavier tail around the same median.
+     */
+    static DelayDistribution logNormal(Duration median, double sigma) {
+        return new LogNormalDelay(median, sigma);
+    }
+
+    /**
+     * Draws one of the measured times with equal probability.
+     */
+    static DelayDistribution empirical(List<Duration> samples) {
+        return new EmpiricalDelay(samples);
+    }
+
+    /**
+     * Replays the shape of a recorded histogram: a bucket is drawn in proportion to its count
+     * and the time uniformly within the bucket.
+     */
+    static DelayDistribution replay(LatencyHistogram histogram) {
+        return new HistogramDelay(histogram);
+    }
+}
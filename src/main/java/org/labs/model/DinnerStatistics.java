@@ -1,10 +1,295 @@
 package org.labs.model;
 
+import org.labs.metrics.LatencySummary;
+
 import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
+/**
+ * Immutable results of a dinner, built with {@link #builder()}.
+ *
+ * @param eatenCounts portions eaten by each visitor, indexed by visitor id - 1. The accessor returns a copy.
+ * @param orderWait time from placing an order to receiving the soup.
+ * @param spoonWait time from receiving the soup to holding both spoons.
+ * @param serviceTime time a waiter spent serving one portion.
+ * @param shutdown time from closing the order queue to the exit of each programmer and waiter.
+ * @param activeWaiters counts of serving waiters over time, starting at zero elapsed time.
+ * @param tiers order waits and deadline misses of every service tier, empty without tiers.
+ */
 public record DinnerStatistics(
     long remainingPortionsInKitchen,
-    Map<Integer, Integer> visitorIdToEatenCount,
-    Duration dinnerDuration
-) { }
+    int[] eatenCounts,
+    Duration dinnerDuration,
+    Duration portionWaitCpuTime,
+    Duration simulatedDuration,
+    LatencySummary orderWait,
+    LatencySummary spoonWait,
+    LatencySummary serviceTime,
+    LatencySummary shutdown,
+    List<ActiveWaitersSample> activeWaiters,
+    List<TierStatistics> tiers
+) {
+    public DinnerStatistics {
+        eatenCounts = eatenCounts.clone();
+        activeWaiters = List.copyOf(activeWaiters);
+        tiers = List.copyOf(tiers);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public int[] eatenCounts() {
+        return eatenCounts.clone();
+    }
+
+    /**
+     * @return read-only view of the eaten counts keyed by visitor id.
+     */
+    public Map<Integer, Integer> visitorIdToEatenCount() {
+        return new EatenCountsView(eatenCounts);
+    }
+
+    public long totalEatenCount() {
+        var totalEatenCount = 0L;
+        for (var eatenCount : eatenCounts) {
+            totalEatenCount += eatenCount;
+        }
+        return totalEatenCount;
+    }
+
+    /**
+     * @return CPU time visitors spent waiting for a delivered portion on average.
+     * Zero unless the wait strategy measures CPU time, or if it could not be measured, e.g. for virtual threads.
+     */
+    public Duration portionWaitCpuTimePerPortion() {
+        var eatenPortions = totalEatenCount();
+        return eatenPortions == 0 ? Duration.ZERO : portionWaitCpuTime.dividedBy(eatenPortions);
+    }
+
+    /**
+     * @return count of serving waiters averaged over the dinner duration.
+     */
+    public double averageActiveWaiters() {
+        if (activeWaiters.isEmpty()) {
+            return 0;
+        }
+        var endNanoseconds = dinnerDuration.toNanos();
+        if (endNanoseconds <= 0) {
+            return activeWaiters.getLast().activeWaiters();
+        }
+        var weightedSum = 0.0;
+        for (var i = 0; i < activeWaiters.size(); i++) {
+            var sample = activeWaiters.get(i);
+            var fromNanoseconds = Math.min(sample.elapsed().toNanos(), endNanoseconds);
+            var toNanoseconds = i + 1 < activeWaiters.size()
+                    ? Math.min(activeWaiters.get(i + 1).elapsed().toNanos(), endNanoseconds)
+                    : endNanoseconds;
+            weightedSum += (double) sample.activeWaiters() * (toNanoseconds - fromNanoseconds);
+        }
+        return weightedSum / endNanoseconds;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof DinnerStatistics statistics
+                && remainingPortionsInKitchen == statistics.remainingPortionsInKitchen
+                && Arrays.equals(eatenCounts, statistics.eatenCounts)
+                && dinnerDuration.equals(statistics.dinnerDuration)
+                && portionWaitCpuTime.equals(statistics.portionWaitCpuTime)
+                && simulatedDuration.equals(statistics.simulatedDuration)
+                && orderWait.equals(statistics.orderWait)
+                && spoonWait.equals(statistics.spoonWait)
+                && serviceTime.equals(statistics.serviceTime)
+                && shutdown.equals(statistics.shutdown)
+                && activeWaiters.equals(statistics.activeWaiters)
+                && tiers.equals(statistics.tiers);
+    }
+
+    @Override
+    public int hashCode() {
+        var hash = Long.hashCode(remainingPortionsInKitchen);
+        hash = 31 * hash + Arrays.hashCode(eatenCounts);
+        hash = 31 * hash + dinnerDuration.hashCode();
+        hash = 31 * hash + portionWaitCpuTime.hashCode();
+        hash = 31 * hash + simulatedDuration.hashCode();
+        hash = 31 * hash + orderWait.hashCode();
+        hash = 31 * hash + spoonWait.hashCode();
+        hash = 31 * hash + serviceTime.hashCode();
+        hash = 31 * hash + shutdown.hashCode();
+        hash = 31 * hash + activeWaiters.hashCode();
+        return 31 * hash + tiers.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "DinnerStatistics[remainingPortionsInKitchen=" + remainingPortionsInKitchen
+                + ", eatenCounts=" + Arrays.toString(eatenCounts)
+                + ", dinnerDuration=" + dinnerDuration
+                + ", portionWaitCpuTime=" + portionWaitCpuTime
+                + ", simulatedDuration=" + simulatedDuration
+                + ", orderWait=" + orderWait
+                + ", spoonWait=" + spoonWait
+                + ", serviceTime=" + serviceTime
+                + ", shutdown=" + shutdown
+                + ", activeWaiters=" + activeWaiters
+                + ", tiers=" + tiers + "]";
+    }
+
+    /**
+     * Latencies which are not set are empty, the simulated duration defaults to the dinner duration,
+     * and the CPU time of portion waits to zero.
+     */
+    public static final class Builder {
+        private long remainingPortionsInKitchen;
+        private int[] eatenCounts = new int[0];
+        private Duration dinnerDuration = Duration.ZERO;
+        private Duration portionWaitCpuTime = Duration.ZERO;
+        private Duration simulatedDuration;
+        private LatencySummary orderWait = LatencySummary.EMPTY;
+        private LatencySummary spoonWait = LatencySummary.EMPTY;
+        private LatencySummary serviceTime = LatencySummary.EMPTY;
+        private LatencySummary shutdown = LatencySummary.EMPTY;
+        private List<ActiveWaitersSample> activeWaiters = List.of();
+        private List<TierStatistics> tiers = List.of();
+
+        private Builder() { }
+
+        public Builder remainingPortionsInKitchen(long remainingPortionsInKitchen) {
+            this.remainingPortionsInKitchen = remainingPortionsInKitchen;
+            return this;
+        }
+
+        public Builder eatenCounts(int[] eatenCounts) {
+            this.eatenCounts = eatenCounts;
+            return this;
+        }
+
+        public Builder dinnerDuration(Duration dinnerDuration) {
+            this.dinnerDuration = dinnerDuration;
+            return this;
+        }
+
+        public Builder portionWaitCpuTime(Duration portionWaitCpuTime) {
+            this.portionWaitCpuTime = portionWaitCpuTime;
+            return this;
+        }
+
+        public Builder simulatedDuration(Duration simulatedDuration) {
+            this.simulatedDuration = simulatedDuration;
+            return this;
+        }
+
+        public Builder orderWait(LatencySummary orderWait) {
+            this.orderWait = orderWait;
+            return this;
+        }
+
+        public Builder spoonWait(LatencySummary spoonWait) {
+            this.spoonWait = spoonWait;
+            return this;
+        }
+
+        public Builder serviceTime(LatencySummary serviceTime) {
+            this.serviceTime = serviceTime;
+            return this;
+        }
+
+        public Builder shutdown(LatencySummary shutdown) {
+            this.shutdown = shutdown;
+            return this;
+        }
+
+        public Builder activeWaiters(List<ActiveWaitersSample> activeWaiters) {
+            this.activeWaiters = activeWaiters;
+            return this;
+        }
+
+        public Builder tiers(List<TierStatistics> tiers) {
+            this.tiers = tiers;
+            return this;
+        }
+
+        public DinnerStatistics build() {
+            return new DinnerStatistics(
+                    remainingPortionsInKitchen,
+                    eatenCounts,
+                    dinnerDuration,
+                    portionWaitCpuTime,
+                    simulatedDuration != null ? simulatedDuration : dinnerDuration,
+                    orderWait,
+                    spoonWait,
+                    serviceTime,
+                    shutdown,
+                    activeWaiters,
+                    tiers
+            );
+        }
+    }
+
+    private static final class EatenCountsView extends AbstractMap<Integer, Integer> {
+        private final int[] eatenCounts;
+
+        private EatenCountsView(int[] eatenCounts) {
+            this.eatenCounts = eatenCounts;
+        }
+
+        @Override
+        public Integer get(Object key) {
+            if (key instanceof Integer visitorId && visitorId >= 1 && visitorId <= eatenCounts.length) {
+                return eatenCounts[visitorId - 1];
+            }
+            return null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return eatenCounts.length;
+        }
+
+        @Override
+        public Set<Entry<Integer, Integer>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Integer, Integer>> iterator() {
+                    return new Iterator<>() {
+                        private int index = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < eatenCounts.length;
+                        }
+
+                        @Override
+                        public Entry<Integer, Integer> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            var entry = Map.entry(index + 1, eatenCounts[index]);
+                            index++;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return eatenCounts.length;
+                }
+            };
+        }
+    }
+}
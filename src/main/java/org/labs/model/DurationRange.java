@@ -1,8 +1,22 @@
 package org.labs.model;
 
 import java.time.Duration;
+import java.util.SplittableRandom;
 
+/**
+ * Times drawn uniformly from the range. Fixed and zero-length ranges are allowed.
+ */
 public record DurationRange(
     Duration minDuration,
     Duration maxDuration
-) { }
+) implements DelayDistribution {
+    @Override
+    public long nextNanoseconds(SplittableRandom random) {
+        var minNanoseconds = minDuration.toNanos();
+        var maxNanoseconds = maxDuration.toNanos();
+        // nextLong requires a non-empty range
+        return maxNanoseconds > minNanoseconds
+                ? random.nextLong(minNanoseconds, maxNanoseconds)
+                : minNanoseconds;
+    }
+}
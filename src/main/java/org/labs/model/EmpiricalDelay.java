@@ -0,0 +1,29 @@
+package org.labs.model;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measured times, drawn with equal probability.
+ */
+public final class EmpiricalDelay implements DelayDistribution {
+    private final long[] sampleNanoseconds;
+
+    public EmpiricalDelay(List<Duration> samples) {
+        if (samples.isEmpty()) {
+            throw new IllegalArgumentException("Empirical delay needs at least one sample");
+        }
+        this.sampleNanoseconds = samples.stream().mapToLong(Duration::toNanos).toArray();
+    }
+
+    @Override
+    public long nextNanoseconds(SplittableRandom random) {
+        return sampleNanoseconds[random.nextInt(sampleNanoseconds.length)];
+    }
+
+    @Override
+    public String toString() {
+        return "EmpiricalDelay[samples=" + sampleNanoseconds.length + "]";
+    }
+}
@@ -0,0 +1,20 @@
+package org.labs.model;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+public record ExponentialDelay(
+    Duration mean
+) implements DelayDistribution {
+    public ExponentialDelay {
+        if (mean.isNegative()) {
+            throw new IllegalArgumentException("Mean delay should be non-negative: " + mean);
+        }
+    }
+
+    @Override
+    public long nextNanoseconds(SplittableRandom random) {
+        // 1 - nextDouble() is in (0, 1], so the logarithm is finite
+        return Math.round(-Math.log(1 - random.nextDouble()) * mean.toNanos());
+    }
+}
@@ -0,0 +1,19 @@
+package org.labs.model;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+public record FixedDelay(
+    Duration duration
+) implements DelayDistribution {
+    public FixedDelay {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("Delay should be non-negative: " + duration);
+        }
+    }
+
+    @Override
+    public long nextNanoseconds(SplittableRandom random) {
+        return duration.toNanos();
+    }
+}
@@ -0,0 +1,50 @@
+package org.labs.model;
+
+import org.labs.metrics.LatencyHistogram;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Times shaped as a recorded histogram. The histogram is copied, so it may keep recording afterwards.
+ */
+public final class HistogramDelay implements DelayDistribution {
+    private final long[] lowerBounds;
+    private final long[] upperBounds;
+    // Counts of the buckets up to and including each bucket
+    private final long[] cumulativeCounts;
+
+    public HistogramDelay(LatencyHistogram histogram) {
+        var bucketsCount = histogram.bucketsCount();
+        this.lowerBounds = new long[bucketsCount];
+        this.upperBounds = new long[bucketsCount];
+        this.cumulativeCounts = new long[bucketsCount];
+        var bucket = new int[1];
+        histogram.forEachBucket((lowerBound, upperBound, count) -> {
+            var i = bucket[0]++;
+            lowerBounds[i] = lowerBound;
+            upperBounds[i] = upperBound;
+            cumulativeCounts[i] = (i == 0 ? 0 : cumulativeCounts[i - 1]) + count;
+        });
+        if (bucketsCount == 0) {
+            throw new IllegalArgumentException("Replayed histogram should not be empty");
+        }
+    }
+
+    @Override
+    public long nextNanoseconds(SplittableRandom random) {
+        var rank = random.nextLong(cumulativeCounts[cumulativeCounts.length - 1]);
+        var bucket = Arrays.binarySearch(cumulativeCounts, rank + 1);
+        if (bucket < 0) {
+            bucket = -bucket - 1;
+        }
+        return lowerBounds[bucket] == upperBounds[bucket]
+                ? lowerBounds[bucket]
+                : random.nextLong(lowerBounds[bucket], upperBounds[bucket] + 1);
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramDelay[count=" + cumulativeCounts[cumulativeCounts.length - 1] + "]";
+    }
+}
@@ -0,0 +1,24 @@
+package org.labs.model;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+/**
+ * @param median half of the times are shorter than the median.
+ * @param sigma standard deviation of the logarithm of the times.
+ */
+public record LogNormalDelay(
+    Duration median,
+    double sigma
+) implements DelayDistribution {
+    public LogNormalDelay {
+        if (median.isNegative() || !(sigma >= 0)) {
+            throw new IllegalArgumentException("Median and sigma should be non-negative: " + median + ", " + sigma);
+        }
+    }
+
+    @Override
+    public long nextNanoseconds(SplittableRandom random) {
+        return Math.round(median.toNanos() * Math.exp(sigma * random.nextGaussian()));
+    }
+}
@@ -3,9 +3,90 @@ package org.labs.model;
 import org.labs.model.notifier.NoMorePortionsNotifier;
 import org.labs.model.notifier.SoupPortionNotifier;
 
-public record Order(
-    int visitorId,
-    int portionsEaten,
-    SoupPortionNotifier soupPortionNotifier,
-    NoMorePortionsNotifier noMorePortionsNotifier
-) { }
+/**
+ * Order slot of a visitor. A visitor has at most one pending order, so the slot is reused for all of its orders
+ * and the order path does not allocate. The eaten count is updated by the visitor only while the order is not queued,
+ * and the queue publishes it to the waiters.
+ */
+public final class Order {
+    private final int visitorId;
+    private final SoupPortionNotifier soupPortionNotifier;
+    private final NoMorePortionsNotifier noMorePortionsNotifier;
+    private int portionsEaten;
+    private long placedAtNanoseconds;
+    private int tier = 0;
+    private long relativeDeadlineNanoseconds = Long.MAX_VALUE;
+    private long deadlineNanoseconds = Long.MAX_VALUE;
+
+    public Order(int visitorId, int portionsEaten, SoupPortionNotifier soupPortionNotifier,
+                 NoMorePortionsNotifier noMorePortionsNotifier) {
+        this.visitorId = visitorId;
+        this.portionsEaten = portionsEaten;
+        this.soupPortionNotifier = soupPortionNotifier;
+        this.noMorePortionsNotifier = noMorePortionsNotifier;
+    }
+
+    /**
+     * Prepares the slot for the next order of the visitor, which is placed right away.
+     */
+    public Order renew(int portionsEaten) {
+        this.portionsEaten = portionsEaten;
+        this.placedAtNanoseconds = System.nanoTime();
+        this.deadlineNanoseconds = relativeDeadlineNanoseconds == Long.MAX_VALUE
+                ? Long.MAX_VALUE
+                : placedAtNanoseconds + relativeDeadlineNanoseconds;
+        return this;
+    }
+
+    /**
+     * Places the visitor in a service tier whose orders should be served within the deadline.
+     * Should be called before the first order.
+     */
+    public void setServiceTier(int tier, long relativeDeadlineNanoseconds) {
+        this.tier = tier;
+        this.relativeDeadlineNanoseconds = relativeDeadlineNanoseconds;
+    }
+
+    public int visitorId() {
+        return visitorId;
+    }
+
+    public int portionsEaten() {
+        return portionsEaten;
+    }
+
+    /**
+     * @return {@link System#nanoTime()} when the order was placed.
+     */
+    public long placedAtNanoseconds() {
+        return placedAtNanoseconds;
+    }
+
+    public int tier() {
+        return tier;
+    }
+
+    /**
+     * @return {@link System#nanoTime()} by which the order should be served, {@link Long#MAX_VALUE} without a deadline.
+     */
+    public long deadlineNanoseconds() {
+        return deadlineNanoseconds;
+    }
+
+    public long relativeDeadlineNanoseconds() {
+        return relativeDeadlineNanoseconds;
+    }
+
+    public SoupPortionNotifier soupPortionNotifier() {
+        return soupPortionNotifier;
+    }
+
+    public NoMorePortionsNotifier noMorePortionsNotifier() {
+        return noMorePortionsNotifier;
+    }
+
+    @Override
+    public String toString() {
+        return "Order[visitorId=" + visitorId + ", portionsEaten=" + portionsEaten + "]";
+    }
+}
@@ -0,0 +1,98 @@
+package org.labs.model;
+
+import org.labs.config.PortionWaitStrategy;
+import org.labs.model.notifier.NoMorePortionsNotifier;
+import org.labs.model.notifier.SoupPortionNotifier;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands the answer to an order over from a waiter to the visitor who waits for it.
+ * A visitor has at most one pending order, so the handoff is reused for all of its orders.
+ * The status of the order is kept at the seat of the visitor in the padded {@link SeatStates} of its table.
+ */
+public class PortionHandoff implements SoupPortionNotifier, NoMorePortionsNotifier {
+    private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private final PortionWaitStrategy strategy;
+    private final SeatStates seatStates;
+    private final int seat;
+    private volatile Thread waitingThread;
+
+    private long waitCpuNanoseconds = 0;
+
+    public PortionHandoff(PortionWaitStrategy strategy) {
+        this(strategy, SeatStates.padded(1), 0);
+    }
+
+    public PortionHandoff(PortionWaitStrategy strategy, SeatStates seatStates, int seat) {
+        this.strategy = strategy;
+        this.seatStates = seatStates;
+        this.seat = seat;
+    }
+
+    @Override
+    public void setSoupPortion() {
+        seatStates.setStatus(seat, SeatStates.HAS_PORTION);
+        LockSupport.unpark(waitingThread);
+    }
+
+    @Override
+    public void notifyVisitor() {
+        seatStates.setStatus(seat, SeatStates.NO_MORE_PORTIONS);
+        LockSupport.unpark(waitingThread);
+    }
+
+    /**
+     * Blocks the calling visitor until its order is answered.
+     *
+     * @return true if a soup portion was delivered, false if there are no more portions.
+     */
+    public boolean await() throws InterruptedException {
+        this.waitingThread = Thread.currentThread();
+        var startCpuTime = strategy.cpuTimeMeasured() ? threadMXBean.getCurrentThreadCpuTime() : -1;
+
+        var spinsLeft = switch (strategy.kind()) {
+            case SPIN, PARK -> 0;
+            case SPIN_THEN_PARK -> strategy.spinBudget();
+        };
+        // Endless spinning has to give the carrier away on virtual threads, a bounded spin does not
+        while (seatStates.status(seat) == SeatStates.NO_PORTION) {
+            if (strategy.kind() == PortionWaitStrategy.Kind.SPIN) {
+                SpinWait.onSpinWait();
+            } else if (spinsLeft > 0) {
+                spinsLeft--;
+                Thread.onSpinWait();
+            } else {
+                LockSupport.park(this);
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+
+        // CPU time is unavailable (-1) for virtual threads
+        if (startCpuTime >= 0) {
+            var endCpuTime = threadMXBean.getCurrentThreadCpuTime();
+            if (endCpuTime >= 0) {
+                waitCpuNanoseconds += endCpuTime - startCpuTime;
+            }
+        }
+
+        if (seatStates.status(seat) == SeatStates.NO_MORE_PORTIONS) {
+            return false;
+        }
+        seatStates.setStatus(seat, SeatStates.NO_PORTION);
+        return true;
+    }
+
+    /**
+     * @return CPU time the visitor has spent waiting for its orders, 0 unless the wait strategy measures it.
+     * Only the waiting thread may read it consistently while the dinner is running.
+     */
+    public long getWaitCpuNanoseconds() {
+        return waitCpuNanoseconds;
+    }
+}
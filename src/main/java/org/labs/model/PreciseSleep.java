@@ -0,0 +1,27 @@
+package org.labs.model;
+
+import java.util.concurrent.locks.LockSupport;
+
+final class PreciseSleep {
+    private PreciseSleep() { }
+
+    /**
+     * Sleeps for the given time at nanosecond resolution. Unlike {@link Thread#sleep(long)}, the time is never
+     * rounded to milliseconds, and a zero time returns right away without entering the scheduler.
+     * Parking may end early, so the thread parks again until the deadline has passed.
+     */
+    static void sleepNanos(long nanoseconds) throws InterruptedException {
+        if (nanoseconds <= 0) {
+            return;
+        }
+        var deadline = System.nanoTime() + nanoseconds;
+        var remaining = nanoseconds;
+        do {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            remaining = deadline - System.nanoTime();
+        } while (remaining > 0);
+    }
+}
@@ -1,54 +1,163 @@
 package org.labs.model;
 
+import org.labs.config.PortionWaitStrategy;
+import org.labs.metrics.DinnerMetrics;
+import org.labs.journal.EventJournal;
+import org.labs.journal.JournalEventType;
+import org.labs.metrics.LatencyHistogram;
+import org.labs.scenario.ScenarioEventType;
+import org.labs.scenario.ScenarioTrack;
 import org.labs.service.OrdersService;
+import org.labs.service.table.OrderedSpoonAcquisition;
+import org.labs.service.table.SpoonAcquisitionStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.List;
+import java.util.SplittableRandom;
 
 public class Programmer implements Runnable {
     private static final Logger logger = LoggerFactory.getLogger(Programmer.class);
-    private final ThreadLocalRandom random = ThreadLocalRandom.current();
 
     private final int id;
-    private final Spoon leftSpoon;
-    private final Spoon rightSpoon;
-    private volatile SoupPortionStatus soupPortionStatus = SoupPortionStatus.NO_PORTION;
+    private final int seat;
+    private final SpoonAcquisitionStrategy spoons;
+    private final SeatStates seatStates;
+    private final PortionHandoff portionHandoff;
+    private final Order order;
     private final OrdersService ordersService;
-    private int eatenCount = 0;
-
-    private final long minDiscussionMilliseconds;
-    private final long maxDiscussionMilliseconds;
-
-    private final long minEatMilliseconds;
-    private final long maxEatMilliseconds;
-
+    private final DinnerMetrics metrics;
+    private final VisitorDelays delays;
+    private final ScenarioTrack track;
+    private final EventJournal journal;
+    private final LatencyHistogram orderWaitHistogram = new LatencyHistogram();
+    private final LatencyHistogram spoonWaitHistogram = new LatencyHistogram();
+    // Read by the checkpoints without synchronization, so they may see a slightly stale value
+    private boolean awaitingPortion = false;
+    private boolean resumedWithOrder = false;
+    private long deadlineMissesCount = 0;
+    private volatile long finishedAtNanoseconds;
+
+    /**
+     * Creates a programmer outside of a dinner table. Its times are drawn from a generator seeded
+     * with its id, so the programmer repeats the same times in every run.
+     */
     public Programmer(int id, Spoon leftFork, Spoon rightSpoon, OrdersService ordersService,
-                      DurationRange discussionTimeRange, DurationRange eatTimeRange) {
+                      DelayDistribution discussionDelay, DelayDistribution eatingDelay,
+                      PortionWaitStrategy portionWaitStrategy) {
+        this(id, 0, VisitorDelays.random(discussionDelay, eatingDelay, new SplittableRandom(id)),
+                ScenarioTrack.DISABLED,
+                TableContext.builder(ordersService)
+                        .spoons(new OrderedSpoonAcquisition(List.of(leftFork, rightSpoon)))
+                        .portionWaitStrategy(portionWaitStrategy)
+                        .build());
+    }
+
+    /**
+     * Creates a programmer sitting at the given seat of the table, whose discussion and eating times come
+     * from the given source and whose events are recorded into the scenario track.
+     * The order status and eaten count of the programmer are kept at its seat in the states of the table.
+     */
+    public Programmer(int id, int seat, VisitorDelays delays, ScenarioTrack track, TableContext table) {
         this.id = id;
-        this.leftSpoon = leftFork;
-        this.rightSpoon = rightSpoon;
-        this.minDiscussionMilliseconds = discussionTimeRange.minDuration().toMillis();
-        this.maxDiscussionMilliseconds = discussionTimeRange.maxDuration().toMillis();
-        this.minEatMilliseconds = eatTimeRange.minDuration().toMillis();
-        this.maxEatMilliseconds = eatTimeRange.maxDuration().toMillis();
-        this.ordersService = ordersService;
+        this.seat = seat;
+        this.delays = delays;
+        this.track = track;
+        this.metrics = table.metrics();
+        this.spoons = table.spoons();
+        this.journal = table.journal();
+        this.ordersService = table.ordersService();
+        this.seatStates = table.seatStates();
+        this.portionHandoff = new PortionHandoff(table.portionWaitStrategy(), seatStates, seat);
+        this.order = new Order(id, 0, portionHandoff, portionHandoff);
     }
 
     public void setSoupPortion() {
-        this.soupPortionStatus = SoupPortionStatus.HAS_PORTION;
+        portionHandoff.setSoupPortion();
     }
 
     public void noMoreSoup() {
-        this.soupPortionStatus = SoupPortionStatus.NO_MORE_PORTIONS;
+        portionHandoff.notifyVisitor();
     }
 
     public int getId() {
         return id;
     }
 
+    /**
+     * May be slightly stale when read by another thread while the programmer is running.
+     */
     public int getEatenCount() {
-        return eatenCount;
+        return seatStates.eatenCount(seat);
+    }
+
+    /**
+     * @return whether the programmer has placed an order and waits for it.
+     */
+    public boolean isAwaitingPortion() {
+        return awaitingPortion;
+    }
+
+    /**
+     * Restores the progress of a resumed dinner. Should be called before the programmer runs.
+     *
+     * @param hasPendingOrder whether the programmer orders right away instead of discussing first.
+     */
+    public void restore(int eatenCount, boolean hasPendingOrder) {
+        seatStates.setEatenCount(seat, eatenCount);
+        this.resumedWithOrder = hasPendingOrder;
+    }
+
+    /**
+     * Places the programmer in a service tier. Should be called before the programmer runs.
+     */
+    public void setServiceTier(int tier, long deadlineNanoseconds) {
+        order.setServiceTier(tier, deadlineNanoseconds);
+    }
+
+    public int getServiceTier() {
+        return order.tier();
+    }
+
+    /**
+     * Should be read after the programmer has finished.
+     *
+     * @return count of portions received after the deadline of their orders.
+     */
+    public long getDeadlineMissesCount() {
+        return deadlineMissesCount;
+    }
+
+    /**
+     * @return the reusable order slot of the programmer, filled for the next order.
+     */
+    public Order nextOrder() {
+        return order.renew(getEatenCount());
+    }
+
+    /**
+     * Should be read after the programmer has finished.
+     */
+    public LatencyHistogram getOrderWaitHistogram() {
+        return orderWaitHistogram;
+    }
+
+    /**
+     * Should be read after the programmer has finished.
+     */
+    public LatencyHistogram getSpoonWaitHistogram() {
+        return spoonWaitHistogram;
+    }
+
+    /**
+     * @return {@link System#nanoTime()} when the programmer has finished, 0 while it runs.
+     */
+    public long getFinishedAtNanoseconds() {
+        return finishedAtNanoseconds;
+    }
+
+    public long getPortionWaitCpuNanoseconds() {
+        return portionHandoff.getWaitCpuNanoseconds();
     }
 
     @Override
@@ -57,59 +166,74 @@ public class Programmer implements Runnable {
             logger.debug("Programmer {} is running", id);
 
             while (ordersService.getAreOrdersAccepted()) {
-                discuss();
+                var discussionNanoseconds = 0L;
+                if (!resumedWithOrder) {
+                    discussionNanoseconds = delays.nextDiscussionNanoseconds();
+                    if (discuss(discussionNanoseconds)) {
+                        break;
+                    }
+                }
+                resumedWithOrder = false;
 
+                var orderedAtNanoseconds = System.nanoTime();
                 if (!ordersService.makeOrder(this)) {
                     break;
                 }
-                logger.debug("Programmer {} has placed an order and is now waiting for the soup", id);
-
-                while (soupPortionStatus == SoupPortionStatus.NO_PORTION) {
-                    Thread.onSpinWait();
-                }
-
-                if (soupPortionStatus == SoupPortionStatus.NO_MORE_PORTIONS) {
+                // A waiter may have served the order already, so the event keeps the time it was placed at
+                track.record(ScenarioEventType.ORDER, id, discussionNanoseconds, orderedAtNanoseconds);
+                journal.record(JournalEventType.ORDER_PLACED, id, 0, getEatenCount());
+                awaitingPortion = true;
+
+                var isServed = portionHandoff.await();
+                awaitingPortion = false;
+                if (!isServed) {
                     break;
                 }
-
-                synchronized (leftSpoon) {
-                    synchronized (rightSpoon) {
-                        eat();
-                    }
+                var receivedAtNanoseconds = System.nanoTime();
+                var orderWaitNanoseconds = receivedAtNanoseconds - orderedAtNanoseconds;
+                if (receivedAtNanoseconds > order.deadlineNanoseconds()) {
+                    deadlineMissesCount++;
                 }
+                orderWaitHistogram.record(orderWaitNanoseconds);
+                metrics.recordOrderLatency(id, orderWaitNanoseconds);
+                journal.record(JournalEventType.PORTION_RECEIVED, id, 0, orderWaitNanoseconds);
+
+                eat();
             }
 
+            journal.record(JournalEventType.PROGRAMMER_FINISHED, id, 0, getEatenCount());
             logger.debug("Soup portions count equals to 0. Programmer {} was finished ", id);
         } catch (InterruptedException exception) {
             logger.warn("Programmer {} was interrupted", id);
             Thread.currentThread().interrupt();
+        } finally {
+            finishedAtNanoseconds = System.nanoTime();
         }
     }
 
     private void eat() throws InterruptedException {
-        leftSpoon.take(this.id);
-        rightSpoon.take(this.id);
-
-        var durationMilliseconds = this.random.nextLong(minEatMilliseconds, maxEatMilliseconds);
-        logger.debug("Programmer {} starts eating for {} milliseconds", id, durationMilliseconds);
-        Thread.sleep(durationMilliseconds);
-
-        rightSpoon.putDown(this.id);
-        leftSpoon.putDown(this.id);
-
-        ++eatenCount;
-        soupPortionStatus = SoupPortionStatus.NO_PORTION;
-    }
-
-    private void discuss() throws InterruptedException {
-        var durationMilliseconds = this.random.nextLong(minDiscussionMilliseconds, maxDiscussionMilliseconds);
-        logger.debug("Programmer {} starts discussing for {} milliseconds", id, durationMilliseconds);
-        Thread.sleep(durationMilliseconds);
+        var spoonWaitStartNanoseconds = System.nanoTime();
+        spoons.acquire(seat);
+        var spoonWaitNanoseconds = System.nanoTime() - spoonWaitStartNanoseconds;
+        spoonWaitHistogram.record(spoonWaitNanoseconds);
+        metrics.recordSpoonWait(spoonWaitNanoseconds);
+        track.record(ScenarioEventType.SPOONS, id, spoonWaitNanoseconds);
+        journal.record(JournalEventType.SPOONS_TAKEN, id, seat, spoonWaitNanoseconds);
+
+        var durationNanoseconds = delays.nextEatingNanoseconds();
+        journal.record(JournalEventType.EATING_STARTED, id, 0, durationNanoseconds);
+        PreciseSleep.sleepNanos(durationNanoseconds);
+
+        spoons.release(seat);
+        journal.record(JournalEventType.SPOONS_PUT_DOWN, id, seat, 0);
+        track.record(ScenarioEventType.EAT, id, durationNanoseconds);
+
+        seatStates.setEatenCount(seat, getEatenCount() + 1);
     }
 
-    private enum SoupPortionStatus {
-        HAS_PORTION,
-        NO_PORTION,
-        NO_MORE_PORTIONS
+    // The discussion ends early once the queue is closed, so the programmer leaves right away
+    private boolean discuss(long durationNanoseconds) throws InterruptedException {
+        journal.record(JournalEventType.DISCUSSION_STARTED, id, 0, durationNanoseconds);
+        return ordersService.awaitOrdersClosed(durationNanoseconds);
     }
 }
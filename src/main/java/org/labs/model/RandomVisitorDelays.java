@@ -0,0 +1,25 @@
+package org.labs.model;
+
+import java.util.SplittableRandom;
+
+class RandomVisitorDelays implements VisitorDelays {
+    private final SplittableRandom random;
+    private final DelayDistribution discussionDelay;
+    private final DelayDistribution eatingDelay;
+
+    RandomVisitorDelays(DelayDistribution discussionDelay, DelayDistribution eatingDelay, SplittableRandom random) {
+        this.random = random;
+        this.discussionDelay = discussionDelay;
+        this.eatingDelay = eatingDelay;
+    }
+
+    @Override
+    public long nextDiscussionNanoseconds() {
+        return discussionDelay.nextNanoseconds(random);
+    }
+
+    @Override
+    public long nextEatingNanoseconds() {
+        return eatingDelay.nextNanoseconds(random);
+    }
+}
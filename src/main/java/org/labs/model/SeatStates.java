@@ -0,0 +1,85 @@
+package org.labs.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Hot state of the seats of a table, kept apart from the programmer objects: the status of the pending order,
+ * written by the waiters and polled by the visitor, and the eaten count, written by the visitor after every meal.
+ * <p>
+ * Seats live in one long array accessed through a var handle. In the padded layout every seat takes two cache
+ * lines of its own and the array starts and ends with a padding seat, so a waiter answering one visitor never
+ * invalidates the line its neighbours are polling. The compact layout packs the seats next to each other
+ * and is kept to measure the difference.
+ */
+public final class SeatStates {
+    public static final int NO_PORTION = 0;
+    public static final int HAS_PORTION = 1;
+    public static final int NO_MORE_PORTIONS = 2;
+
+    // Two 64-byte lines per seat, as the adjacent line is prefetched together with the one being accessed
+    private static final int PADDED_STRIDE = 16;
+    private static final int COMPACT_STRIDE = 2;
+    private static final int STATUS = 0;
+    private static final int EATEN_COUNT = 1;
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int seatsCount;
+    private final long[] slots;
+    private final int stride;
+    private final int firstSlot;
+
+    private SeatStates(int seatsCount, int stride, int paddingSeats) {
+        this.seatsCount = seatsCount;
+        this.slots = new long[(seatsCount + 2 * paddingSeats) * stride];
+        this.stride = stride;
+        this.firstSlot = paddingSeats * stride;
+    }
+
+    /**
+     * @return states of the seats, each on cache lines of its own.
+     */
+    public static SeatStates padded(int seatsCount) {
+        return new SeatStates(seatsCount, PADDED_STRIDE, 1);
+    }
+
+    /**
+     * @return states of the seats packed next to each other, several seats per cache line.
+     */
+    public static SeatStates compact(int seatsCount) {
+        return new SeatStates(seatsCount, COMPACT_STRIDE, 0);
+    }
+
+    public int seatsCount() {
+        return seatsCount;
+    }
+
+    /**
+     * @return one of {@link #NO_PORTION}, {@link #HAS_PORTION} and {@link #NO_MORE_PORTIONS}.
+     */
+    public int status(int seat) {
+        return (int) (long) SLOTS.getVolatile(slots, slot(seat, STATUS));
+    }
+
+    public void setStatus(int seat, int status) {
+        SLOTS.setVolatile(slots, slot(seat, STATUS), (long) status);
+    }
+
+    /**
+     * Read by other threads without synchronization, so they may see a slightly stale count.
+     */
+    public int eatenCount(int seat) {
+        return (int) (long) SLOTS.getOpaque(slots, slot(seat, EATEN_COUNT));
+    }
+
+    /**
+     * Should only be called by the visitor sitting at the seat.
+     */
+    public void setEatenCount(int seat, int eatenCount) {
+        SLOTS.setOpaque(slots, slot(seat, EATEN_COUNT), (long) eatenCount);
+    }
+
+    private int slot(int seat, int field) {
+        return firstSlot + seat * stride + field;
+    }
+}
@@ -0,0 +1,23 @@
+package org.labs.model;
+
+import java.util.concurrent.locks.LockSupport;
+
+final class SpinWait {
+    private static final long VIRTUAL_THREAD_PARK_NANOSECONDS = 10_000;
+
+    private SpinWait() { }
+
+    /**
+     * Busy-wait hint which gives the carrier thread away when called from a virtual thread,
+     * so that spinning visitors and waiters do not occupy all carriers.
+     * A short timed park is used instead of {@link Thread#yield()}: yielding threads can keep being rescheduled
+     * ahead of the threads woken up by timers, which livelocks a dinner running on a single carrier.
+     */
+    static void onSpinWait() {
+        if (Thread.currentThread().isVirtual()) {
+            LockSupport.parkNanos(VIRTUAL_THREAD_PARK_NANOSECONDS);
+        } else {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -1,28 +1,26 @@
 package org.labs.model;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.Semaphore;
 
+/**
+ * Taking and putting down spoons is traced by the programmers into the event journal,
+ * so the spoon itself stays free of logging.
+ * <p>
+ * A spoon is a single permit rather than a lock, so it is not bound to a thread: the async dinner
+ * takes and puts down spoons on whichever thread of its pool runs the stage.
+ */
 public class Spoon {
-    private static final Logger logger = LoggerFactory.getLogger(Spoon.class);
-
-    private final int id;
-    private final Lock lock = new ReentrantLock();
+    private final Semaphore permit = new Semaphore(1);
 
-    public Spoon(int id) {
-        this.id = id;
+    public void take() {
+        permit.acquireUninterruptibly();
     }
 
-    public void take(int holderId) {
-        lock.lock();
-        logger.debug("Spoon {} is taken by holder {}", id, holderId);
+    public boolean tryTake() {
+        return permit.tryAcquire();
     }
 
-    public void putDown(int holderId) {
-        lock.unlock();
-        logger.debug("Spoon {} is put down by holder {}", id, holderId);
+    public void putDown() {
+        permit.release();
     }
 }
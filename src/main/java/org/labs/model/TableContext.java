@@ -0,0 +1,126 @@
+package org.labs.model;
+
+import org.labs.config.PortionWaitStrategy;
+import org.labs.config.TrayService;
+import org.labs.journal.EventJournal;
+import org.labs.metrics.DinnerMetrics;
+import org.labs.service.KitchenService;
+import org.labs.service.OrdersService;
+import org.labs.service.WaiterPool;
+import org.labs.service.table.SpoonAcquisitionStrategy;
+
+import java.time.Duration;
+
+/**
+ * Services and settings of one table shared by its programmers and waiters, built with {@link #builder(OrdersService)}.
+ *
+ * @param spoons arbitrates the spoons of the table, needed by the programmers.
+ * @param seatStates order statuses and eaten counts of the programmers, kept at their seats.
+ * @param kitchenService stock the waiters take portions from, needed by the waiters.
+ * @param timePerClient time a waiter spends serving a single order.
+ * @param portionReservationBatchSize portions a waiter reserves in the kitchen at once.
+ */
+public record TableContext(
+    OrdersService ordersService,
+    SpoonAcquisitionStrategy spoons,
+    SeatStates seatStates,
+    PortionWaitStrategy portionWaitStrategy,
+    KitchenService kitchenService,
+    Duration timePerClient,
+    int portionReservationBatchSize,
+    TrayService trayService,
+    WaiterPool waiterPool,
+    DinnerMetrics metrics,
+    EventJournal journal
+) {
+    public static Builder builder(OrdersService ordersService) {
+        return new Builder(ordersService);
+    }
+
+    /**
+     * A table without metrics and journal, whose waiters serve one order at a time and always stay.
+     */
+    public static final class Builder {
+        private final OrdersService ordersService;
+        private SpoonAcquisitionStrategy spoons;
+        private SeatStates seatStates = SeatStates.padded(1);
+        private PortionWaitStrategy portionWaitStrategy = PortionWaitStrategy.spinThenPark();
+        private KitchenService kitchenService;
+        private Duration timePerClient = Duration.ZERO;
+        private int portionReservationBatchSize = 1;
+        private TrayService trayService = TrayService.single();
+        private WaiterPool waiterPool = WaiterPool.fixed();
+        private DinnerMetrics metrics = DinnerMetrics.DISABLED;
+        private EventJournal journal = EventJournal.DISABLED;
+
+        private Builder(OrdersService ordersService) {
+            this.ordersService = ordersService;
+        }
+
+        public Builder spoons(SpoonAcquisitionStrategy spoons) {
+            this.spoons = spoons;
+            return this;
+        }
+
+        public Builder seatStates(SeatStates seatStates) {
+            this.seatStates = seatStates;
+            return this;
+        }
+
+        public Builder portionWaitStrategy(PortionWaitStrategy portionWaitStrategy) {
+            this.portionWaitStrategy = portionWaitStrategy;
+            return this;
+        }
+
+        public Builder kitchenService(KitchenService kitchenService) {
+            this.kitchenService = kitchenService;
+            return this;
+        }
+
+        public Builder timePerClient(Duration timePerClient) {
+            this.timePerClient = timePerClient;
+            return this;
+        }
+
+        public Builder portionReservationBatchSize(int portionReservationBatchSize) {
+            this.portionReservationBatchSize = portionReservationBatchSize;
+            return this;
+        }
+
+        public Builder trayService(TrayService trayService) {
+            this.trayService = trayService;
+            return this;
+        }
+
+        public Builder waiterPool(WaiterPool waiterPool) {
+            this.waiterPool = waiterPool;
+            return this;
+        }
+
+        public Builder metrics(DinnerMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public Builder journal(EventJournal journal) {
+            this.journal = journal;
+            return this;
+        }
+
+        public TableContext build() {
+            return new TableContext(
+                    ordersService,
+                    spoons,
+                    seatStates,
+                    portionWaitStrategy,
+                    kitchenService,
+                    timePerClient,
+                    portionReservationBatchSize,
+                    trayService,
+                    waiterPool,
+                    metrics,
+                    journal
+            );
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.labs.model;
+
+import org.labs.config.ServiceTier;
+import org.labs.config.ServiceTiers;
+import org.labs.metrics.LatencyHistogram;
+import org.labs.metrics.LatencySummary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @param orderWait time from placing an order to receiving the soup, for the visitors of the tier.
+ * @param deadlineMisses count of portions received after the deadline of their orders.
+ */
+public record TierStatistics(
+    ServiceTier tier,
+    LatencySummary orderWait,
+    long deadlineMisses
+) {
+    /**
+     * @return share of the served orders which missed their deadline.
+     */
+    public double deadlineMissRatio() {
+        return orderWait.count() == 0 ? 0 : (double) deadlineMisses / orderWait.count();
+    }
+
+    public static Collector collector(ServiceTiers serviceTiers) {
+        return new Collector(serviceTiers);
+    }
+
+    /**
+     * Merges the order waits of the finished visitors by tier.
+     */
+    public static final class Collector {
+        private final List<ServiceTier> tiers;
+        private final LatencyHistogram[] orderWaits;
+        private final long[] deadlineMisses;
+
+        private Collector(ServiceTiers serviceTiers) {
+            this.tiers = serviceTiers.tiers();
+            this.orderWaits = new LatencyHistogram[tiers.size()];
+            this.deadlineMisses = new long[tiers.size()];
+            for (var i = 0; i < tiers.size(); i++) {
+                orderWaits[i] = new LatencyHistogram();
+            }
+        }
+
+        public void add(int tier, LatencyHistogram orderWait, long deadlineMissesCount) {
+            if (tiers.isEmpty()) {
+                return;
+            }
+            orderWaits[tier].merge(orderWait);
+            deadlineMisses[tier] += deadlineMissesCount;
+        }
+
+        /**
+         * @return statistics in the order of the tiers, empty without tiers.
+         */
+        public List<TierStatistics> collect() {
+            var statistics = new ArrayList<TierStatistics>(tiers.size());
+            for (var i = 0; i < tiers.size(); i++) {
+                statistics.add(new TierStatistics(tiers.get(i), orderWaits[i].summary(), deadlineMisses[i]));
+            }
+            return List.copyOf(statistics);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.labs.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Source of the discussion and eating times of one visitor, drawn in the order they happen.
+ * Each visitor owns its source, so a source is never used by two threads at once.
+ */
+public interface VisitorDelays {
+    long nextDiscussionNanoseconds();
+
+    long nextEatingNanoseconds();
+
+    /**
+     * Draws the times from the distributions. The sequence is determined by the state of the random generator.
+     */
+    static VisitorDelays random(DelayDistribution discussionDelay, DelayDistribution eatingDelay,
+                                SplittableRandom random) {
+        return new RandomVisitorDelays(discussionDelay, eatingDelay, random);
+    }
+
+    /**
+     * Creates the sources of all visitors of a dinner. A source is split from the seeded generator in the order
+     * of visitor ids, so the same seed always gives every visitor the same sequence of times.
+     */
+    static List<VisitorDelays> seeded(DelayDistribution discussionDelay, DelayDistribution eatingDelay, long seed,
+                                      int visitorsCount) {
+        var rootRandom = new SplittableRandom(seed);
+        var delays = new ArrayList<VisitorDelays>(visitorsCount);
+        for (var i = 0; i < visitorsCount; i++) {
+            delays.add(random(discussionDelay, eatingDelay, rootRandom.split()));
+        }
+        return delays;
+    }
+}
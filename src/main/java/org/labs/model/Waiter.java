@@ -1,7 +1,16 @@
 package org.labs.model;
 
+import org.labs.config.TrayService;
+import org.labs.journal.EventJournal;
+import org.labs.journal.JournalEventType;
+import org.labs.metrics.DinnerMetrics;
+import org.labs.metrics.LatencyHistogram;
+import org.labs.scenario.ScenarioEventType;
+import org.labs.scenario.ScenarioTrack;
 import org.labs.service.KitchenService;
 import org.labs.service.OrdersService;
+import org.labs.service.WaiterPool;
+import org.labs.service.kitchen.PortionAllotment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,69 +19,163 @@ import java.time.Duration;
 public class Waiter implements Runnable {
     private final Logger logger = LoggerFactory.getLogger(Waiter.class);
 
+    // Bounds how long a waiter may not notice that the kitchen has run out of portions
+    private static final Duration ORDER_WAIT_TIMEOUT = Duration.ofMillis(5);
+
     private final int id;
     private final Duration timePerClient;
     private final OrdersService ordersService;
     private final KitchenService kitchenService;
+    private final PortionAllotment portionAllotment;
+    private final TrayService trayService;
+    private final Order[] tray;
+    private final DinnerMetrics metrics;
+    private final ScenarioTrack track;
+    private final WaiterPool waiterPool;
+    private final EventJournal journal;
+    private final LatencyHistogram serviceTimeHistogram = new LatencyHistogram();
+    private volatile long finishedAtNanoseconds;
 
+    /**
+     * Creates a standalone waiter, which is made a party of the shutdown protocol of the orders service right away.
+     * Every waiter of the orders service should be created before any of them runs.
+     */
     public Waiter(int id, OrdersService ordersService, KitchenService kitchenService, Duration timePerClient) {
+        this(id, ScenarioTrack.DISABLED, TableContext.builder(ordersService)
+                .kitchenService(kitchenService)
+                .timePerClient(timePerClient)
+                .build());
+        ordersService.registerWaiter();
+    }
+
+    /**
+     * Creates a waiter of the table, whose events are recorded into the scenario track.
+     * The waiter serves only while the waiter pool of the table keeps it active.
+     * The table makes its waiters parties of the shutdown protocol before they are scheduled.
+     */
+    public Waiter(int id, ScenarioTrack track, TableContext table) {
         this.id = id;
-        this.timePerClient = timePerClient;
-        this.ordersService = ordersService;
-        this.kitchenService = kitchenService;
+        this.track = track;
+        this.waiterPool = table.waiterPool();
+        this.journal = table.journal();
+        this.trayService = table.trayService();
+        this.tray = new Order[trayService.traySize()];
+        this.metrics = table.metrics();
+        this.timePerClient = table.timePerClient();
+        this.ordersService = table.ordersService();
+        this.kitchenService = table.kitchenService();
+        this.portionAllotment = new PortionAllotment(kitchenService, table.portionReservationBatchSize());
     }
 
     public int getId() {
         return id;
     }
 
+    /**
+     * Should be read after the waiter has finished.
+     */
+    public LatencyHistogram getServiceTimeHistogram() {
+        return serviceTimeHistogram;
+    }
+
+    /**
+     * @return {@link System#nanoTime()} when the waiter has finished, 0 while it runs.
+     */
+    public long getFinishedAtNanoseconds() {
+        return finishedAtNanoseconds;
+    }
+
     @Override
     public void run() {
+        var hasFinishedServing = false;
         try {
             logger.debug("Waiter {} is running", id);
+            if (!waiterPool.tryStart()) {
+                awaitCall();
+            }
 
-            while (kitchenService.getSoupPortionsCount() > 0) {
-                var nextOrder = ordersService.getOrder();
-                if (nextOrder == null) {
+            var idleSinceNanoseconds = System.nanoTime();
+            while (!kitchenService.isExhausted() || portionAllotment.hasPortions()) {
+                var waitStartNanoseconds = System.nanoTime();
+                var ordersCount = ordersService.getOrders(tray, tray.length, ORDER_WAIT_TIMEOUT);
+                var waitEndNanoseconds = System.nanoTime();
+                metrics.recordWaiterIdle(waitEndNanoseconds - waitStartNanoseconds);
+                if (ordersCount == 0) {
+                    // A waiter holding reserved portions stays, because only it can assign them
+                    if (waitEndNanoseconds - idleSinceNanoseconds >= waiterPool.idleTimeoutNanoseconds()
+                            && !portionAllotment.hasPortions() && waiterPool.tryLeave()) {
+                        journal.record(JournalEventType.WAITER_LEFT, id, 0, 0);
+                        awaitCall();
+                        idleSinceNanoseconds = System.nanoTime();
+                    }
                     continue;
                 }
+                waiterPool.recordOrderAge(waitEndNanoseconds - tray[0].placedAtNanoseconds());
 
-                if (!kitchenService.takeSoupPortion()) {
-                    nextOrder.noMorePortionsNotifier().notifyVisitor();
+                var portionsCount = portionAllotment.takePortions(ordersCount);
+                // Other waiters may still hold reserved portions, so the orders without a portion go back to them
+                for (var i = portionsCount; i < ordersCount; i++) {
+                    ordersService.returnOrder(tray[i]);
+                }
+                if (portionsCount > 0) {
+                    serveTray(portionsCount);
+                }
+                if (portionsCount < ordersCount) {
                     logger.debug("Soup portions count equals to 0. Waiter {} was finished ", id);
                     break;
                 }
-
-                serveSoupPortion(nextOrder);
+                idleSinceNanoseconds = System.nanoTime();
             }
 
-            // Closes queue for new orders
-            if (ordersService.getAreOrdersAccepted()) {
-                ordersService.setOrdersNotAccepted(this);
+            // The last waiter to finish serving closes the queue, so every reserved portion has reached an order.
+            // The arrival is counted before the waiting, so it stays counted even if the waiting is interrupted.
+            hasFinishedServing = true;
+            if (ordersService.finishServing(this)) {
+                journal.record(JournalEventType.ORDERS_CLOSED, id, 0, 0);
             }
 
-            // Notifies the visitors (who have already placed orders) that the portions have run out.
-            // Также дополнительная проверка на случай программистов, публикующих заказ и не знающих, что очередь закрыта.
-            var retryCount = 0;
-            while (retryCount < 3 && ordersService.ordersCount() > 0) {
-                var nextOrder = ordersService.getOrder();
-                if (nextOrder != null) {
-                    nextOrder.noMorePortionsNotifier().notifyVisitor();
-                }
-                retryCount++;
+            // Notifies the visitors who have placed orders before the closing that the portions have run out.
+            // Visitors placing orders after the closing withdraw them, so a single pass answers every order.
+            Order nextOrder;
+            while ((nextOrder = ordersService.getOrder()) != null) {
+                nextOrder.noMorePortionsNotifier().notifyVisitor();
             }
 
+            journal.record(JournalEventType.WAITER_FINISHED, id, 0, 0);
             logger.debug("Soup portions count equals to 0. Waiter {} was finished ", id);
         } catch (InterruptedException exception) {
             logger.warn("Waiter {} was interrupted", id);
             Thread.currentThread().interrupt();
+        } finally {
+            ordersService.leave(hasFinishedServing);
+            finishedAtNanoseconds = System.nanoTime();
         }
     }
 
-    private void serveSoupPortion(Order order) throws InterruptedException {
-        logger.debug("Waiter {} starts serving soup to the visitor {} for {}",
-                id, order.visitorId(), timePerClient);
-        Thread.sleep(timePerClient);
-        order.soupPortionNotifier().setSoupPortion();
+    // A waiter out of the staff is called back by the pool, or rejoins to finish the dinner once the kitchen is empty
+    private void awaitCall() throws InterruptedException {
+        while (!kitchenService.isExhausted()) {
+            if (waiterPool.awaitCall(ORDER_WAIT_TIMEOUT)) {
+                journal.record(JournalEventType.WAITER_CALLED, id, 0, 0);
+                return;
+            }
+        }
+    }
+
+    // The portions of a tray are delivered together once the whole tray is served
+    private void serveTray(int portionsCount) throws InterruptedException {
+        var serviceTime = tray.length == 1 ? timePerClient : trayService.serviceTime(portionsCount);
+
+        var serviceStartNanoseconds = System.nanoTime();
+        PreciseSleep.sleepNanos(serviceTime.toNanos());
+        var trayServiceNanoseconds = System.nanoTime() - serviceStartNanoseconds;
+        for (var i = 0; i < portionsCount; i++) {
+            track.record(ScenarioEventType.SERVE, tray[i].visitorId(), id);
+            journal.record(JournalEventType.PORTION_SERVED, id, tray[i].visitorId(), trayServiceNanoseconds);
+            tray[i].soupPortionNotifier().setSoupPortion();
+        }
+        var serviceNanoseconds = System.nanoTime() - serviceStartNanoseconds;
+        serviceTimeHistogram.record(serviceNanoseconds / portionsCount, portionsCount);
+        metrics.recordPortionsServed(portionsCount, serviceNanoseconds);
     }
 }
@@ -0,0 +1,35 @@
+package org.labs.scenario;
+
+import org.labs.model.VisitorDelays;
+
+/**
+ * Plays back the recorded times of a visitor. A replayed dinner may serve a visitor more portions than
+ * the recorded one, so the times start over once they run out. A visitor without recorded times does not wait.
+ */
+class ReplayedVisitorDelays implements VisitorDelays {
+    private final long[] discussionNanoseconds;
+    private final long[] eatingNanoseconds;
+    private int discussionsCount = 0;
+    private int eatingsCount = 0;
+
+    ReplayedVisitorDelays(long[] discussionNanoseconds, long[] eatingNanoseconds) {
+        this.discussionNanoseconds = discussionNanoseconds;
+        this.eatingNanoseconds = eatingNanoseconds;
+    }
+
+    @Override
+    public long nextDiscussionNanoseconds() {
+        if (discussionNanoseconds.length == 0) {
+            return 0;
+        }
+        return discussionNanoseconds[discussionsCount++ % discussionNanoseconds.length];
+    }
+
+    @Override
+    public long nextEatingNanoseconds() {
+        if (eatingNanoseconds.length == 0) {
+            return 0;
+        }
+        return eatingNanoseconds[eatingsCount++ % eatingNanoseconds.length];
+    }
+}
@@ -0,0 +1,104 @@
+package org.labs.scenario;
+
+import org.labs.model.VisitorDelays;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recorded dinner: its workload and the events in the order of their timestamps.
+ * <p>
+ * The binary form is a header (magic, version, seed, visitors, waiters and portions counts, events count)
+ * followed by 21 bytes per event: type, visitor id, timestamp and value.
+ */
+public record Scenario(
+    long seed,
+    int visitorsCount,
+    int waitersCount,
+    long soupPortionsCount,
+    List<ScenarioEvent> events
+) {
+    private static final int MAGIC = 0x444E5253;
+    private static final int VERSION = 1;
+    private static final ScenarioEventType[] EVENT_TYPES = ScenarioEventType.values();
+
+    public void write(OutputStream outputStream) throws IOException {
+        var output = new DataOutputStream(new BufferedOutputStream(outputStream));
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeLong(seed);
+        output.writeInt(visitorsCount);
+        output.writeInt(waitersCount);
+        output.writeLong(soupPortionsCount);
+        output.writeInt(events.size());
+        for (var event : events) {
+            output.writeByte(event.type().ordinal());
+            output.writeInt(event.visitorId());
+            output.writeLong(event.timestampNanoseconds());
+            output.writeLong(event.value());
+        }
+        output.flush();
+    }
+
+    public static Scenario read(InputStream inputStream) throws IOException {
+        var input = new DataInputStream(new BufferedInputStream(inputStream));
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a dinner scenario");
+        }
+        var version = input.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported scenario version: " + version);
+        }
+        var seed = input.readLong();
+        var visitorsCount = input.readInt();
+        var waitersCount = input.readInt();
+        var soupPortionsCount = input.readLong();
+        var eventsCount = input.readInt();
+        var events = new ArrayList<ScenarioEvent>(eventsCount);
+        for (var i = 0; i < eventsCount; i++) {
+            events.add(new ScenarioEvent(
+                    EVENT_TYPES[input.readUnsignedByte()],
+                    input.readInt(),
+                    input.readLong(),
+                    input.readLong()
+            ));
+        }
+        return new Scenario(seed, visitorsCount, waitersCount, soupPortionsCount, List.copyOf(events));
+    }
+
+    /**
+     * @return the recorded discussion and eating times of every visitor, indexed by visitor id minus one.
+     */
+    public List<VisitorDelays> visitorsDelays() {
+        var discussions = new ArrayList<List<Long>>(visitorsCount);
+        var eatings = new ArrayList<List<Long>>(visitorsCount);
+        for (var i = 0; i < visitorsCount; i++) {
+            discussions.add(new ArrayList<>());
+            eatings.add(new ArrayList<>());
+        }
+        for (var event : events) {
+            switch (event.type()) {
+                case ORDER -> discussions.get(event.visitorId() - 1).add(event.value());
+                case EAT -> eatings.get(event.visitorId() - 1).add(event.value());
+                default -> { }
+            }
+        }
+
+        var delays = new ArrayList<VisitorDelays>(visitorsCount);
+        for (var i = 0; i < visitorsCount; i++) {
+            delays.add(new ReplayedVisitorDelays(toArray(discussions.get(i)), toArray(eatings.get(i))));
+        }
+        return delays;
+    }
+
+    private static long[] toArray(List<Long> values) {
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,11 @@
+package org.labs.scenario;
+
+/**
+ * @param timestampNanoseconds time since the start of the dinner.
+ */
+public record ScenarioEvent(
+    ScenarioEventType type,
+    int visitorId,
+    long timestampNanoseconds,
+    long value
+) { }
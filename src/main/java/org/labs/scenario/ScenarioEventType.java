@@ -0,0 +1,23 @@
+package org.labs.scenario;
+
+/**
+ * Kinds of recorded events and the meaning of their values.
+ */
+public enum ScenarioEventType {
+    /**
+     * A visitor has placed an order, the value is the discussion time before it.
+     */
+    ORDER,
+    /**
+     * A portion was delivered to a visitor, the value is the id of the waiter.
+     */
+    SERVE,
+    /**
+     * A visitor has taken both spoons, the value is the time it waited for them.
+     */
+    SPOONS,
+    /**
+     * A visitor has finished eating, the value is the eating time.
+     */
+    EAT
+}
@@ -0,0 +1,78 @@
+package org.labs.scenario;
+
+import org.labs.config.DinnerConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Collects the events of a dinner. Every participant records into its own track, and the tracks are merged
+ * into a {@link Scenario} once the dinner has finished.
+ */
+public class ScenarioRecorder {
+    /**
+     * Recorder whose tracks drop every event.
+     */
+    public static final ScenarioRecorder DISABLED = new ScenarioRecorder(false);
+
+    private final boolean enabled;
+    private final List<ScenarioTrack> tracks = new ArrayList<>();
+    private long startNanoseconds;
+
+    public ScenarioRecorder() {
+        this(true);
+    }
+
+    private ScenarioRecorder(boolean enabled) {
+        this.enabled = enabled;
+        this.startNanoseconds = System.nanoTime();
+    }
+
+    /**
+     * Tracks should be created before the dinner starts.
+     */
+    public synchronized ScenarioTrack newTrack() {
+        if (!enabled) {
+            return ScenarioTrack.DISABLED;
+        }
+        var track = new ScenarioTrack(true);
+        tracks.add(track);
+        return track;
+    }
+
+    /**
+     * Marks the start of the dinner, from which event timestamps are measured.
+     */
+    public void start() {
+        this.startNanoseconds = System.nanoTime();
+    }
+
+    /**
+     * Should be called after every participant has finished.
+     *
+     * @return the events of all tracks ordered by time.
+     */
+    public synchronized Scenario toScenario(DinnerConfig config) {
+        if (!enabled) {
+            throw new IllegalStateException("Scenario recording is disabled");
+        }
+        var eventsCount = tracks.stream().mapToInt(ScenarioTrack::eventsCount).sum();
+        var events = new ScenarioEvent[eventsCount];
+        var offset = 0;
+        for (var track : tracks) {
+            track.appendTo(events, offset, startNanoseconds);
+            offset += track.eventsCount();
+        }
+        Arrays.sort(events, Comparator.comparingLong(ScenarioEvent::timestampNanoseconds));
+
+        return new Scenario(
+                config.seed(),
+                config.visitorsCount(),
+                config.waitersCount(),
+                config.soupPortionsCount(),
+                List.of(events)
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package org.labs.scenario;
+
+import org.labs.DinnerSimulation;
+import org.labs.config.DinnerConfig;
+import org.labs.model.DinnerStatistics;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Re-executes a recorded scenario, so that dispatchers, spoon strategies or engines
+ * can be compared on exactly the same workload.
+ */
+public final class ScenarioReplay {
+    private ScenarioReplay() { }
+
+    /**
+     * Runs a dinner with the visitors count, portions count and the discussion and eating times of every visitor
+     * taken from the scenario. Everything else, such as the dispatcher, the spoon strategy or the waiters,
+     * is taken from the config.
+     */
+    public static DinnerStatistics replay(Scenario scenario, DinnerConfig config)
+            throws ExecutionException, InterruptedException {
+        var replayConfig = config.toBuilder()
+                .visitorsCount(scenario.visitorsCount())
+                .soupPortionsCount(scenario.soupPortionsCount())
+                .seed(scenario.seed())
+                .build();
+        return new DinnerSimulation(replayConfig, scenario.visitorsDelays()).simulateDinner();
+    }
+}
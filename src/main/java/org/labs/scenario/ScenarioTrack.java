@@ -0,0 +1,70 @@
+package org.labs.scenario;
+
+import java.util.Arrays;
+
+/**
+ * Single-writer log of the events of one participant. Events are packed into a growing array of longs,
+ * so recording allocates only when the array is full.
+ */
+public class ScenarioTrack {
+    /**
+     * Track that drops every event.
+     */
+    public static final ScenarioTrack DISABLED = new ScenarioTrack(false);
+
+    private static final int LONGS_PER_EVENT = 3;
+    private static final ScenarioEventType[] EVENT_TYPES = ScenarioEventType.values();
+
+    private final boolean enabled;
+    private long[] events;
+    private int size = 0;
+
+    ScenarioTrack(boolean enabled) {
+        this.enabled = enabled;
+        this.events = enabled ? new long[64 * LONGS_PER_EVENT] : new long[0];
+    }
+
+    public void record(ScenarioEventType type, int visitorId, long value) {
+        if (!enabled) {
+            return;
+        }
+        record(type, visitorId, value, System.nanoTime());
+    }
+
+    /**
+     * Records an event which has happened before it could be recorded, e.g. an order whose acceptance
+     * is known only after a waiter may have served it.
+     *
+     * @param timestampNanoseconds {@link System#nanoTime()} of the event.
+     */
+    public void record(ScenarioEventType type, int visitorId, long value, long timestampNanoseconds) {
+        if (!enabled) {
+            return;
+        }
+        if (size == events.length) {
+            events = Arrays.copyOf(events, events.length * 2);
+        }
+        events[size] = ((long) type.ordinal() << 32) | (visitorId & 0xFFFFFFFFL);
+        events[size + 1] = timestampNanoseconds;
+        events[size + 2] = value;
+        size += LONGS_PER_EVENT;
+    }
+
+    /**
+     * Should be called after the writer has finished.
+     */
+    void appendTo(ScenarioEvent[] target, int offset, long startNanoseconds) {
+        for (var i = 0; i < size; i += LONGS_PER_EVENT) {
+            target[offset++] = new ScenarioEvent(
+                    EVENT_TYPES[(int) (events[i] >>> 32)],
+                    (int) events[i],
+                    events[i + 1] - startNanoseconds,
+                    events[i + 2]
+            );
+        }
+    }
+
+    int eventsCount() {
+        return size / LONGS_PER_EVENT;
+    }
+}
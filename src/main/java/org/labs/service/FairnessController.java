@@ -0,0 +1,263 @@
+package org.labs.service;
+
+import org.labs.model.Order;
+import org.labs.service.dispatcher.OrderDispatcher;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control which keeps the eaten counts of the visitors within a bound of each other.
+ * The controller knows the eaten count reported by the last order of every visitor and how many visitors
+ * have each count, kept in a ring of buckets, so the least and the largest counts are maintained in O(1) amortized:
+ * the least count only moves forward over the empty buckets.
+ * <p>
+ * An order of a visitor more than the bound ahead of the least-fed visitor is held back and offered
+ * to the dispatcher once the least-fed visitors catch up. Held orders are linked into lists by their counts,
+ * kept in the same ring, so releasing costs O(1) per released order and does not scan the visitors.
+ * The least-fed visitor is never held, so the dinner always progresses, and the eaten counts never differ
+ * by more than the bound plus one portion being eaten.
+ * <p>
+ * A controller bounds the visitors of one dispatcher, so a dinner of several tables is bounded per table.
+ */
+public class FairnessController {
+    /**
+     * Bound which disables the controller: orders go to the dispatcher right away.
+     */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private static final int INITIAL_BUCKETS_COUNT = 16;
+
+    private final OrderDispatcher orders;
+    private final int delta;
+    private final int firstVisitorId;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int[] reportedCounts;
+    private final Order[] heldOrders;
+    // Doubly linked lists of the held orders with one count: next and previous visitor index + 1, 0 at the ends
+    private final int[] nextHeld;
+    private final int[] previousHeld;
+    // Visitors count per reported eaten count, indexed by the count modulo the length
+    private int[] buckets;
+    // First held visitor index + 1 per reported eaten count, in the same ring as the buckets
+    private int[] heldHeads;
+    private int heldOrdersCount = 0;
+    private int minCount = 0;
+    private int maxCount = 0;
+
+    /**
+     * @param delta how many portions a visitor may be ahead of the least-fed one when its order is queued,
+     *              or {@link #UNBOUNDED}.
+     */
+    public FairnessController(OrderDispatcher orders, int delta, int visitorsCount, int firstVisitorId) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("Fairness delta must not be negative: " + delta);
+        }
+        this.orders = orders;
+        this.delta = delta;
+        this.firstVisitorId = firstVisitorId;
+        var isBounded = delta != UNBOUNDED;
+        this.reportedCounts = isBounded ? new int[visitorsCount] : null;
+        this.heldOrders = isBounded ? new Order[visitorsCount] : null;
+        this.nextHeld = isBounded ? new int[visitorsCount] : null;
+        this.previousHeld = isBounded ? new int[visitorsCount] : null;
+        this.buckets = isBounded ? new int[INITIAL_BUCKETS_COUNT] : null;
+        this.heldHeads = isBounded ? new int[INITIAL_BUCKETS_COUNT] : null;
+        if (isBounded) {
+            buckets[0] = visitorsCount;
+        }
+    }
+
+    public boolean isBounded() {
+        return delta != UNBOUNDED;
+    }
+
+    /**
+     * Starts the controller from the eaten counts of a resumed dinner, so that the bound applies to them
+     * right away. Should be called before any order is submitted.
+     *
+     * @param eatenCounts eaten counts of every visitor of the dinner, indexed by visitor id - 1.
+     */
+    public void restore(int[] eatenCounts) {
+        if (!isBounded()) {
+            return;
+        }
+        lock.lock();
+        try {
+            minCount = Integer.MAX_VALUE;
+            maxCount = 0;
+            for (var i = 0; i < reportedCounts.length; i++) {
+                var count = eatenCounts[firstVisitorId - 1 + i];
+                reportedCounts[i] = count;
+                minCount = Math.min(minCount, count);
+                maxCount = Math.max(maxCount, count);
+            }
+            var length = Math.max(INITIAL_BUCKETS_COUNT, ringLength(maxCount - minCount + 1));
+            buckets = new int[length];
+            heldHeads = new int[length];
+            for (var count : reportedCounts) {
+                buckets[count & (length - 1)]++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues the order, or holds it until the least-fed visitors catch up.
+     * The orders held by other visitors which have caught up are queued as well.
+     */
+    public void submit(Order order) {
+        if (!isBounded()) {
+            orders.offer(order);
+            return;
+        }
+        lock.lock();
+        try {
+            var visitorIndex = order.visitorId() - firstVisitorId;
+            var count = order.portionsEaten();
+            report(visitorIndex, count);
+            if (count - minCount > delta) {
+                hold(visitorIndex, order);
+            } else {
+                orders.offer(order);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return true if the order was held and is removed, false if it has been queued.
+     */
+    public boolean withdraw(Order order) {
+        if (!isBounded()) {
+            return false;
+        }
+        lock.lock();
+        try {
+            var visitorIndex = order.visitorId() - firstVisitorId;
+            if (heldOrders[visitorIndex] != order) {
+                return false;
+            }
+            unhold(visitorIndex);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues every held order, so that the waiters answer them once the queue is closed.
+     */
+    public void releaseAll() {
+        if (!isBounded()) {
+            return;
+        }
+        lock.lock();
+        try {
+            release(minCount, maxCount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the largest difference between the eaten counts reported by the orders.
+     */
+    public int spread() {
+        if (!isBounded()) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            return maxCount - minCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void report(int visitorIndex, int count) {
+        var previousCount = reportedCounts[visitorIndex];
+        if (count == previousCount) {
+            return;
+        }
+        if (count - minCount >= buckets.length) {
+            grow(count - minCount + 1);
+        }
+        var mask = buckets.length - 1;
+        buckets[previousCount & mask]--;
+        buckets[count & mask]++;
+        reportedCounts[visitorIndex] = count;
+        maxCount = Math.max(maxCount, count);
+
+        if (previousCount == minCount && buckets[minCount & mask] == 0) {
+            var previousMinCount = minCount;
+            do {
+                minCount++;
+            } while (buckets[minCount & mask] == 0);
+            // Held orders are more than the bound ahead, so only the counts the bound has just reached are released
+            if (heldOrdersCount > 0 && maxCount - previousMinCount > delta) {
+                release(previousMinCount + delta + 1, (int) Math.min(maxCount, (long) minCount + delta));
+            }
+        }
+    }
+
+    // Queues the held orders with the counts from the given range
+    private void release(int fromCount, int toCount) {
+        var mask = heldHeads.length - 1;
+        for (var count = fromCount; heldOrdersCount > 0 && count <= toCount; count++) {
+            int head;
+            while ((head = heldHeads[count & mask]) != 0) {
+                var order = heldOrders[head - 1];
+                unhold(head - 1);
+                orders.offer(order);
+            }
+        }
+    }
+
+    private void hold(int visitorIndex, Order order) {
+        var bucket = reportedCounts[visitorIndex] & (heldHeads.length - 1);
+        var head = heldHeads[bucket];
+        heldOrders[visitorIndex] = order;
+        nextHeld[visitorIndex] = head;
+        previousHeld[visitorIndex] = 0;
+        if (head != 0) {
+            previousHeld[head - 1] = visitorIndex + 1;
+        }
+        heldHeads[bucket] = visitorIndex + 1;
+        heldOrdersCount++;
+    }
+
+    private void unhold(int visitorIndex) {
+        var next = nextHeld[visitorIndex];
+        var previous = previousHeld[visitorIndex];
+        if (previous != 0) {
+            nextHeld[previous - 1] = next;
+        } else {
+            heldHeads[reportedCounts[visitorIndex] & (heldHeads.length - 1)] = next;
+        }
+        if (next != 0) {
+            previousHeld[next - 1] = previous;
+        }
+        heldOrders[visitorIndex] = null;
+        heldOrdersCount--;
+    }
+
+    // The ring always covers the counts from the least to the largest reported one
+    private void grow(int spread) {
+        var length = ringLength(spread);
+        var grownBuckets = new int[length];
+        var grownHeldHeads = new int[length];
+        for (var count = minCount; count <= maxCount; count++) {
+            grownBuckets[count & (length - 1)] = buckets[count & (buckets.length - 1)];
+            grownHeldHeads[count & (length - 1)] = heldHeads[count & (heldHeads.length - 1)];
+        }
+        buckets = grownBuckets;
+        heldHeads = grownHeldHeads;
+    }
+
+    // Least power of two which is not less than the spread
+    private static int ringLength(int spread) {
+        return spread <= 1 ? 1 : Integer.highestOneBit(spread - 1) << 1;
+    }
+}
@@ -1,22 +1,68 @@
 package org.labs.service;
 
-import java.util.concurrent.atomic.AtomicLong;
+import org.labs.config.KitchenCounterType;
+import org.labs.service.kitchen.PortionCounter;
 
 public class KitchenService {
-    private final AtomicLong soupPortionsCount;
+    private final PortionCounter soupPortions;
+    private volatile boolean isExhausted = false;
 
     public KitchenService(long initialSoupPortionsCount) {
-        this.soupPortionsCount = new AtomicLong(initialSoupPortionsCount);
+        this(initialSoupPortionsCount, KitchenCounterType.ATOMIC);
+    }
+
+    public KitchenService(long initialSoupPortionsCount, KitchenCounterType counterType) {
+        this(counterType.create(initialSoupPortionsCount));
+    }
+
+    public KitchenService(PortionCounter soupPortions) {
+        this.soupPortions = soupPortions;
     }
 
     public long getSoupPortionsCount() {
-        return soupPortionsCount.get();
+        return soupPortions.remaining();
+    }
+
+    /**
+     * @throws InterruptedException if the stock was interrupted while waiting for a refill,
+     *                              the stock is not considered exhausted then.
+     */
+    public boolean takeSoupPortion() throws InterruptedException {
+        if (soupPortions.take(1) == 1) {
+            return true;
+        }
+        throwIfInterrupted();
+        isExhausted = true;
+        return false;
+    }
+
+    /**
+     * Moves up to the given count of portions from the stock to a waiter's allotment.
+     *
+     * @return count of reserved portions, 0 if the stock is empty.
+     * @throws InterruptedException if the stock was interrupted while waiting for a refill.
+     *                              The portions taken before the interrupt leave with the interrupted waiter.
+     */
+    public long reservePortions(long maxPortions) throws InterruptedException {
+        var reserved = soupPortions.take(maxPortions);
+        if (reserved < maxPortions) {
+            throwIfInterrupted();
+            isExhausted = true;
+        }
+        return reserved;
+    }
+
+    private static void throwIfInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException("Interrupted while waiting for a refill of the stock");
+        }
     }
 
-    public boolean takeSoupPortion() {
-        var previousPortionsCount = soupPortionsCount.getAndUpdate(portionsCount ->
-                portionsCount > 0 ? portionsCount - 1 : portionsCount
-        );
-        return previousPortionsCount > 0;
+    /**
+     * Cheap check for the hot loops: it does not touch the stock and becomes true
+     * once somebody has failed to take a portion from the empty stock.
+     */
+    public boolean isExhausted() {
+        return isExhausted;
     }
 }
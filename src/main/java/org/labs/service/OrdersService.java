@@ -1,26 +1,58 @@
 package org.labs.service;
 
+import org.labs.config.DinnerConfig;
+import org.labs.config.OrderDispatcherType;
+import org.labs.config.ServiceTiers;
 import org.labs.model.Order;
 import org.labs.model.Programmer;
 import org.labs.model.Waiter;
+import org.labs.service.dispatcher.OrderDispatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Comparator;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class OrdersService {
     private static final Logger logger =  LoggerFactory.getLogger(OrdersService.class);
 
-    private final PriorityBlockingQueue<Order> orders;
+    private final OrderDispatcher orders;
+    private final FairnessController fairness;
     private final AtomicBoolean areOrdersAccepted = new AtomicBoolean(true);
+    private final ShutdownProtocol shutdown = new ShutdownProtocol(this::closeOrders);
 
     public OrdersService(int visitorsCount) {
-        this.orders = new PriorityBlockingQueue<>(
-                visitorsCount,
-                Comparator.comparingInt(Order::portionsEaten)
-        );
+        this(visitorsCount, OrderDispatcherType.PRIORITY_QUEUE);
+    }
+
+    public OrdersService(int visitorsCount, OrderDispatcherType dispatcherType) {
+        this(visitorsCount, 1, dispatcherType, FairnessController.UNBOUNDED, ServiceTiers.none());
+    }
+
+    /**
+     * Creates a queue of a table for the visitors with consecutive ids starting from {@code firstVisitorId}.
+     * It uses the dispatcher of the config, serves the earliest deadline first if the visitors are in service tiers,
+     * and holds back the orders of visitors more than the fairness delta ahead of the least-fed visitor.
+     */
+    public OrdersService(int visitorsCount, int firstVisitorId, DinnerConfig config) {
+        this(visitorsCount, firstVisitorId, config.orderDispatcherType(), config.fairnessDelta(),
+                config.serviceTiers());
+    }
+
+    private OrdersService(int visitorsCount, int firstVisitorId, OrderDispatcherType dispatcherType,
+                          int fairnessDelta, ServiceTiers serviceTiers) {
+        this.orders = dispatcherType.create(visitorsCount, firstVisitorId, serviceTiers);
+        this.fairness = new FairnessController(orders, fairnessDelta, visitorsCount, firstVisitorId);
+    }
+
+    /**
+     * Continues the fairness bound from the eaten counts of a resumed dinner. Should be called before any order.
+     *
+     * @param eatenCounts eaten counts of every visitor of the dinner, indexed by visitor id - 1.
+     */
+    public void restoreEatenCounts(int[] eatenCounts) {
+        fairness.restore(eatenCounts);
     }
 
     /**
@@ -29,28 +61,121 @@ public class OrdersService {
      * @return true if order is accepted. Otherwise, false.
      */
     public boolean makeOrder(Programmer programmer) {
-        var order = new Order(
-            programmer.getId(),
-            programmer.getEatenCount(),
-            programmer::setSoupPortion,
-            programmer::noMoreSoup
-        );
+        var order = programmer.nextOrder();
 
         if (!areOrdersAccepted.get()) return false;
-        return this.orders.add(order);
+        this.fairness.submit(order);
+
+        // The queue may have been closed and drained concurrently. Then the order is withdrawn,
+        // unless a waiter has already taken it and is responsible for answering it.
+        if (!areOrdersAccepted.get() && (this.fairness.withdraw(order) || this.orders.remove(order))) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Puts back an accepted order which a waiter could not serve, so that another waiter answers it.
+     */
+    public void returnOrder(Order order) {
+        this.orders.offer(order);
     }
 
     public Order getOrder() {
         return this.orders.poll();
     }
 
+    /**
+     * Waits for an order if there are no orders at the moment.
+     * @return the most urgent order, or null if no order appeared within the timeout.
+     */
+    public Order getOrder(Duration timeout) throws InterruptedException {
+        return this.orders.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Waits for an order and takes the orders queued behind it, the most urgent first.
+     *
+     * @return count of orders put at the beginning of the tray, 0 if no order appeared within the timeout.
+     */
+    public int getOrders(Order[] tray, int maxOrders, Duration timeout) throws InterruptedException {
+        var first = getOrder(timeout);
+        if (first == null) {
+            return 0;
+        }
+        tray[0] = first;
+        var ordersCount = 1;
+        Order next;
+        while (ordersCount < maxOrders && (next = this.orders.poll()) != null) {
+            tray[ordersCount++] = next;
+        }
+        return ordersCount;
+    }
+
     public int ordersCount() {
         return this.orders.size();
     }
 
-    public void setOrdersNotAccepted(Waiter waiter) {
+    /**
+     * Makes a waiter a party of the shutdown protocol. Should be called for every waiter before any of them runs,
+     * so that no waiter finishes serving while the others are not counted yet.
+     */
+    public void registerWaiter() {
+        shutdown.registerWaiter();
+    }
+
+    /**
+     * Reports that the waiter has nothing more to serve: the kitchen is exhausted and the waiter holds
+     * no reserved portions. Waits until every waiter of the table has reported it, and the last one closes
+     * the queue, after which the waiters drain it and {@link #leave(boolean)}.
+     *
+     * @return true if the calling waiter has closed the queue.
+     */
+    public boolean finishServing(Waiter waiter) throws InterruptedException {
+        var hasClosed = shutdown.finishServing();
+        if (hasClosed) {
+            logger.debug("Order's queue was closed for visitors by waiter {}", waiter.getId());
+        }
+        return hasClosed;
+    }
+
+    /**
+     * Should be called by every waiter exactly once when it finishes, normally after draining the queue.
+     *
+     * @param hasFinishedServing true if the waiter has called {@link #finishServing(Waiter)},
+     *                           even if it was interrupted there.
+     */
+    public void leave(boolean hasFinishedServing) {
+        shutdown.leave(hasFinishedServing);
+    }
+
+    /**
+     * Lets a visitor discuss until the given time passes or the queue is closed, whichever comes first.
+     *
+     * @return true if the queue is closed.
+     */
+    public boolean awaitOrdersClosed(long nanoseconds) throws InterruptedException {
+        return shutdown.awaitClosed(nanoseconds);
+    }
+
+    /**
+     * @return {@link System#nanoTime()} when the queue was closed, 0 if it is still open.
+     */
+    public long closedAtNanoseconds() {
+        return shutdown.closedAtNanoseconds();
+    }
+
+    private void closeOrders() {
         this.areOrdersAccepted.set(false);
-        logger.debug("Order's queue was closed for visitors by waiter {}", waiter.getId());
+        // Held orders are queued, so that the waiters draining the queue answer them
+        this.fairness.releaseAll();
+    }
+
+    /**
+     * @return the largest difference between the eaten counts reported by the orders, 0 if fairness is unbounded.
+     */
+    public int fairnessSpread() {
+        return this.fairness.spread();
     }
 
     public boolean getAreOrdersAccepted() {
@@ -0,0 +1,97 @@
+package org.labs.service;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Termination of a table in two phases of a phaser whose parties are the waiters of the table.
+ * <p>
+ * Serving: a waiter arrives once the kitchen is exhausted and it has assigned every portion it reserved.
+ * The last arrival closes the order queue, so the queue closes exactly once and only after every portion
+ * has reached an order. Draining: every waiter answers the queued orders with "no more soup" once
+ * and deregisters, which terminates the phaser after the last waiter.
+ * <p>
+ * An order is either queued before the closing, and then drained, or its visitor sees the closed queue
+ * and withdraws it. Taking and withdrawing an order are atomic, so every order is answered exactly once.
+ * Visitors wait for the closing instead of sleeping through their discussions, so they leave right away.
+ */
+class ShutdownProtocol {
+    private static final int SERVING_PHASE = 0;
+
+    private final Runnable closing;
+    private final CountDownLatch closed = new CountDownLatch(1);
+    private final Phaser phaser = new Phaser() {
+        @Override
+        protected boolean onAdvance(int phase, int registeredParties) {
+            if (phase == SERVING_PHASE) {
+                close();
+            }
+            return registeredParties == 0;
+        }
+    };
+
+    private volatile long closedAtNanoseconds;
+    private volatile Thread closingThread;
+
+    /**
+     * @param closing closes the order queue, called once by the last waiter to finish serving.
+     */
+    ShutdownProtocol(Runnable closing) {
+        this.closing = closing;
+    }
+
+    void registerWaiter() {
+        phaser.register();
+    }
+
+    /**
+     * Arrives at the end of serving and waits until every other waiter has finished serving.
+     * The arrival is counted even if the waiting is interrupted.
+     *
+     * @return true if the calling waiter was the last one and has closed the queue.
+     */
+    boolean finishServing() throws InterruptedException {
+        phaser.awaitAdvanceInterruptibly(phaser.arrive());
+        return closingThread == Thread.currentThread();
+    }
+
+    /**
+     * Leaves the protocol after draining. A waiter which leaves while serving, e.g. when interrupted,
+     * counts as finished serving, so the other waiters are never left waiting for it.
+     *
+     * @param hasFinishedServing true if the waiter has called {@link #finishServing()}, even if it was interrupted
+     *                           while waiting there. Its serving arrival is counted already, so the waiter waits
+     *                           for the end of serving and deregisters as a draining waiter instead of arriving
+     *                           twice. The wait ends, because every other waiter either finishes serving or leaves.
+     */
+    void leave(boolean hasFinishedServing) {
+        if (hasFinishedServing) {
+            phaser.awaitAdvance(SERVING_PHASE);
+        }
+        phaser.arriveAndDeregister();
+    }
+
+    /**
+     * Waits for the closing of the queue at most the given time.
+     *
+     * @return true if the queue is closed.
+     */
+    boolean awaitClosed(long nanoseconds) throws InterruptedException {
+        return closed.await(nanoseconds, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return {@link System#nanoTime()} when the queue was closed, 0 if it is still open.
+     */
+    long closedAtNanoseconds() {
+        return closedAtNanoseconds;
+    }
+
+    private void close() {
+        closing.run();
+        closedAtNanoseconds = System.nanoTime();
+        closingThread = Thread.currentThread();
+        closed.countDown();
+    }
+}
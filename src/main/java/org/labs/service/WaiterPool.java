@@ -0,0 +1,162 @@
+package org.labs.service;
+
+import org.labs.config.WaiterStaffing;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Staff of the waiters of one table. All waiters of the table are running, but only the active ones serve,
+ * while the others wait to be called. A fixed pool keeps every waiter active.
+ * <p>
+ * A waiter leaves by itself after being idle for the idle timeout, as long as the minimum stays active.
+ * Another waiter is called by {@link #adjust()} when the queue is deeper than the threshold per active waiter
+ * or an order has waited longer than the threshold.
+ */
+public class WaiterPool {
+    private final boolean elastic;
+    private final int minWaiters;
+    private final int maxWaiters;
+    private final int scaleUpQueueDepth;
+    private final long scaleUpOrderAgeNanoseconds;
+    private final long idleTimeoutNanoseconds;
+    private final OrdersService ordersService;
+
+    // The minimum counts as active from the start, and the first waiters to start take its places
+    private final AtomicInteger activeWaiters;
+    private final AtomicInteger vacantPlaces;
+    // Each permit lets one waiter waiting to be called start serving
+    private final Semaphore calls = new Semaphore(0);
+    private final AtomicLong maxOrderAgeNanoseconds = new AtomicLong();
+
+    private WaiterPool(boolean elastic, int minWaiters, int maxWaiters, int scaleUpQueueDepth,
+                       long scaleUpOrderAgeNanoseconds, long idleTimeoutNanoseconds, OrdersService ordersService) {
+        this.elastic = elastic;
+        this.minWaiters = minWaiters;
+        this.maxWaiters = maxWaiters;
+        this.scaleUpQueueDepth = scaleUpQueueDepth;
+        this.scaleUpOrderAgeNanoseconds = scaleUpOrderAgeNanoseconds;
+        this.idleTimeoutNanoseconds = idleTimeoutNanoseconds;
+        this.ordersService = ordersService;
+        this.activeWaiters = new AtomicInteger(minWaiters);
+        this.vacantPlaces = new AtomicInteger(minWaiters);
+    }
+
+    /**
+     * Pool in which every waiter serves all the time.
+     */
+    public static WaiterPool fixed() {
+        return new WaiterPool(false, 0, Integer.MAX_VALUE, 0, 0, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * @param minWaiters waiters of the table which always serve.
+     * @param maxWaiters all waiters of the table.
+     */
+    public static WaiterPool elastic(WaiterStaffing staffing, int minWaiters, int maxWaiters,
+                                     OrdersService ordersService) {
+        return new WaiterPool(
+                true,
+                minWaiters,
+                maxWaiters,
+                staffing.scaleUpQueueDepth(),
+                staffing.scaleUpOrderAge().toNanos(),
+                staffing.idleTimeout().toNanos(),
+                ordersService
+        );
+    }
+
+    public boolean isElastic() {
+        return elastic;
+    }
+
+    public int activeWaiters() {
+        return elastic ? activeWaiters.get() : maxWaiters;
+    }
+
+    public long idleTimeoutNanoseconds() {
+        return idleTimeoutNanoseconds;
+    }
+
+    /**
+     * Called by a waiter when it starts.
+     *
+     * @return true if the waiter should serve, false if it should wait to be called.
+     */
+    public boolean tryStart() {
+        if (!elastic) {
+            return true;
+        }
+        int vacant;
+        do {
+            vacant = vacantPlaces.get();
+            if (vacant == 0) {
+                return false;
+            }
+        } while (!vacantPlaces.compareAndSet(vacant, vacant - 1));
+        return true;
+    }
+
+    /**
+     * Called by a waiter which has been idle for the idle timeout.
+     *
+     * @return true if the waiter has left and should wait to be called.
+     */
+    public boolean tryLeave() {
+        if (!elastic) {
+            return false;
+        }
+        int active;
+        do {
+            active = activeWaiters.get();
+            if (active <= minWaiters) {
+                return false;
+            }
+        } while (!activeWaiters.compareAndSet(active, active - 1));
+        return true;
+    }
+
+    /**
+     * Waits for the pool to call the waiter.
+     *
+     * @return true if the waiter has been called, false if the timeout has passed.
+     */
+    public boolean awaitCall(Duration timeout) throws InterruptedException {
+        return calls.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Reports how long an order waited in the queue before a waiter took it.
+     */
+    public void recordOrderAge(long ageNanoseconds) {
+        if (elastic) {
+            maxOrderAgeNanoseconds.accumulateAndGet(ageNanoseconds, Math::max);
+        }
+    }
+
+    /**
+     * Calls one more waiter if the orders pile up. Should be called periodically by a single thread.
+     */
+    public void adjust() {
+        if (!elastic) {
+            return;
+        }
+        var maxOrderAge = maxOrderAgeNanoseconds.getAndSet(0);
+        var active = activeWaiters.get();
+        var queueDepth = ordersService.ordersCount();
+        if (queueDepth <= (long) active * scaleUpQueueDepth && maxOrderAge <= scaleUpOrderAgeNanoseconds) {
+            return;
+        }
+        // Waiters start and leave concurrently, so the count may have changed since it was read
+        do {
+            active = activeWaiters.get();
+            if (active >= maxWaiters) {
+                return;
+            }
+        } while (!activeWaiters.compareAndSet(active, active + 1));
+        calls.release();
+    }
+}
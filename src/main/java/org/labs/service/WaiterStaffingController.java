@@ -0,0 +1,73 @@
+package org.labs.service;
+
+import org.labs.model.ActiveWaitersSample;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically adjusts the elastic waiter pools of the tables on a daemon thread
+ * and samples the count of serving waiters whenever it changes.
+ */
+public class WaiterStaffingController implements AutoCloseable {
+    private final List<WaiterPool> pools;
+    private final ScheduledExecutorService scheduler;
+    private final long startNanoseconds = System.nanoTime();
+    // Written by the scheduler thread only, and read after it has terminated
+    private final List<ActiveWaitersSample> samples = new ArrayList<>();
+    private int lastActiveWaiters = -1;
+
+    public WaiterStaffingController(List<WaiterPool> pools, Duration checkInterval) {
+        this.pools = pools;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("dinner-staffing").daemon().factory()
+        );
+        sample();
+        var intervalNanoseconds = checkInterval.toNanos();
+        scheduler.scheduleAtFixedRate(this::adjust, intervalNanoseconds, intervalNanoseconds, TimeUnit.NANOSECONDS);
+    }
+
+    private void adjust() {
+        for (var pool : pools) {
+            pool.adjust();
+        }
+        sample();
+    }
+
+    private void sample() {
+        var activeWaiters = 0;
+        for (var pool : pools) {
+            activeWaiters += pool.activeWaiters();
+        }
+        if (activeWaiters != lastActiveWaiters) {
+            samples.add(new ActiveWaitersSample(Duration.ofNanos(System.nanoTime() - startNanoseconds), activeWaiters));
+            lastActiveWaiters = activeWaiters;
+        }
+    }
+
+    /**
+     * Should be read after the controller is closed.
+     */
+    public List<ActiveWaitersSample> getSamples() {
+        return List.copyOf(samples);
+    }
+
+    /**
+     * Stops adjusting the pools. If the closing thread is interrupted while an adjustment is in progress,
+     * the adjustment is interrupted as well and the interrupt flag is restored.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException exception) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
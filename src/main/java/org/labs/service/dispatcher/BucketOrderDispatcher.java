@@ -0,0 +1,230 @@
+package org.labs.service.dispatcher;
+
+import org.labs.model.Order;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * Lock-free and allocation-free dispatcher which encodes orders by visitor index.
+ * Orders are kept in buckets by eaten portions modulo the buckets count. Every bucket is a Treiber stack
+ * linked through a per-visitor array, which is possible because a visitor has at most one pending order.
+ * Waiters scan the buckets starting from a cursor which never exceeds the least eaten count among pending orders,
+ * so the least-fed visitor is served first while the spread of eaten counts is below the buckets count.
+ * The buckets ahead of the cursor form one rotation: an order beyond it waits in its farthest bucket, unless
+ * no order is pending and the cursor moves on to the order. Priorities are compared by their difference,
+ * so they may wrap around the int range. Orders far below the cursor still alias the farther buckets, and orders
+ * of one bucket are served last in, first out, so the dispatcher is not the default one.
+ */
+public class BucketOrderDispatcher implements OrderDispatcher {
+    private static final int DEFAULT_BUCKETS_COUNT = 64;
+    // Bucket heads are kept on different cache lines
+    private static final int HEAD_STRIDE = 16;
+    private static final int NO_VISITOR = 0;
+
+    private final int firstVisitorId;
+    private final int bucketsCount;
+    private final ToIntFunction<Order> priority;
+    private final Order[] slots;
+    // Next visitor index + 1 in the same bucket
+    private final AtomicIntegerArray links;
+    // 1 while the order of the visitor waits in a bucket
+    private final AtomicIntegerArray queued;
+    // Per bucket: modification stamp in the high half against ABA, top visitor index + 1 in the low half
+    private final AtomicLongArray heads;
+    private final AtomicInteger cursor = new AtomicInteger(0);
+
+    private final LongAdder pendingOrdersCount = new LongAdder();
+    private final Semaphore pendingOrders = new Semaphore(0);
+
+    public BucketOrderDispatcher(int visitorsCount) {
+        this(visitorsCount, 1);
+    }
+
+    /**
+     * Creates a dispatcher for the visitors with ids from {@code firstVisitorId} to
+     * {@code firstVisitorId + visitorsCount - 1}.
+     */
+    public BucketOrderDispatcher(int visitorsCount, int firstVisitorId) {
+        this(visitorsCount, firstVisitorId, DEFAULT_BUCKETS_COUNT, Order::portionsEaten);
+    }
+
+    /**
+     * Creates a dispatcher which hands out the order with the smallest priority value first. The priority of
+     * the pending orders should not decrease over time and its spread should stay below the buckets count.
+     * The priority may overflow, as long as the priorities of the pending orders are less than 2^31 apart.
+     *
+     * @param bucketsCount power of two.
+     */
+    protected BucketOrderDispatcher(int visitorsCount, int firstVisitorId, int bucketsCount,
+                                    ToIntFunction<Order> priority) {
+        if (Integer.bitCount(bucketsCount) != 1) {
+            throw new IllegalArgumentException("Buckets count should be a power of two: " + bucketsCount);
+        }
+        this.firstVisitorId = firstVisitorId;
+        this.bucketsCount = bucketsCount;
+        this.priority = priority;
+        this.heads = new AtomicLongArray(bucketsCount * HEAD_STRIDE);
+        this.slots = new Order[visitorsCount];
+        this.links = new AtomicIntegerArray(visitorsCount);
+        this.queued = new AtomicIntegerArray(visitorsCount);
+    }
+
+    @Override
+    public void offer(Order order) {
+        var visitorIndex = order.visitorId() - firstVisitorId;
+        slots[visitorIndex] = order;
+        queued.set(visitorIndex, 1);
+        var orderPriority = placeInRotation(priority.applyAsInt(order));
+        push(bucketOf(orderPriority), visitorIndex);
+        pendingOrdersCount.increment();
+        lowerCursor(orderPriority);
+        pendingOrders.release();
+    }
+
+    @Override
+    public Order poll() {
+        var order = pollBuckets();
+        if (order != null) {
+            pendingOrders.tryAcquire();
+        }
+        return order;
+    }
+
+    @Override
+    public Order poll(long timeout, TimeUnit unit) throws InterruptedException {
+        var order = poll();
+        if (order != null || !pendingOrders.tryAcquire(timeout, unit)) {
+            return order;
+        }
+        return pollBuckets();
+    }
+
+    /**
+     * The order stays in its bucket as a tombstone which is skipped by waiters,
+     * so the withdrawn order slot must not be offered again.
+     */
+    @Override
+    public boolean remove(Order order) {
+        if (!queued.compareAndSet(order.visitorId() - firstVisitorId, 1, 0)) {
+            return false;
+        }
+        pendingOrdersCount.decrement();
+        pendingOrders.tryAcquire();
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return (int) pendingOrdersCount.sum();
+    }
+
+    /**
+     * @return the priority if it falls into the rotation of the cursor, otherwise the farthest priority
+     * of the rotation, as the bucket of the priority holds orders of the rotation. Without pending orders
+     * the cursor moves on to the priority, starting a new rotation.
+     */
+    private int placeInRotation(int orderPriority) {
+        while (true) {
+            var current = cursor.get();
+            var farthestPriority = current + bucketsCount - 1;
+            if (orderPriority - farthestPriority <= 0) {
+                return orderPriority;
+            }
+            if (pendingOrdersCount.sum() > 0) {
+                return farthestPriority;
+            }
+            if (cursor.compareAndSet(current, orderPriority)) {
+                return orderPriority;
+            }
+        }
+    }
+
+    private Order pollBuckets() {
+        var start = cursor.get();
+        for (var shift = 0; shift < bucketsCount; shift++) {
+            var visitorIndex = popQueued(bucketOf(start + shift));
+            if (visitorIndex >= 0) {
+                if (shift > 0) {
+                    advanceCursor(start, start + shift);
+                }
+                pendingOrdersCount.decrement();
+                return slots[visitorIndex];
+            }
+        }
+        return null;
+    }
+
+    private int popQueued(int bucket) {
+        int visitorIndex;
+        do {
+            visitorIndex = pop(bucket);
+        } while (visitorIndex >= 0 && !queued.compareAndSet(visitorIndex, 1, 0));
+        return visitorIndex;
+    }
+
+    private void push(int bucket, int visitorIndex) {
+        var headIndex = bucket * HEAD_STRIDE;
+        while (true) {
+            var head = heads.get(headIndex);
+            links.set(visitorIndex, (int) head);
+            var newHead = nextStamp(head) | (visitorIndex + 1);
+            if (heads.compareAndSet(headIndex, head, newHead)) {
+                return;
+            }
+        }
+    }
+
+    private int pop(int bucket) {
+        var headIndex = bucket * HEAD_STRIDE;
+        while (true) {
+            var head = heads.get(headIndex);
+            var top = (int) head;
+            if (top == NO_VISITOR) {
+                return -1;
+            }
+            var newHead = nextStamp(head) | (links.get(top - 1) & 0xFFFFFFFFL);
+            if (heads.compareAndSet(headIndex, head, newHead)) {
+                return top - 1;
+            }
+        }
+    }
+
+    /**
+     * Moves the cursor past the buckets found empty. An order offered into one of them meanwhile
+     * might have missed the move, so the skipped buckets are checked again afterwards.
+     */
+    private void advanceCursor(int start, int target) {
+        if (!cursor.compareAndSet(start, target)) {
+            return;
+        }
+        for (var orderPriority = start; orderPriority - target < 0; orderPriority++) {
+            if ((int) heads.get(bucketOf(orderPriority) * HEAD_STRIDE) != NO_VISITOR) {
+                lowerCursor(orderPriority);
+                return;
+            }
+        }
+    }
+
+    private void lowerCursor(int orderPriority) {
+        while (true) {
+            var current = cursor.get();
+            if (orderPriority - current >= 0 || cursor.compareAndSet(current, orderPriority)) {
+                return;
+            }
+        }
+    }
+
+    private static long nextStamp(long head) {
+        return ((head >>> 32) + 1) << 32;
+    }
+
+    private int bucketOf(int orderPriority) {
+        return orderPriority & (bucketsCount - 1);
+    }
+}
@@ -0,0 +1,38 @@
+package org.labs.service.dispatcher;
+
+import org.labs.model.Order;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Earliest deadline first over the lock-free buckets of {@link BucketOrderDispatcher}, which act as a timer wheel:
+ * the deadline is cut into slots of a fixed granularity and the slots wrap around the buckets.
+ * The granularity is chosen so that the longest deadline spans half of the buckets, so orders placed
+ * at the same time are ordered by their deadlines, and orders whose deadlines fall into one slot are served
+ * in no particular order.
+ * <p>
+ * Slots are counted from the creation of the dispatcher in an int which wraps around, and are compared relative
+ * to the cursor, so a dinner may run longer than 2^31 slots. New deadlines are at most half of the buckets ahead
+ * of the current time, so only an order overdue by more than the longest deadline could alias a new one.
+ * Such a new order waits in the farthest bucket of the rotation instead, behind every order of the rotation.
+ * <p>
+ * Orders without an objective carry a deadline too, so an order which has been passed over long enough
+ * becomes the most urgent one and every visitor is served eventually.
+ */
+public class DeadlineOrderDispatcher extends BucketOrderDispatcher {
+    private static final int BUCKETS_COUNT = 256;
+    private static final long MIN_GRANULARITY_NANOSECONDS = 1_000;
+
+    /**
+     * @param longestDeadlineNanoseconds longest relative deadline of the orders.
+     */
+    public DeadlineOrderDispatcher(int visitorsCount, int firstVisitorId, long longestDeadlineNanoseconds) {
+        super(visitorsCount, firstVisitorId, BUCKETS_COUNT, deadlineSlot(System.nanoTime(),
+                Math.max(MIN_GRANULARITY_NANOSECONDS, longestDeadlineNanoseconds / (BUCKETS_COUNT / 2))));
+    }
+
+    // The slot wraps around the int range, the dispatcher compares slots by their difference
+    private static ToIntFunction<Order> deadlineSlot(long originNanoseconds, long granularityNanoseconds) {
+        return order -> (int) ((order.deadlineNanoseconds() - originNanoseconds) / granularityNanoseconds);
+    }
+}
@@ -0,0 +1,36 @@
+package org.labs.service.dispatcher;
+
+import org.labs.model.Order;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue of pending orders which hands out the order of the least-fed visitor first,
+ * or the order with the earliest deadline for {@link DeadlineOrderDispatcher}.
+ */
+public interface OrderDispatcher {
+    void offer(Order order);
+
+    /**
+     * @return the order of the least-fed visitor, or null if there are no orders.
+     */
+    Order poll();
+
+    /**
+     * Waits for an order if there are no orders at the moment.
+     *
+     * @return the order of the least-fed visitor, or null if no order appeared within the timeout.
+     */
+    Order poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * @return true if the order was pending and has been removed.
+     */
+    boolean remove(Order order);
+
+    /**
+     * @return count of pending orders. It may lag behind the offers and polls in progress,
+     * but it is exact once they have returned.
+     */
+    int size();
+}
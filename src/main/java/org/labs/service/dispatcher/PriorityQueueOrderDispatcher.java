@@ -0,0 +1,46 @@
+package org.labs.service.dispatcher;
+
+import org.labs.model.Order;
+
+import java.util.Comparator;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary heap behind a single lock.
+ */
+public class PriorityQueueOrderDispatcher implements OrderDispatcher {
+    private final PriorityBlockingQueue<Order> orders;
+
+    public PriorityQueueOrderDispatcher(int visitorsCount) {
+        this.orders = new PriorityBlockingQueue<>(
+                visitorsCount,
+                Comparator.comparingInt(Order::portionsEaten)
+        );
+    }
+
+    @Override
+    public void offer(Order order) {
+        orders.add(order);
+    }
+
+    @Override
+    public Order poll() {
+        return orders.poll();
+    }
+
+    @Override
+    public Order poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return orders.poll(timeout, unit);
+    }
+
+    @Override
+    public boolean remove(Order order) {
+        return orders.remove(order);
+    }
+
+    @Override
+    public int size() {
+        return orders.size();
+    }
+}
@@ -0,0 +1,70 @@
+package org.labs.service.dispatcher;
+
+import org.labs.model.Order;
+
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free skip list ordered by eaten portions. A visitor has at most one pending order,
+ * so the visitor id makes the keys unique.
+ * The skip list is the only source of truth; semaphore permits just wake up waiters blocked on an empty dispatcher,
+ * so a permit lost in a race delays a waiter by its timeout at most. Permits may outlive their orders,
+ * so the size is counted separately by the orders which have entered and left the skip list.
+ */
+public class SkipListOrderDispatcher implements OrderDispatcher {
+    private final ConcurrentSkipListSet<Order> orders = new ConcurrentSkipListSet<>(
+            Comparator.comparingInt(Order::portionsEaten)
+                    .thenComparingInt(Order::visitorId)
+    );
+    private final LongAdder pendingOrdersCount = new LongAdder();
+    private final Semaphore pendingOrders = new Semaphore(0);
+
+    @Override
+    public void offer(Order order) {
+        orders.add(order);
+        pendingOrdersCount.increment();
+        pendingOrders.release();
+    }
+
+    @Override
+    public Order poll() {
+        var order = orders.pollFirst();
+        if (order != null) {
+            pendingOrdersCount.decrement();
+            pendingOrders.tryAcquire();
+        }
+        return order;
+    }
+
+    @Override
+    public Order poll(long timeout, TimeUnit unit) throws InterruptedException {
+        var order = poll();
+        if (order != null || !pendingOrders.tryAcquire(timeout, unit)) {
+            return order;
+        }
+        order = orders.pollFirst();
+        if (order != null) {
+            pendingOrdersCount.decrement();
+        }
+        return order;
+    }
+
+    @Override
+    public boolean remove(Order order) {
+        if (!orders.remove(order)) {
+            return false;
+        }
+        pendingOrdersCount.decrement();
+        pendingOrders.tryAcquire();
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return (int) pendingOrdersCount.sum();
+    }
+}
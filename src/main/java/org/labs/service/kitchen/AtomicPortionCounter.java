@@ -0,0 +1,36 @@
+package org.labs.service.kitchen;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single counter updated with CAS.
+ */
+public class AtomicPortionCounter implements PortionCounter {
+    private final AtomicLong portionsCount;
+
+    public AtomicPortionCounter(long initialPortionsCount) {
+        this.portionsCount = new AtomicLong(initialPortionsCount);
+    }
+
+    @Override
+    public long take(long maxPortions) {
+        if (maxPortions < 1) {
+            throw new IllegalArgumentException("Portions count to take should be positive: " + maxPortions);
+        }
+        while (true) {
+            var current = portionsCount.get();
+            if (current == 0) {
+                return 0;
+            }
+            var taken = Math.min(current, maxPortions);
+            if (portionsCount.compareAndSet(current, current - taken)) {
+                return taken;
+            }
+        }
+    }
+
+    @Override
+    public long remaining() {
+        return portionsCount.get();
+    }
+}
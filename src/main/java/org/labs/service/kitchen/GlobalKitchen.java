@@ -0,0 +1,91 @@
+package org.labs.service.kitchen;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Portions shared by several tables. Tables draw portions in rounds proportional to their visitors counts,
+ * and a table may run at most one round ahead of the slowest one, which keeps the visitors of different tables
+ * equally fed. Rounds shrink as the stock runs out, so the leftovers are spread over all tables.
+ */
+public class GlobalKitchen {
+    public static final int DEFAULT_ROUND_PORTIONS_PER_VISITOR = 4;
+    private static final int MAX_ROUNDS_AHEAD = 1;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition roundFinished = lock.newCondition();
+
+    private final int[] tableVisitorsCounts;
+    private final long totalVisitorsCount;
+    private final int roundPortionsPerVisitor;
+    private final int[] drawnRounds;
+    private final int[] finishedRounds;
+    private long remainingPortions;
+
+    public GlobalKitchen(long initialPortionsCount, int[] tableVisitorsCounts, int roundPortionsPerVisitor) {
+        if (roundPortionsPerVisitor < 1) {
+            throw new IllegalArgumentException("Round portions per visitor should be positive: "
+                    + roundPortionsPerVisitor);
+        }
+        this.remainingPortions = initialPortionsCount;
+        this.tableVisitorsCounts = tableVisitorsCounts.clone();
+        var totalVisitorsCount = 0L;
+        for (var visitorsCount : tableVisitorsCounts) {
+            totalVisitorsCount += visitorsCount;
+        }
+        this.totalVisitorsCount = totalVisitorsCount;
+        this.roundPortionsPerVisitor = roundPortionsPerVisitor;
+        this.drawnRounds = new int[tableVisitorsCounts.length];
+        this.finishedRounds = new int[tableVisitorsCounts.length];
+    }
+
+    /**
+     * Called by a table which has handed out every portion drawn so far.
+     * Waits while the table is too far ahead of the others.
+     *
+     * @return portions of the next round of the table, 0 if the kitchen is empty.
+     */
+    public long drawRound(int table) throws InterruptedException {
+        lock.lock();
+        try {
+            finishedRounds[table] = drawnRounds[table];
+            roundFinished.signalAll();
+            while (remainingPortions > 0 && drawnRounds[table] > minFinishedRound() + MAX_ROUNDS_AHEAD) {
+                roundFinished.await();
+            }
+            if (remainingPortions == 0) {
+                return 0;
+            }
+
+            var portionsPerVisitor = Math.clamp(
+                    remainingPortions / (2 * totalVisitorsCount), 1, roundPortionsPerVisitor);
+            var portions = Math.min(remainingPortions, portionsPerVisitor * tableVisitorsCounts[table]);
+            remainingPortions -= portions;
+            drawnRounds[table]++;
+            if (remainingPortions == 0) {
+                // Tables waiting for their turn learn that there is nothing left
+                roundFinished.signalAll();
+            }
+            return portions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long remaining() {
+        lock.lock();
+        try {
+            return remainingPortions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int minFinishedRound() {
+        var minFinishedRound = Integer.MAX_VALUE;
+        for (var finishedRound : finishedRounds) {
+            minFinishedRound = Math.min(minFinishedRound, finishedRound);
+        }
+        return minFinishedRound;
+    }
+}
@@ -0,0 +1,150 @@
+package org.labs.service.kitchen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Standalone kitchen which hands out the portions of its stock to the dinners of other processes
+ * over loopback TCP or a Unix domain socket.
+ * <p>
+ * A request is a one-byte opcode followed by a long argument, and a response is a long. The requests
+ * of a connection are answered in order, so a client may pipeline them without waiting, and the responses
+ * to all requests received at once are written back at once.
+ * <p>
+ * Usage: {@code KitchenServer <portions count> <port | unix socket path>}, which serves until it is killed.
+ */
+public class KitchenServer implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(KitchenServer.class);
+
+    static final byte TAKE = 1;
+    static final byte REMAINING = 2;
+    static final int REQUEST_BYTES = Byte.BYTES + Long.BYTES;
+    static final int RESPONSE_BYTES = Long.BYTES;
+    private static final int MAX_REQUESTS_PER_READ = 64;
+
+    private final PortionCounter portions;
+    private final SocketAddress address;
+    private final ServerSocketChannel serverChannel;
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+
+    /**
+     * Binds the server to the address and starts accepting connections.
+     */
+    public KitchenServer(PortionCounter portions, SocketAddress address) throws IOException {
+        this.portions = portions;
+        this.serverChannel = address instanceof UnixDomainSocketAddress
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                : ServerSocketChannel.open();
+        serverChannel.bind(address);
+        this.address = serverChannel.getLocalAddress();
+        this.acceptor = Thread.ofPlatform().name("kitchen-server").daemon().start(this::acceptConnections);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 2) {
+            System.err.println("Usage: KitchenServer <portions count> <port | unix socket path>");
+            System.exit(2);
+        }
+        var address = args[1].chars().allMatch(Character::isDigit)
+                ? new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(args[1]))
+                : UnixDomainSocketAddress.of(Path.of(args[1]));
+        try (var server = new KitchenServer(new AtomicPortionCounter(Long.parseLong(args[0])), address)) {
+            logger.info("Kitchen of {} portions serves at {}", args[0], server.address());
+            server.acceptor.join();
+        }
+    }
+
+    /**
+     * @return the address the server is bound to, with the actual port if it was bound to port 0.
+     */
+    public SocketAddress address() {
+        return address;
+    }
+
+    public long remaining() {
+        return portions.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        for (var connection : connections) {
+            connection.close();
+        }
+        if (address instanceof UnixDomainSocketAddress unixAddress) {
+            Files.deleteIfExists(unixAddress.getPath());
+        }
+    }
+
+    private void acceptConnections() {
+        while (true) {
+            SocketChannel connection;
+            try {
+                connection = serverChannel.accept();
+            } catch (ClosedChannelException exception) {
+                return;
+            } catch (IOException exception) {
+                logger.error("Kitchen server stopped accepting connections", exception);
+                return;
+            }
+            connections.add(connection);
+            Thread.ofVirtual().name("kitchen-connection").start(() -> serve(connection));
+        }
+    }
+
+    private void serve(SocketChannel connection) {
+        var requests = ByteBuffer.allocateDirect(MAX_REQUESTS_PER_READ * REQUEST_BYTES);
+        var responses = ByteBuffer.allocateDirect(MAX_REQUESTS_PER_READ * RESPONSE_BYTES);
+        try (connection) {
+            while (connection.read(requests) >= 0) {
+                requests.flip();
+                while (requests.remaining() >= REQUEST_BYTES) {
+                    responses.putLong(answer(requests.get(), requests.getLong()));
+                }
+                requests.compact();
+                responses.flip();
+                while (responses.hasRemaining()) {
+                    connection.write(responses);
+                }
+                responses.clear();
+            }
+        } catch (IOException exception) {
+            if (serverChannel.isOpen()) {
+                logger.warn("Kitchen connection failed", exception);
+            }
+        } finally {
+            connections.remove(connection);
+        }
+    }
+
+    private long answer(byte opcode, long argument) throws ProtocolException {
+        return switch (opcode) {
+            case TAKE -> {
+                if (argument < 1) {
+                    throw new ProtocolException("Portions count to take should be positive: " + argument);
+                }
+                yield portions.take(argument);
+            }
+            case REMAINING -> portions.remaining();
+            default -> throw new ProtocolException("Unknown kitchen request: " + opcode);
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package org.labs.service.kitchen;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Stock kept in a memory-mapped file. Processes which map the same file share its pages, so a CAS
+ * on the mapped buffer is atomic across all of them and no kitchen process is needed.
+ * <p>
+ * The file starts with a magic number, and the count lies on a cache line of its own.
+ * The file should be created before any dinner opens it.
+ * <p>
+ * The count is reached through a byte-buffer view {@link VarHandle} on a {@link MappedByteBuffer}. The mapping
+ * starts on a page, so the count is an aligned long and the handle gives a plain hardware CAS on it, as a
+ * memory segment would. Unlike a segment of a closed arena, the buffer stays valid until it is collected,
+ * so a waiter still taking portions while the dinner closes the counter never fails on an unmapped page.
+ */
+public final class MappedPortionCounter implements SharedPortionCounter {
+    private static final long MAGIC = 0x4B49_5443_4845_4E31L;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int COUNT_OFFSET = 64;
+    private static final int FILE_BYTES = 128;
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private MappedPortionCounter(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_BYTES);
+    }
+
+    /**
+     * Creates the file with the given stock, replacing an existing one.
+     */
+    public static MappedPortionCounter create(Path file, long initialPortionsCount) throws IOException {
+        var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            var counter = new MappedPortionCounter(channel);
+            LONGS.setVolatile(counter.buffer, COUNT_OFFSET, initialPortionsCount);
+            LONGS.setVolatile(counter.buffer, MAGIC_OFFSET, MAGIC);
+            return counter;
+        } catch (IOException | RuntimeException exception) {
+            channel.close();
+            throw exception;
+        }
+    }
+
+    /**
+     * Opens the stock created by {@link #create(Path, long)}, possibly in another process.
+     */
+    public static MappedPortionCounter open(Path file) throws IOException {
+        var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < FILE_BYTES) {
+                throw new IOException("Not a kitchen file: " + file);
+            }
+            var counter = new MappedPortionCounter(channel);
+            if ((long) LONGS.getVolatile(counter.buffer, MAGIC_OFFSET) != MAGIC) {
+                throw new IOException("Not a kitchen file: " + file);
+            }
+            return counter;
+        } catch (IOException | RuntimeException exception) {
+            channel.close();
+            throw exception;
+        }
+    }
+
+    @Override
+    public long take(long maxPortions) {
+        if (maxPortions < 1) {
+            throw new IllegalArgumentException("Portions count to take should be positive: " + maxPortions);
+        }
+        while (true) {
+            var current = (long) LONGS.getVolatile(buffer, COUNT_OFFSET);
+            if (current == 0) {
+                return 0;
+            }
+            var taken = Math.min(current, maxPortions);
+            if (LONGS.compareAndSet(buffer, COUNT_OFFSET, current, current - taken)) {
+                return taken;
+            }
+        }
+    }
+
+    @Override
+    public long remaining() {
+        return (long) LONGS.getVolatile(buffer, COUNT_OFFSET);
+    }
+
+    /**
+     * The mapping itself is released once the counter is collected.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,49 @@
+package org.labs.service.kitchen;
+
+import org.labs.service.KitchenService;
+
+/**
+ * Portions reserved by one waiter in batches, so that the kitchen stock is touched once per batch.
+ * Not thread-safe: every waiter owns its allotment.
+ */
+public class PortionAllotment {
+    private final KitchenService kitchenService;
+    private final int batchSize;
+    private long availablePortions = 0;
+
+    public PortionAllotment(KitchenService kitchenService, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size should be positive: " + batchSize);
+        }
+        this.kitchenService = kitchenService;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Assigns a portion to an order, reserving the next batch in the kitchen if the allotment is empty.
+     *
+     * @return false if both the allotment and the kitchen are empty.
+     */
+    public boolean takePortion() throws InterruptedException {
+        return takePortions(1) == 1;
+    }
+
+    /**
+     * Assigns portions to a tray of orders. The kitchen is touched at most once,
+     * reserving at least a batch if the allotment does not cover the tray.
+     *
+     * @return count of assigned portions, less than requested only if the kitchen is empty.
+     */
+    public int takePortions(int maxPortions) throws InterruptedException {
+        if (availablePortions < maxPortions) {
+            availablePortions += kitchenService.reservePortions(Math.max(batchSize, maxPortions - availablePortions));
+        }
+        var takenPortions = (int) Math.min(availablePortions, maxPortions);
+        availablePortions -= takenPortions;
+        return takenPortions;
+    }
+
+    public boolean hasPortions() {
+        return availablePortions > 0;
+    }
+}
@@ -0,0 +1,16 @@
+package org.labs.service.kitchen;
+
+/**
+ * Stock of soup portions in the kitchen.
+ */
+public interface PortionCounter {
+    /**
+     * Takes up to the given count of portions. The stock never becomes negative.
+     *
+     * @param maxPortions positive count of portions.
+     * @return count of actually taken portions, 0 if the stock is empty.
+     */
+    long take(long maxPortions);
+
+    long remaining();
+}
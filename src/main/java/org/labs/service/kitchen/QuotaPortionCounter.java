@@ -0,0 +1,90 @@
+package org.labs.service.kitchen;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stock of one table, refilled from the {@link GlobalKitchen} whenever it runs empty.
+ * Fewer portions than requested are taken only when the global kitchen is empty as well,
+ * or when the waiting for the next round is interrupted: then the interrupt flag stays set
+ * and the global kitchen is not considered empty.
+ */
+public class QuotaPortionCounter implements PortionCounter {
+    private final GlobalKitchen globalKitchen;
+    private final int table;
+    private final AtomicLong portionsCount = new AtomicLong(0);
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private volatile boolean isGlobalKitchenEmpty = false;
+
+    public QuotaPortionCounter(GlobalKitchen globalKitchen, int table) {
+        this.globalKitchen = globalKitchen;
+        this.table = table;
+    }
+
+    @Override
+    public long take(long maxPortions) {
+        var taken = 0L;
+        while (taken < maxPortions) {
+            taken += takeFromStock(maxPortions - taken);
+            if (taken < maxPortions && !refill()) {
+                break;
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * @return portions in the stock of this table only, the portions left in the global kitchen
+     * are counted by {@link GlobalKitchen#remaining()}.
+     */
+    @Override
+    public long remaining() {
+        return portionsCount.get();
+    }
+
+    private long takeFromStock(long maxPortions) {
+        while (true) {
+            var current = portionsCount.get();
+            if (current == 0) {
+                return 0;
+            }
+            var taken = Math.min(current, maxPortions);
+            if (portionsCount.compareAndSet(current, current - taken)) {
+                return taken;
+            }
+        }
+    }
+
+    // Returns false once the global kitchen is empty, or if the thread is interrupted
+    private boolean refill() {
+        if (Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        if (isGlobalKitchenEmpty) {
+            return false;
+        }
+        refillLock.lock();
+        try {
+            if (portionsCount.get() > 0) {
+                // Another waiter of the table has refilled the stock
+                return true;
+            }
+            if (isGlobalKitchenEmpty) {
+                return false;
+            }
+            var portions = globalKitchen.drawRound(table);
+            if (portions == 0) {
+                isGlobalKitchenEmpty = true;
+                return false;
+            }
+            portionsCount.addAndGet(portions);
+            return true;
+        } catch (InterruptedException exception) {
+            // The caller sees the interrupt flag, the global kitchen is not marked empty
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            refillLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.labs.service.kitchen;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stock of a {@link KitchenServer} in another process.
+ * <p>
+ * Requests of concurrent threads are combined: the thread which gets hold of the connection writes every queued
+ * request at once and reads the responses in order, while the other threads wait for their answers.
+ * A round trip thus serves a whole batch of reservations, and the more waiters draw portions at once,
+ * the fewer round trips each of them pays for.
+ */
+public final class RemotePortionCounter implements SharedPortionCounter {
+    private static final int MAX_BATCH = 64;
+    // Upper bound of a wait for the combining thread, which unparks the waiting threads once they are answered
+    private static final long WAIT_NANOSECONDS = 50_000;
+
+    private final SocketChannel channel;
+    private final ReentrantLock connectionLock = new ReentrantLock();
+    private final ConcurrentLinkedQueue<Request> queuedRequests = new ConcurrentLinkedQueue<>();
+    private final Request[] batch = new Request[MAX_BATCH];
+    private final ByteBuffer requests = ByteBuffer.allocateDirect(MAX_BATCH * KitchenServer.REQUEST_BYTES);
+    private final ByteBuffer responses = ByteBuffer.allocateDirect(MAX_BATCH * KitchenServer.RESPONSE_BYTES);
+    private volatile IOException failure;
+
+    private RemotePortionCounter(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    public static RemotePortionCounter connect(SocketAddress address) throws IOException {
+        var isUnixSocket = address instanceof UnixDomainSocketAddress;
+        var channel = isUnixSocket ? SocketChannel.open(StandardProtocolFamily.UNIX) : SocketChannel.open();
+        try {
+            channel.connect(address);
+            if (!isUnixSocket) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            }
+            return new RemotePortionCounter(channel);
+        } catch (IOException exception) {
+            channel.close();
+            throw exception;
+        }
+    }
+
+    @Override
+    public long take(long maxPortions) {
+        return call(KitchenServer.TAKE, maxPortions);
+    }
+
+    @Override
+    public long remaining() {
+        return call(KitchenServer.REMAINING, 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long call(byte opcode, long argument) {
+        var request = new Request(opcode, argument, Thread.currentThread());
+        queuedRequests.add(request);
+        while (!request.isAnswered) {
+            if (failure != null) {
+                throw new UncheckedIOException("Kitchen server is unreachable", failure);
+            }
+            if (connectionLock.tryLock()) {
+                try {
+                    exchangeBatch();
+                } finally {
+                    connectionLock.unlock();
+                }
+            } else {
+                LockSupport.parkNanos(this, WAIT_NANOSECONDS);
+            }
+        }
+        return request.result;
+    }
+
+    private void exchangeBatch() {
+        var batchSize = 0;
+        Request request;
+        while (batchSize < MAX_BATCH && (request = queuedRequests.poll()) != null) {
+            batch[batchSize++] = request;
+        }
+        if (batchSize == 0) {
+            return;
+        }
+        try {
+            requests.clear();
+            for (var i = 0; i < batchSize; i++) {
+                requests.put(batch[i].opcode).putLong(batch[i].argument);
+            }
+            requests.flip();
+            while (requests.hasRemaining()) {
+                channel.write(requests);
+            }
+
+            responses.clear().limit(batchSize * KitchenServer.RESPONSE_BYTES);
+            while (responses.hasRemaining()) {
+                if (channel.read(responses) < 0) {
+                    throw new EOFException("Kitchen server closed the connection");
+                }
+            }
+            responses.flip();
+            for (var i = 0; i < batchSize; i++) {
+                batch[i].answer(responses.getLong());
+            }
+        } catch (IOException exception) {
+            // The answers of the batch are lost, so the connection cannot be used any more
+            failure = exception;
+            for (var i = 0; i < batchSize; i++) {
+                LockSupport.unpark(batch[i].thread);
+            }
+        } finally {
+            for (var i = 0; i < batchSize; i++) {
+                batch[i] = null;
+            }
+        }
+    }
+
+    private static final class Request {
+        private final byte opcode;
+        private final long argument;
+        private final Thread thread;
+        private long result;
+        private volatile boolean isAnswered = false;
+
+        private Request(byte opcode, long argument, Thread thread) {
+            this.opcode = opcode;
+            this.argument = argument;
+            this.thread = thread;
+        }
+
+        private void answer(long result) {
+            this.result = result;
+            this.isAnswered = true;
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.labs.service.kitchen;
+
+import java.io.Closeable;
+
+/**
+ * Stock of soup portions shared by the dinners of several processes. Every portion is handed out exactly once
+ * over all processes. Closing the counter releases the resources of this process only, the stock stays.
+ */
+public interface SharedPortionCounter extends PortionCounter, Closeable {
+}
@@ -0,0 +1,63 @@
+package org.labs.service.kitchen;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock split into stripes placed on different cache lines, similar to {@link java.util.concurrent.atomic.LongAdder}.
+ * A thread takes from its own stripe and moves on to the other ones only when its stripe is empty.
+ * Stripes are never refilled, so once a scan over all of them comes up short the stock is empty for good.
+ */
+public class StripedPortionCounter implements PortionCounter {
+    // 16 longs = 128 bytes between stripes, which also defeats the adjacent cache line prefetch
+    private static final int STRIDE = 16;
+
+    private final AtomicLongArray stripes;
+    private final int stripesCount;
+
+    public StripedPortionCounter(long initialPortionsCount, int stripesCount) {
+        if (stripesCount <= 0) {
+            throw new IllegalArgumentException("Stripes count should be positive: " + stripesCount);
+        }
+        this.stripesCount = stripesCount;
+        this.stripes = new AtomicLongArray(stripesCount * STRIDE);
+
+        var stripePortions = initialPortionsCount / stripesCount;
+        for (var i = 0; i < stripesCount; i++) {
+            stripes.set(i * STRIDE, stripePortions);
+        }
+        stripes.addAndGet(0, initialPortionsCount % stripesCount);
+    }
+
+    @Override
+    public long take(long maxPortions) {
+        var homeStripe = (int) (Thread.currentThread().threadId() % stripesCount);
+        var taken = 0L;
+        for (var i = 0; i < stripesCount && taken < maxPortions; i++) {
+            taken += takeFromStripe((homeStripe + i) % stripesCount, maxPortions - taken);
+        }
+        return taken;
+    }
+
+    @Override
+    public long remaining() {
+        var remaining = 0L;
+        for (var i = 0; i < stripesCount; i++) {
+            remaining += stripes.get(i * STRIDE);
+        }
+        return remaining;
+    }
+
+    private long takeFromStripe(int stripe, long maxPortions) {
+        var index = stripe * STRIDE;
+        while (true) {
+            var current = stripes.get(index);
+            if (current == 0) {
+                return 0;
+            }
+            var taken = Math.min(current, maxPortions);
+            if (stripes.compareAndSet(index, current, current - taken)) {
+                return taken;
+            }
+        }
+    }
+}
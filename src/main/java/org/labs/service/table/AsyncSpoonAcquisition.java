@@ -0,0 +1,69 @@
+package org.labs.service.table;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Non-blocking front of a spoon acquisition strategy. A visitor whose spoons are busy leaves a future
+ * which is completed by the neighbour putting a spoon down, so no thread waits for spoons.
+ * <p>
+ * The strategy must not bind spoons to threads, because spoons are taken and put down by different threads
+ * of a pool.
+ */
+public class AsyncSpoonAcquisition {
+    private final SpoonAcquisitionStrategy strategy;
+    private final int seatsCount;
+    private final AtomicReferenceArray<CompletableFuture<Void>> waitingSeats;
+    // Serializes the attempts made on behalf of a waiting seat
+    private final ReentrantLock[] seatLocks;
+
+    public AsyncSpoonAcquisition(SpoonAcquisitionStrategy strategy, int seatsCount) {
+        this.strategy = strategy;
+        this.seatsCount = seatsCount;
+        this.waitingSeats = new AtomicReferenceArray<>(seatsCount);
+        this.seatLocks = new ReentrantLock[seatsCount];
+        for (var i = 0; i < seatsCount; i++) {
+            seatLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * @return future completed once the seat holds both of its spoons.
+     */
+    public CompletableFuture<Void> acquire(int seat) {
+        if (strategy.tryAcquire(seat)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        var acquired = new CompletableFuture<Void>();
+        waitingSeats.set(seat, acquired);
+        // A neighbour may have put a spoon down before the future was published
+        retry(seat);
+        return acquired;
+    }
+
+    public void release(int seat) {
+        strategy.release(seat);
+        retry((seat + seatsCount - 1) % seatsCount);
+        retry((seat + 1) % seatsCount);
+    }
+
+    private void retry(int seat) {
+        if (waitingSeats.get(seat) == null) {
+            return;
+        }
+        CompletableFuture<Void> acquired;
+        var lock = seatLocks[seat];
+        lock.lock();
+        try {
+            acquired = waitingSeats.get(seat);
+            if (acquired == null || !strategy.tryAcquire(seat)) {
+                return;
+            }
+            waitingSeats.set(seat, null);
+        } finally {
+            lock.unlock();
+        }
+        acquired.complete(null);
+    }
+}
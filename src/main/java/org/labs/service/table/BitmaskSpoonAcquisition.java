@@ -0,0 +1,113 @@
+package org.labs.service.table;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Spoon states packed into a bitmask, one bit per spoon.
+ * <p>
+ * When both spoons of a seat share a word, they are taken together with a single CAS, so a visitor never holds
+ * one spoon while waiting for the other. Seats whose spoons straddle two words (and the seat closing the table
+ * on larger tables) take them in the order of the spoon indexes, which keeps the table deadlock-free.
+ * Waiting visitors spin briefly and then park with a growing timeout, since there is no owner to wake them up.
+ */
+public class BitmaskSpoonAcquisition implements SpoonAcquisitionStrategy {
+    private static final int SPIN_TRIES = 64;
+    private static final long MIN_PARK_NANOSECONDS = 1_000;
+    private static final long MAX_PARK_NANOSECONDS = 1_000_000;
+
+    private final int seatsCount;
+    private final AtomicLongArray words;
+
+    public BitmaskSpoonAcquisition(int seatsCount) {
+        this.seatsCount = seatsCount;
+        this.words = new AtomicLongArray((seatsCount + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    @Override
+    public void acquire(int seat) throws InterruptedException {
+        var firstSpoon = Math.min(seat, (seat + 1) % seatsCount);
+        var secondSpoon = Math.max(seat, (seat + 1) % seatsCount);
+        if (wordIndex(firstSpoon) == wordIndex(secondSpoon)) {
+            var mask = bit(firstSpoon) | bit(secondSpoon);
+            awaitMask(wordIndex(firstSpoon), mask);
+        } else {
+            awaitMask(wordIndex(firstSpoon), bit(firstSpoon));
+            try {
+                awaitMask(wordIndex(secondSpoon), bit(secondSpoon));
+            } catch (InterruptedException exception) {
+                clear(wordIndex(firstSpoon), bit(firstSpoon));
+                throw exception;
+            }
+        }
+    }
+
+    @Override
+    public boolean tryAcquire(int seat) {
+        var firstSpoon = Math.min(seat, (seat + 1) % seatsCount);
+        var secondSpoon = Math.max(seat, (seat + 1) % seatsCount);
+        if (wordIndex(firstSpoon) == wordIndex(secondSpoon)) {
+            return trySet(wordIndex(firstSpoon), bit(firstSpoon) | bit(secondSpoon));
+        }
+        if (!trySet(wordIndex(firstSpoon), bit(firstSpoon))) {
+            return false;
+        }
+        if (!trySet(wordIndex(secondSpoon), bit(secondSpoon))) {
+            clear(wordIndex(firstSpoon), bit(firstSpoon));
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void release(int seat) {
+        var firstSpoon = Math.min(seat, (seat + 1) % seatsCount);
+        var secondSpoon = Math.max(seat, (seat + 1) % seatsCount);
+        if (wordIndex(firstSpoon) == wordIndex(secondSpoon)) {
+            clear(wordIndex(firstSpoon), bit(firstSpoon) | bit(secondSpoon));
+        } else {
+            clear(wordIndex(secondSpoon), bit(secondSpoon));
+            clear(wordIndex(firstSpoon), bit(firstSpoon));
+        }
+    }
+
+    private void awaitMask(int wordIndex, long mask) throws InterruptedException {
+        var tries = 0;
+        var parkNanoseconds = MIN_PARK_NANOSECONDS;
+        while (!trySet(wordIndex, mask)) {
+            if (tries++ < SPIN_TRIES) {
+                Thread.onSpinWait();
+                continue;
+            }
+            LockSupport.parkNanos(this, parkNanoseconds);
+            parkNanoseconds = Math.min(parkNanoseconds * 2, MAX_PARK_NANOSECONDS);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    private boolean trySet(int wordIndex, long mask) {
+        while (true) {
+            var word = words.get(wordIndex);
+            if ((word & mask) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(wordIndex, word, word | mask)) {
+                return true;
+            }
+        }
+    }
+
+    private void clear(int wordIndex, long mask) {
+        words.accumulateAndGet(wordIndex, ~mask, (word, keptBits) -> word & keptBits);
+    }
+
+    private static int wordIndex(int spoon) {
+        return spoon / Long.SIZE;
+    }
+
+    private static long bit(int spoon) {
+        return 1L << (spoon % Long.SIZE);
+    }
+}
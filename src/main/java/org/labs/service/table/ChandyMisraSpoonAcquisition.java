@@ -0,0 +1,171 @@
+package org.labs.service.table;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Chandy/Misra dirty/clean spoons over shared memory.
+ * <p>
+ * Every spoon always belongs to one of its two neighbours. A hungry visitor takes a neighbour's spoon
+ * only when it is dirty and the neighbour is not eating, and cleans it on the way. Clean spoons are kept
+ * until their owner has eaten, which gives the waiting neighbour priority next time and rules out starvation.
+ * Initially each spoon is dirty and belongs to the neighbour with the lower seat, so the precedence graph
+ * is acyclic. A spoon lock is only held for short checks, never while waiting for the other spoon.
+ */
+public class ChandyMisraSpoonAcquisition implements SpoonAcquisitionStrategy {
+    private enum SeatState { THINKING, HUNGRY, EATING }
+
+    private static final class SharedSpoon {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private int owner;
+        private boolean dirty = true;
+
+        private SharedSpoon(int owner) {
+            this.owner = owner;
+        }
+    }
+
+    private final SharedSpoon[] spoons;
+    // Written while holding the locks of both spoons of the seat, read under either of them
+    private final SeatState[] seatStates;
+
+    public ChandyMisraSpoonAcquisition(int seatsCount) {
+        this.spoons = new SharedSpoon[seatsCount];
+        this.seatStates = new SeatState[seatsCount];
+        for (var i = 0; i < seatsCount; i++) {
+            // Spoon i lies between seats i - 1 and i
+            spoons[i] = new SharedSpoon(i == 0 ? 0 : i - 1);
+            seatStates[i] = SeatState.THINKING;
+        }
+    }
+
+    @Override
+    public void acquire(int seat) throws InterruptedException {
+        setState(seat, SeatState.HUNGRY);
+        var firstSpoon = firstSpoon(seat);
+        var secondSpoon = secondSpoon(seat);
+        while (!tryStartEating(seat, firstSpoon, secondSpoon)) {
+            awaitSpoon(seat, isOwnedBy(firstSpoon, seat) ? secondSpoon : firstSpoon);
+        }
+    }
+
+    @Override
+    public boolean tryAcquire(int seat) {
+        setState(seat, SeatState.HUNGRY);
+        var firstSpoon = firstSpoon(seat);
+        var secondSpoon = secondSpoon(seat);
+        takeIfDirty(seat, firstSpoon);
+        takeIfDirty(seat, secondSpoon);
+        if (tryStartEating(seat, firstSpoon, secondSpoon)) {
+            return true;
+        }
+        // A visitor that gives up must not keep clean spoons, otherwise the neighbours would wait for them forever
+        finishEating(seat, firstSpoon, secondSpoon);
+        return false;
+    }
+
+    @Override
+    public void release(int seat) {
+        finishEating(seat, firstSpoon(seat), secondSpoon(seat));
+    }
+
+    private boolean tryStartEating(int seat, SharedSpoon firstSpoon, SharedSpoon secondSpoon) {
+        firstSpoon.lock.lock();
+        secondSpoon.lock.lock();
+        try {
+            if (firstSpoon.owner != seat || secondSpoon.owner != seat) {
+                return false;
+            }
+            seatStates[seat] = SeatState.EATING;
+            return true;
+        } finally {
+            secondSpoon.lock.unlock();
+            firstSpoon.lock.unlock();
+        }
+    }
+
+    private void finishEating(int seat, SharedSpoon firstSpoon, SharedSpoon secondSpoon) {
+        firstSpoon.lock.lock();
+        secondSpoon.lock.lock();
+        try {
+            seatStates[seat] = SeatState.THINKING;
+            markDirty(seat, firstSpoon);
+            markDirty(seat, secondSpoon);
+        } finally {
+            secondSpoon.lock.unlock();
+            firstSpoon.lock.unlock();
+        }
+    }
+
+    private void awaitSpoon(int seat, SharedSpoon spoon) throws InterruptedException {
+        spoon.lock.lock();
+        try {
+            while (!takeIfDirtyLocked(seat, spoon)) {
+                spoon.changed.await();
+            }
+        } finally {
+            spoon.lock.unlock();
+        }
+    }
+
+    private void takeIfDirty(int seat, SharedSpoon spoon) {
+        spoon.lock.lock();
+        try {
+            takeIfDirtyLocked(seat, spoon);
+        } finally {
+            spoon.lock.unlock();
+        }
+    }
+
+    // Returns true if the seat owns the spoon afterwards
+    private boolean takeIfDirtyLocked(int seat, SharedSpoon spoon) {
+        if (spoon.owner == seat) {
+            return true;
+        }
+        if (spoon.dirty && seatStates[spoon.owner] != SeatState.EATING) {
+            spoon.owner = seat;
+            spoon.dirty = false;
+            return true;
+        }
+        return false;
+    }
+
+    private static void markDirty(int seat, SharedSpoon spoon) {
+        if (spoon.owner == seat) {
+            spoon.dirty = true;
+        }
+        spoon.changed.signalAll();
+    }
+
+    private static boolean isOwnedBy(SharedSpoon spoon, int seat) {
+        spoon.lock.lock();
+        try {
+            return spoon.owner == seat;
+        } finally {
+            spoon.lock.unlock();
+        }
+    }
+
+    private void setState(int seat, SeatState state) {
+        var firstSpoon = firstSpoon(seat);
+        var secondSpoon = secondSpoon(seat);
+        firstSpoon.lock.lock();
+        secondSpoon.lock.lock();
+        try {
+            seatStates[seat] = state;
+        } finally {
+            secondSpoon.lock.unlock();
+            firstSpoon.lock.unlock();
+        }
+    }
+
+    // Spoon locks are nested in the order of the spoon indexes
+    private SharedSpoon firstSpoon(int seat) {
+        return spoons[Math.min(seat, (seat + 1) % spoons.length)];
+    }
+
+    private SharedSpoon secondSpoon(int seat) {
+        return spoons[Math.max(seat, (seat + 1) % spoons.length)];
+    }
+}
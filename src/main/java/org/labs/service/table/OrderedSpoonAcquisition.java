@@ -0,0 +1,58 @@
+package org.labs.service.table;
+
+import org.labs.model.Spoon;
+
+import java.util.List;
+
+/**
+ * Resource ordering: spoons are locked in the order of their indexes, so no cycle of waiting visitors can form.
+ */
+public class OrderedSpoonAcquisition implements SpoonAcquisitionStrategy {
+    private final List<Spoon> spoons;
+
+    public OrderedSpoonAcquisition(List<Spoon> spoons) {
+        this.spoons = List.copyOf(spoons);
+    }
+
+    @Override
+    public void acquire(int seat) {
+        var firstSpoon = firstSpoon(seat);
+        var secondSpoon = secondSpoon(seat);
+        firstSpoon.take();
+        if (secondSpoon != firstSpoon) {
+            secondSpoon.take();
+        }
+    }
+
+    @Override
+    public boolean tryAcquire(int seat) {
+        var firstSpoon = firstSpoon(seat);
+        var secondSpoon = secondSpoon(seat);
+        if (!firstSpoon.tryTake()) {
+            return false;
+        }
+        if (secondSpoon != firstSpoon && !secondSpoon.tryTake()) {
+            firstSpoon.putDown();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void release(int seat) {
+        var firstSpoon = firstSpoon(seat);
+        var secondSpoon = secondSpoon(seat);
+        if (secondSpoon != firstSpoon) {
+            secondSpoon.putDown();
+        }
+        firstSpoon.putDown();
+    }
+
+    private Spoon firstSpoon(int seat) {
+        return spoons.get(Math.min(seat, (seat + 1) % spoons.size()));
+    }
+
+    private Spoon secondSpoon(int seat) {
+        return spoons.get(Math.max(seat, (seat + 1) % spoons.size()));
+    }
+}
@@ -0,0 +1,103 @@
+package org.labs.service.table;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Spoon states in a long array with a stride of two cache lines, so every spoon has lines of its own.
+ * <p>
+ * The spoons are taken one at a time with a CAS in the order of their indexes, which keeps the table deadlock-free.
+ * Unlike {@link BitmaskSpoonAcquisition}, taking a spoon never invalidates the state of the spoons around it,
+ * at the price of two CASes per meal. Waiting visitors spin briefly and then park with a growing timeout,
+ * since there is no owner to wake them up.
+ */
+public class PaddedSpoonAcquisition implements SpoonAcquisitionStrategy {
+    private static final int STRIDE = 16;
+    private static final long FREE = 0;
+    private static final long TAKEN = 1;
+    private static final int SPIN_TRIES = 64;
+    private static final long MIN_PARK_NANOSECONDS = 1_000;
+    private static final long MAX_PARK_NANOSECONDS = 1_000_000;
+    private static final VarHandle STATES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int seatsCount;
+    // Spoon i is at (i + 1) * STRIDE, the first and the last lines only pad the array
+    private final long[] states;
+
+    public PaddedSpoonAcquisition(int seatsCount) {
+        this.seatsCount = seatsCount;
+        this.states = new long[(seatsCount + 2) * STRIDE];
+    }
+
+    @Override
+    public void acquire(int seat) throws InterruptedException {
+        var firstSpoon = Math.min(seat, (seat + 1) % seatsCount);
+        var secondSpoon = Math.max(seat, (seat + 1) % seatsCount);
+        awaitSpoon(firstSpoon);
+        if (secondSpoon == firstSpoon) {
+            return;
+        }
+        try {
+            awaitSpoon(secondSpoon);
+        } catch (InterruptedException exception) {
+            putDown(firstSpoon);
+            throw exception;
+        }
+    }
+
+    @Override
+    public boolean tryAcquire(int seat) {
+        var firstSpoon = Math.min(seat, (seat + 1) % seatsCount);
+        var secondSpoon = Math.max(seat, (seat + 1) % seatsCount);
+        if (!tryTake(firstSpoon)) {
+            return false;
+        }
+        if (secondSpoon != firstSpoon && !tryTake(secondSpoon)) {
+            putDown(firstSpoon);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void release(int seat) {
+        var firstSpoon = Math.min(seat, (seat + 1) % seatsCount);
+        var secondSpoon = Math.max(seat, (seat + 1) % seatsCount);
+        if (secondSpoon != firstSpoon) {
+            putDown(secondSpoon);
+        }
+        putDown(firstSpoon);
+    }
+
+    private void awaitSpoon(int spoon) throws InterruptedException {
+        var tries = 0;
+        var parkNanoseconds = MIN_PARK_NANOSECONDS;
+        while (!tryTake(spoon)) {
+            if (tries++ < SPIN_TRIES) {
+                Thread.onSpinWait();
+                continue;
+            }
+            LockSupport.parkNanos(this, parkNanoseconds);
+            parkNanoseconds = Math.min(parkNanoseconds * 2, MAX_PARK_NANOSECONDS);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    // Reads before the CAS, so visitors waiting for a busy spoon keep its line shared
+    private boolean tryTake(int spoon) {
+        var index = index(spoon);
+        return (long) STATES.getVolatile(states, index) == FREE
+                && STATES.compareAndSet(states, index, FREE, TAKEN);
+    }
+
+    private void putDown(int spoon) {
+        STATES.setRelease(states, index(spoon), FREE);
+    }
+
+    private static int index(int spoon) {
+        return (spoon + 1) * STRIDE;
+    }
+}
@@ -0,0 +1,24 @@
+package org.labs.service.table;
+
+/**
+ * Arbitrates the spoons of a round table. The visitor at seat {@code i} eats with spoons {@code i}
+ * and {@code (i + 1) % seatsCount}.
+ */
+public interface SpoonAcquisitionStrategy {
+    /**
+     * Blocks until the visitor at the seat holds both of its spoons.
+     */
+    void acquire(int seat) throws InterruptedException;
+
+    /**
+     * Takes both spoons of the seat if it can be done without waiting.
+     *
+     * @return true if both spoons are now held by the seat, false if neither is.
+     */
+    boolean tryAcquire(int seat);
+
+    /**
+     * Puts down both spoons of the seat.
+     */
+    void release(int seat);
+}
@@ -0,0 +1,185 @@
+package org.labs.sweep;
+
+import org.labs.model.DelayDistribution;
+import org.labs.model.DurationRange;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+
+/**
+ * Text forms of a sweep report. Every result is a row with the swept parameters and the derived metrics.
+ */
+public enum SweepFormat {
+    /**
+     * Comma-separated values with a header line.
+     */
+    CSV {
+        @Override
+        public String header() {
+            return String.join(",", COLUMNS);
+        }
+
+        @Override
+        public String format(SweepResult result) {
+            var row = new StringBuilder();
+            var values = columnValues(result);
+            for (var i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    row.append(',');
+                }
+                if (values[i] != null) {
+                    row.append(values[i] instanceof String text ? quoteCsv(text) : formatNumber(values[i]));
+                }
+            }
+            return row.toString();
+        }
+
+        @Override
+        public String separator() {
+            return null;
+        }
+
+        @Override
+        public String footer() {
+            return null;
+        }
+    },
+    /**
+     * Array of objects keyed by the column names, one object per line.
+     */
+    JSON {
+        @Override
+        public String header() {
+            return "[";
+        }
+
+        @Override
+        public String format(SweepResult result) {
+            var row = new StringBuilder("  {");
+            var values = columnValues(result);
+            for (var i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    row.append(", ");
+                }
+                row.append(quoteJson(COLUMNS[i])).append(": ");
+                if (values[i] == null) {
+                    row.append("null");
+                } else {
+                    row.append(values[i] instanceof String text ? quoteJson(text) : formatNumber(values[i]));
+                }
+            }
+            return row.append('}').toString();
+        }
+
+        @Override
+        public String separator() {
+            return ",";
+        }
+
+        @Override
+        public String footer() {
+            return "]";
+        }
+    };
+
+    private static final String[] COLUMNS = {
+            "index", "visitors", "waiters", "portions", "tables", "execution_mode",
+            "discussion_delay_ms", "eating_delay_ms", "serving_delay_ms",
+            "eaten_portions", "duration_ms", "portions_per_second", "fairness_spread", "waiter_utilization",
+            "order_wait_p99_us", "failure"
+    };
+
+    /**
+     * @return the first line of the output, null if there is none.
+     */
+    public abstract String header();
+
+    public abstract String format(SweepResult result);
+
+    /**
+     * @return what ends every row but the last one, null if nothing.
+     */
+    public abstract String separator();
+
+    /**
+     * @return the last line of the output, null if there is none.
+     */
+    public abstract String footer();
+
+    // Values of the columns: numbers, strings, or null for the metrics of a failed dinner
+    private static Object[] columnValues(SweepResult result) {
+        var config = result.config();
+        var statistics = result.statistics();
+        var isSucceeded = statistics != null;
+        return new Object[] {
+                result.index(),
+                config.visitorsCount(),
+                config.waitersCount(),
+                config.soupPortionsCount(),
+                config.tablesCount(),
+                config.executionMode().kind().name(),
+                formatDelay(config.visitorsDiscussionDelay()),
+                formatDelay(config.visitorsEatingDelay()),
+                formatMillis(config.waitersServingDelay().toNanos()),
+                isSucceeded ? statistics.totalEatenCount() : null,
+                isSucceeded ? formatMillis(statistics.dinnerDuration().toNanos()) : null,
+                isSucceeded ? formatDecimal(result.portionsPerSecond(), 1) : null,
+                isSucceeded ? result.fairnessSpread() : null,
+                isSucceeded ? formatDecimal(result.waiterUtilization(), 4) : null,
+                isSucceeded ? statistics.orderWait().p99().toNanos() / 1_000 : null,
+                isSucceeded ? null : String.valueOf(result.failure())
+        };
+    }
+
+    // Uniform ranges keep their compact min-max form, other distributions are described by their records
+    private static String formatDelay(DelayDistribution delay) {
+        if (delay instanceof DurationRange range) {
+            return formatMillis(range.minDuration().toNanos()).toPlainString() + "-"
+                    + formatMillis(range.maxDuration().toNanos()).toPlainString();
+        }
+        return delay.toString();
+    }
+
+    private static BigDecimal formatMillis(long nanoseconds) {
+        return formatDecimal(nanoseconds / 1e6, 3);
+    }
+
+    private static BigDecimal formatDecimal(double value, int scale) {
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP).stripTrailingZeros();
+    }
+
+    // Plain decimal notation, which both formats read as a number
+    private static String formatNumber(Object number) {
+        return number instanceof BigDecimal decimal ? decimal.toPlainString() : number.toString();
+    }
+
+    private static String quoteCsv(String text) {
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private static String quoteJson(String text) {
+        var quoted = new StringBuilder("\"");
+        for (var i = 0; i < text.length(); i++) {
+            var symbol = text.charAt(i);
+            switch (symbol) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (symbol < 0x20) {
+                        quoted.append(String.format(Locale.ROOT, "\\u%04x", (int) symbol));
+                    } else {
+                        quoted.append(symbol);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
@@ -0,0 +1,95 @@
+package org.labs.sweep;
+
+import org.labs.config.DinnerConfig;
+import org.labs.model.DelayDistribution;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every combination of the swept values applied to the base config. An empty axis keeps the base value.
+ */
+public record SweepGrid(
+    DinnerConfig base,
+    List<Integer> visitorsCounts,
+    List<Integer> waitersCounts,
+    List<Long> soupPortionsCounts,
+    List<DelayDistribution> discussionDelays,
+    List<DelayDistribution> eatingDelays
+) {
+    public static Builder builder(DinnerConfig base) {
+        return new Builder(base);
+    }
+
+    /**
+     * @return configs of the grid, the last axis changing fastest.
+     */
+    public List<DinnerConfig> configs() {
+        var configs = new ArrayList<DinnerConfig>();
+        for (var visitorsCount : orBase(visitorsCounts, base.visitorsCount())) {
+            for (var waitersCount : orBase(waitersCounts, base.waitersCount())) {
+                for (var soupPortionsCount : orBase(soupPortionsCounts, base.soupPortionsCount())) {
+                    for (var discussionDelay : orBase(discussionDelays, base.visitorsDiscussionDelay())) {
+                        for (var eatingDelay : orBase(eatingDelays, base.visitorsEatingDelay())) {
+                            configs.add(base.toBuilder()
+                                    .visitorsCount(visitorsCount)
+                                    .waitersCount(waitersCount)
+                                    .soupPortionsCount(soupPortionsCount)
+                                    .visitorsDiscussionDelay(discussionDelay)
+                                    .visitorsEatingDelay(eatingDelay)
+                                    .build());
+                        }
+                    }
+                }
+            }
+        }
+        return configs;
+    }
+
+    private static <T> List<T> orBase(List<T> values, T baseValue) {
+        return values.isEmpty() ? List.of(baseValue) : values;
+    }
+
+    public static final class Builder {
+        private final DinnerConfig base;
+        private List<Integer> visitorsCounts = List.of();
+        private List<Integer> waitersCounts = List.of();
+        private List<Long> soupPortionsCounts = List.of();
+        private List<DelayDistribution> discussionDelays = List.of();
+        private List<DelayDistribution> eatingDelays = List.of();
+
+        private Builder(DinnerConfig base) {
+            this.base = base;
+        }
+
+        public Builder visitorsCounts(Integer... visitorsCounts) {
+            this.visitorsCounts = List.of(visitorsCounts);
+            return this;
+        }
+
+        public Builder waitersCounts(Integer... waitersCounts) {
+            this.waitersCounts = List.of(waitersCounts);
+            return this;
+        }
+
+        public Builder soupPortionsCounts(Long... soupPortionsCounts) {
+            this.soupPortionsCounts = List.of(soupPortionsCounts);
+            return this;
+        }
+
+        public Builder discussionDelays(DelayDistribution... discussionDelays) {
+            this.discussionDelays = List.of(discussionDelays);
+            return this;
+        }
+
+        public Builder eatingDelays(DelayDistribution... eatingDelays) {
+            this.eatingDelays = List.of(eatingDelays);
+            return this;
+        }
+
+        public SweepGrid build() {
+            return new SweepGrid(base, visitorsCounts, waitersCounts, soupPortionsCounts, discussionDelays,
+                    eatingDelays);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.labs.sweep;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes the results of a sweep as they arrive, so a long sweep can be watched and its finished part survives.
+ * Results may come from several threads.
+ */
+public class SweepReport implements Consumer<SweepResult> {
+    private final Appendable output;
+    private final SweepFormat format;
+    private boolean hasRows = false;
+
+    public SweepReport(Appendable output, SweepFormat format) {
+        this.output = output;
+        this.format = format;
+        writeLine(format.header());
+        flush();
+    }
+
+    @Override
+    public synchronized void accept(SweepResult result) {
+        if (hasRows && format.separator() != null) {
+            append(format.separator());
+        }
+        if (hasRows) {
+            append("\n");
+        }
+        append(format.format(result));
+        hasRows = true;
+        flush();
+    }
+
+    /**
+     * Completes the report. Should be called once every result has been written.
+     */
+    public synchronized void finish() {
+        if (hasRows) {
+            append("\n");
+        }
+        writeLine(format.footer());
+        flush();
+    }
+
+    private void writeLine(String line) {
+        if (line != null) {
+            append(line);
+            append("\n");
+        }
+    }
+
+    private void append(String text) {
+        try {
+            output.append(text);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not write the sweep report", exception);
+        }
+    }
+
+    private void flush() {
+        if (output instanceof Flushable flushable) {
+            try {
+                flushable.flush();
+            } catch (IOException exception) {
+                throw new UncheckedIOException("Could not write the sweep report", exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.labs.sweep;
+
+import org.labs.config.DinnerConfig;
+import org.labs.model.DinnerStatistics;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one dinner of a sweep.
+ *
+ * @param index position of the config in the sweep.
+ * @param statistics statistics of the dinner, null if it failed.
+ * @param waiterBusyTime time the waiters spent serving, zero if the engine does not measure it.
+ * @param failure why the dinner failed, null if it succeeded.
+ */
+public record SweepResult(
+    int index,
+    DinnerConfig config,
+    DinnerStatistics statistics,
+    Duration waiterBusyTime,
+    Throwable failure
+) {
+    public static SweepResult succeeded(int index, DinnerConfig config, DinnerStatistics statistics,
+                                        Duration waiterBusyTime) {
+        return new SweepResult(index, config, statistics, waiterBusyTime, null);
+    }
+
+    public static SweepResult failed(int index, DinnerConfig config, Throwable failure) {
+        return new SweepResult(index, config, null, Duration.ZERO, failure);
+    }
+
+    public boolean isSucceeded() {
+        return failure == null;
+    }
+
+    public double portionsPerSecond() {
+        if (statistics == null || statistics.dinnerDuration().isZero()) {
+            return 0;
+        }
+        return statistics.totalEatenCount() * 1e9 / statistics.dinnerDuration().toNanos();
+    }
+
+    /**
+     * @return difference between the largest and the least eaten counts.
+     */
+    public int fairnessSpread() {
+        if (statistics == null || statistics.eatenCounts().length == 0) {
+            return 0;
+        }
+        var minEaten = Integer.MAX_VALUE;
+        var maxEaten = 0;
+        for (var eatenCount : statistics.eatenCounts()) {
+            minEaten = Math.min(minEaten, eatenCount);
+            maxEaten = Math.max(maxEaten, eatenCount);
+        }
+        return maxEaten - minEaten;
+    }
+
+    /**
+     * @return share of the active waiters' time spent serving.
+     */
+    public double waiterUtilization() {
+        if (statistics == null) {
+            return 0;
+        }
+        var availableNanoseconds = statistics.averageActiveWaiters() * statistics.dinnerDuration().toNanos();
+        return availableNanoseconds <= 0 ? 0 : Math.min(1, waiterBusyTime.toNanos() / availableNanoseconds);
+    }
+}
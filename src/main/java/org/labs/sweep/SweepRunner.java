@@ -0,0 +1,137 @@
+package org.labs.sweep;
+
+import org.labs.DinnerSimulation;
+import org.labs.config.DinnerConfig;
+import org.labs.config.ExecutionMode;
+import org.labs.config.MetricsConfig;
+import org.labs.config.TimeMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Runs the dinners of a sweep concurrently within a budget of CPUs.
+ * <p>
+ * Every dinner is charged the CPUs it may keep busy: one for the logical clock, the scheduler pool for
+ * the async engine, and a CPU per programmer and waiter thread for the threaded dinner, each capped by the budget.
+ * Dinners start in the order of the sweep once their CPUs are free. Every dinner creates and closes its own
+ * executors, so dinners never share threads, and dinners which would share a journal or checkpoint file are rejected.
+ */
+public class SweepRunner {
+    private static final Logger logger = LoggerFactory.getLogger(SweepRunner.class);
+
+    private final int cpuBudget;
+
+    public SweepRunner(int cpuBudget) {
+        if (cpuBudget < 1) {
+            throw new IllegalArgumentException("CPU budget should be positive: " + cpuBudget);
+        }
+        this.cpuBudget = cpuBudget;
+    }
+
+    public static SweepRunner withAvailableProcessors() {
+        return new SweepRunner(Runtime.getRuntime().availableProcessors());
+    }
+
+    public List<SweepResult> run(SweepGrid grid, Consumer<SweepResult> listener) throws InterruptedException {
+        return run(grid.configs(), listener);
+    }
+
+    /**
+     * Runs every dinner and passes its result to the listener as soon as it completes.
+     * A failed dinner is reported as a failed result and does not stop the others.
+     *
+     * @return results in the order of the configs.
+     */
+    public List<SweepResult> run(List<DinnerConfig> configs, Consumer<SweepResult> listener)
+            throws InterruptedException {
+        checkSharedFiles(configs);
+        var results = new SweepResult[configs.size()];
+        var freeCpus = new Semaphore(cpuBudget, true);
+        var executor = Executors.newThreadPerTaskExecutor(Thread.ofPlatform().name("dinner-sweep-", 1).factory());
+        try {
+            for (var i = 0; i < configs.size(); i++) {
+                var index = i;
+                var config = configs.get(i);
+                var cpus = cpusOf(config);
+                freeCpus.acquire(cpus);
+                executor.execute(() -> {
+                    SweepResult result;
+                    try {
+                        result = simulate(index, config);
+                    } finally {
+                        freeCpus.release(cpus);
+                    }
+                    results[index] = result;
+                    synchronized (listener) {
+                        listener.accept(result);
+                    }
+                });
+            }
+        } catch (InterruptedException exception) {
+            executor.shutdownNow();
+            throw exception;
+        } finally {
+            // Waits for the started dinners
+            executor.close();
+        }
+        return Arrays.asList(results);
+    }
+
+    private int cpusOf(DinnerConfig config) {
+        int cpus;
+        if (config.timeMode() == TimeMode.LOGICAL) {
+            cpus = 1;
+        } else if (config.executionMode().kind() == ExecutionMode.Kind.ASYNC) {
+            cpus = Runtime.getRuntime().availableProcessors();
+        } else {
+            cpus = config.visitorsCount() + config.waitersCount();
+        }
+        return Math.max(1, Math.min(cpus, cpuBudget));
+    }
+
+    private static SweepResult simulate(int index, DinnerConfig config) {
+        try {
+            // The waiters' busy time is only measured by recorded metrics
+            var simulation = new DinnerSimulation(config.metricsConfig().enabled()
+                    ? config
+                    : config.toBuilder().metricsConfig(MetricsConfig.recorded()).build());
+            var statistics = simulation.simulateDinner();
+            return SweepResult.succeeded(index, config, statistics, simulation.getMetrics().snapshot().waiterBusyTime());
+        } catch (ExecutionException exception) {
+            logger.warn("Dinner {} of the sweep has failed", index, exception.getCause());
+            return SweepResult.failed(index, config, exception.getCause());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return SweepResult.failed(index, config, exception);
+        } catch (RuntimeException exception) {
+            logger.warn("Dinner {} of the sweep has failed", index, exception);
+            return SweepResult.failed(index, config, exception);
+        }
+    }
+
+    private static void checkSharedFiles(List<DinnerConfig> configs) {
+        var files = new HashSet<Path>();
+        var sharedFiles = new ArrayList<Path>();
+        for (var config : configs) {
+            if (config.eventJournal().enabled() && !files.add(config.eventJournal().path().toAbsolutePath())) {
+                sharedFiles.add(config.eventJournal().path());
+            }
+            if (config.checkpoint().enabled() && !files.add(config.checkpoint().path().toAbsolutePath())) {
+                sharedFiles.add(config.checkpoint().path());
+            }
+        }
+        if (!sharedFiles.isEmpty()) {
+            throw new IllegalArgumentException("Dinners of a sweep cannot share files: " + sharedFiles);
+        }
+    }
+}
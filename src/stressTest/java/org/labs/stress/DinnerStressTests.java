@@ -0,0 +1,194 @@
+package org.labs.stress;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.labs.DinnerSimulation;
+import org.labs.config.DinnerConfig;
+import org.labs.config.ExecutionMode;
+import org.labs.config.TimeMode;
+import org.labs.config.TrayService;
+import org.labs.model.DinnerStatistics;
+import org.labs.model.DurationRange;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dinners with a million portions and up to a hundred thousand visitors. Every dinner must finish
+ * within its timeout, serve exactly the initial portions and keep the eaten counts close,
+ * and its throughput must not regress against the recorded baseline.
+ */
+class DinnerStressTests {
+    private static final long MILLION_PORTIONS = 1_000_000;
+    private static final DurationRange NO_DELAY = new DurationRange(Duration.ZERO, Duration.ZERO);
+    private static final DurationRange NEAR_ZERO_DELAY = new DurationRange(Duration.ZERO, Duration.ofNanos(20_000));
+
+    private static final ThroughputBaselines baselines = ThroughputBaselines.load();
+
+    @AfterAll
+    static void saveBaselines() {
+        baselines.save();
+    }
+
+    @ParameterizedTest
+    @Timeout(300)
+    @ValueSource(ints = { 1, 2, 7 })
+    void millionPortionsWithoutDelaysShouldBeServedExactlyTest(int waitersCount)
+            throws InterruptedException, ExecutionException {
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(7)
+                .waitersCount(waitersCount)
+                .soupPortionsCount(MILLION_PORTIONS)
+                .visitorsDiscussionDelay(NO_DELAY)
+                .visitorsEatingDelay(NO_DELAY)
+                .build();
+
+        var statistics = simulate("seven-visitors-" + waitersCount + "-waiters", dinnerConfig);
+
+        assertFairWithin(statistics, 0.05);
+    }
+
+    @ParameterizedTest
+    @Timeout(300)
+    @ValueSource(ints = { 1_000, 10_000 })
+    void thousandsOfVirtualVisitorsShouldEatMillionPortionsTest(int visitorsCount)
+            throws InterruptedException, ExecutionException {
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(visitorsCount)
+                .waitersCount(32)
+                .soupPortionsCount(MILLION_PORTIONS)
+                .visitorsDiscussionDelay(NEAR_ZERO_DELAY)
+                .visitorsEatingDelay(NEAR_ZERO_DELAY)
+                .executionMode(ExecutionMode.virtual())
+                .build();
+
+        var statistics = simulate("virtual-" + visitorsCount + "-visitors", dinnerConfig);
+
+        // Thousands of virtual threads on a few carriers are scheduled in bursts
+        assertFairWithin(statistics, 0.2);
+    }
+
+    @Test
+    @Timeout(300)
+    void manyWaitersWithTraysShouldServeMillionPortionsTest() throws InterruptedException, ExecutionException {
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(200)
+                .waitersCount(64)
+                .soupPortionsCount(MILLION_PORTIONS)
+                .visitorsDiscussionDelay(NO_DELAY)
+                .visitorsEatingDelay(NO_DELAY)
+                .portionReservationBatchSize(16)
+                .trayService(TrayService.trays(8, Duration.ZERO, Duration.ZERO))
+                .build();
+
+        var statistics = simulate("many-waiters-trays", dinnerConfig);
+
+        assertFairWithin(statistics, 0.05);
+    }
+
+    @Test
+    @Timeout(300)
+    void shardedDinnerShouldServeMillionPortionsTest() throws InterruptedException, ExecutionException {
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(1_000)
+                .waitersCount(32)
+                .tablesCount(8)
+                .soupPortionsCount(MILLION_PORTIONS)
+                .visitorsDiscussionDelay(NEAR_ZERO_DELAY)
+                .visitorsEatingDelay(NEAR_ZERO_DELAY)
+                .executionMode(ExecutionMode.virtual())
+                .build();
+
+        var statistics = simulate("sharded-8-tables", dinnerConfig);
+
+        assertFairWithin(statistics, 0.05);
+    }
+
+    @Test
+    @Timeout(300)
+    void asyncDinnerOfHundredThousandVisitorsShouldServeMillionPortionsTest()
+            throws InterruptedException, ExecutionException {
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(100_000)
+                .waitersCount(64)
+                .soupPortionsCount(MILLION_PORTIONS)
+                .visitorsDiscussionDelay(NO_DELAY)
+                .visitorsEatingDelay(NO_DELAY)
+                .executionMode(ExecutionMode.async())
+                .build();
+
+        var statistics = simulate("async-100000-visitors", dinnerConfig);
+
+        assertFairWithin(statistics, 0.2);
+    }
+
+    @Test
+    @Timeout(300)
+    void logicalTimeDinnerOfHundredThousandVisitorsShouldServeTenMillionPortionsTest()
+            throws InterruptedException, ExecutionException {
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(100_000)
+                .waitersCount(64)
+                .soupPortionsCount(10 * MILLION_PORTIONS)
+                .waitersServingDelay(Duration.ofNanos(1_000))
+                .visitorsDiscussionDelay(NEAR_ZERO_DELAY)
+                .visitorsEatingDelay(NEAR_ZERO_DELAY)
+                .timeMode(TimeMode.LOGICAL)
+                .build();
+
+        var statistics = simulate("logical-100000-visitors", dinnerConfig);
+
+        assertFairWithin(statistics, 0.05);
+    }
+
+    @Test
+    @Timeout(300)
+    void fairnessDeltaShouldHoldOverMillionPortionsTest() throws InterruptedException, ExecutionException {
+        var fairnessDelta = 2;
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(1_000)
+                .waitersCount(16)
+                .soupPortionsCount(MILLION_PORTIONS)
+                .visitorsDiscussionDelay(NEAR_ZERO_DELAY)
+                .visitorsEatingDelay(NEAR_ZERO_DELAY)
+                .executionMode(ExecutionMode.virtual())
+                .fairnessDelta(fairnessDelta)
+                .build();
+
+        var statistics = simulate("fairness-delta-2", dinnerConfig);
+
+        var minEaten = Arrays.stream(statistics.eatenCounts()).min().orElse(0);
+        var maxEaten = Arrays.stream(statistics.eatenCounts()).max().orElse(0);
+        assertTrue(maxEaten - minEaten <= fairnessDelta + 1,
+                "Eaten counts differ from " + minEaten + " to " + maxEaten);
+    }
+
+    // Runs the dinner, checks the portion accounting and the throughput of the scenario
+    private static DinnerStatistics simulate(String scenario, DinnerConfig dinnerConfig)
+            throws InterruptedException, ExecutionException {
+        var statistics = new DinnerSimulation(dinnerConfig).simulateDinner();
+
+        assertEquals(0, statistics.remainingPortionsInKitchen(), "All soup portions should be eaten");
+        assertEquals(dinnerConfig.soupPortionsCount(), statistics.totalEatenCount(),
+                "Every portion should be eaten exactly once");
+        var portionsPerSecond = statistics.totalEatenCount() / (statistics.dinnerDuration().toNanos() / 1e9);
+        baselines.check(scenario, portionsPerSecond);
+        return statistics;
+    }
+
+    // The spread of eaten counts should stay within the share of the portions per visitor
+    private static void assertFairWithin(DinnerStatistics statistics, double share) {
+        var eatenCounts = statistics.eatenCounts();
+        var minEaten = Arrays.stream(eatenCounts).min().orElse(0);
+        var maxEaten = Arrays.stream(eatenCounts).max().orElse(0);
+        var portionsPerVisitor = statistics.totalEatenCount() / (double) eatenCounts.length;
+        assertTrue(maxEaten - minEaten <= Math.max(2, share * portionsPerVisitor),
+                "Eaten counts differ from " + minEaten + " to " + maxEaten);
+    }
+}
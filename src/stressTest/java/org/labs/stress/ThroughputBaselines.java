@@ -0,0 +1,97 @@
+package org.labs.stress;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Portions per second recorded for every stress scenario. A scenario fails when its throughput falls
+ * below the baseline by more than the tolerance. Scenarios without a baseline only report their throughput.
+ * <p>
+ * The baselines are read from the file named by the {@code stress.baselines} property, or from the classpath.
+ * With {@code stress.recordBaselines} the measured throughput replaces the baselines instead of being checked.
+ */
+final class ThroughputBaselines {
+    private static final Logger logger = LoggerFactory.getLogger(ThroughputBaselines.class);
+    private static final String RESOURCE_NAME = "/throughput-baselines.properties";
+
+    private final Properties baselines = new Properties();
+    private final Path path;
+    private final boolean isRecording;
+    private final double tolerance;
+
+    private ThroughputBaselines(Path path, boolean isRecording, double tolerance) {
+        this.path = path;
+        this.isRecording = isRecording;
+        this.tolerance = tolerance;
+    }
+
+    static ThroughputBaselines load() {
+        var pathProperty = System.getProperty("stress.baselines");
+        var baselines = new ThroughputBaselines(
+                pathProperty == null ? null : Path.of(pathProperty),
+                Boolean.getBoolean("stress.recordBaselines"),
+                Double.parseDouble(System.getProperty("stress.tolerance", "0.3"))
+        );
+        try {
+            if (baselines.path != null && Files.exists(baselines.path)) {
+                try (Reader reader = Files.newBufferedReader(baselines.path)) {
+                    baselines.baselines.load(reader);
+                }
+            } else {
+                try (InputStream stream = ThroughputBaselines.class.getResourceAsStream(RESOURCE_NAME)) {
+                    if (stream != null) {
+                        baselines.baselines.load(stream);
+                    }
+                }
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return baselines;
+    }
+
+    /**
+     * Checks the throughput of the scenario against its baseline, or records it.
+     */
+    synchronized void check(String scenario, double portionsPerSecond) {
+        logger.info("{}: {} portions/s", scenario, Math.round(portionsPerSecond));
+        if (isRecording) {
+            baselines.setProperty(scenario, String.format(Locale.ROOT, "%.0f", portionsPerSecond));
+            return;
+        }
+        var baseline = baselines.getProperty(scenario);
+        if (baseline == null) {
+            return;
+        }
+        var minimum = Double.parseDouble(baseline) * (1 - tolerance);
+        assertTrue(portionsPerSecond >= minimum, String.format(Locale.ROOT,
+                "Throughput of %s regressed: %.0f portions/s against the baseline of %s portions/s",
+                scenario, portionsPerSecond, baseline));
+    }
+
+    /**
+     * Writes the recorded baselines, if they are being recorded.
+     */
+    synchronized void save() {
+        if (!isRecording || path == null) {
+            return;
+        }
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            baselines.store(writer, "Portions per second of the stress scenarios");
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -1,11 +1,43 @@
 package org.labs;
 
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.labs.config.DinnerConfig;
+import org.labs.config.ExecutionMode;
+import org.labs.config.KitchenCounterType;
+import org.labs.config.MetricsConfig;
+import org.labs.config.OrderDispatcherType;
+import org.labs.config.PortionWaitStrategy;
+import org.labs.config.ServiceTier;
+import org.labs.config.ServiceTiers;
+import org.labs.config.SharedKitchenConfig;
+import org.labs.config.SpoonAcquisitionType;
+import org.labs.config.TimeMode;
+import org.labs.config.TrayService;
+import org.labs.config.WaiterStaffing;
+import org.labs.metrics.LatencySummary;
+import org.labs.metrics.MetricsSnapshot;
+import org.labs.model.DelayDistribution;
+import org.labs.model.DinnerStatistics;
 import org.labs.model.DurationRange;
+import org.labs.model.VisitorDelays;
+import org.labs.service.kitchen.AtomicPortionCounter;
+import org.labs.service.kitchen.KitchenServer;
 
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -77,4 +109,596 @@ class DinnerSimulationTests {
         assertTrue(Double.compare(percentageDifference, 5) <= 0,
                 "Percentage difference between min and max eaten count should be less than or equal to " + 0.5);
     }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void portionWaitCpuTimeShouldOnlyBeMeasuredOnRequestTest(boolean cpuTimeMeasured)
+            throws InterruptedException, ExecutionException {
+        var strategy = PortionWaitStrategy.spin();
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(3)
+                .waitersCount(1)
+                .soupPortionsCount(200)
+                .waitersServingDelay(Duration.ofNanos(100_000))
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ZERO))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ZERO))
+                .portionWaitStrategy(cpuTimeMeasured ? strategy.withCpuTimeMeasured() : strategy)
+                .build();
+
+        var statistics = new DinnerSimulation(dinnerConfig).simulateDinner();
+
+        assertEquals(cpuTimeMeasured, statistics.portionWaitCpuTime().isPositive(),
+                "CPU time of the waits: " + statistics.portionWaitCpuTime());
+    }
+
+    @ParameterizedTest
+    @EnumSource(PortionWaitStrategy.Kind.class)
+    void allPortionsShouldBeEatenWithEveryPortionWaitStrategyTest(PortionWaitStrategy.Kind strategyKind)
+            throws InterruptedException, ExecutionException {
+        var initialPortionsCount = 1000;
+        var strategy = switch (strategyKind) {
+            case SPIN -> PortionWaitStrategy.spin();
+            case SPIN_THEN_PARK -> PortionWaitStrategy.spinThenPark();
+            case PARK -> PortionWaitStrategy.park();
+        };
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(7)
+                .waitersCount(2)
+                .soupPortionsCount(initialPortionsCount)
+                .waitersServingDelay(Duration.ofMillis(1))
+                .visitorsDiscussionDelay(new DurationRange(Duration.ofMillis(1), Duration.ofMillis(5)))
+                .visitorsEatingDelay(new DurationRange(Duration.ofMillis(1), Duration.ofMillis(5)))
+                .portionWaitStrategy(strategy)
+                .build();
+        var dinnerSimulation = new DinnerSimulation(dinnerConfig);
+        var statistics = dinnerSimulation.simulateDinner();
+
+        var programmersEaten = statistics.visitorIdToEatenCount().values().stream()
+                .mapToInt(Integer::intValue).sum();
+
+        assertEquals(0, statistics.remainingPortionsInKitchen(),
+                "All soup portions should be eaten");
+        assertEquals(initialPortionsCount, programmersEaten,
+                "Programmers eaten portions sum should be equal to the initial portions count");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 4, 32 })
+    void batchedReservationShouldServeExactlyInitialPortionsTest(int batchSize)
+            throws InterruptedException, ExecutionException {
+        var initialPortionsCount = 1001;
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(7)
+                .waitersCount(3)
+                .soupPortionsCount(initialPortionsCount)
+                .waitersServingDelay(Duration.ofMillis(1))
+                .visitorsDiscussionDelay(new DurationRange(Duration.ofMillis(1), Duration.ofMillis(5)))
+                .visitorsEatingDelay(new DurationRange(Duration.ofMillis(1), Duration.ofMillis(5)))
+                .kitchenCounterType(KitchenCounterType.STRIPED)
+                .portionReservationBatchSize(batchSize)
+                .build();
+        var dinnerSimulation = new DinnerSimulation(dinnerConfig);
+        var statistics = dinnerSimulation.simulateDinner();
+
+        var programmersEaten = statistics.visitorIdToEatenCount().values().stream()
+                .mapToInt(Integer::intValue).sum();
+
+        assertEquals(0, statistics.remainingPortionsInKitchen(),
+                "All soup portions should be eaten");
+        assertEquals(initialPortionsCount, programmersEaten,
+                "Programmers eaten portions sum should be equal to the initial portions count");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 7, 100, 10_000 })
+    void logicalTimeDinnerShouldServeMillionPortionsFairlyTest(int visitorsCount) {
+        var initialPortionsCount = 1_000_000;
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(visitorsCount)
+                .waitersCount(5)
+                .soupPortionsCount(initialPortionsCount)
+                .waitersServingDelay(Duration.ofMillis(1))
+                .visitorsDiscussionDelay(new DurationRange(Duration.ofMillis(1), Duration.ofMillis(20)))
+                .visitorsEatingDelay(new DurationRange(Duration.ofMillis(1), Duration.ofMillis(20)))
+                .timeMode(TimeMode.LOGICAL)
+                .build();
+        var statistics = assertDoesNotThrow(() -> new DinnerSimulation(dinnerConfig).simulateDinner());
+
+        var programmersEaten = statistics.visitorIdToEatenCount().values().stream()
+                .mapToInt(Integer::intValue).sum();
+
+        assertEquals(0, statistics.remainingPortionsInKitchen(),
+                "All soup portions should be eaten");
+        assertEquals(initialPortionsCount, programmersEaten,
+                "Programmers eaten portions sum should be equal to the initial portions count");
+        // Seats of the logical dinner eat at steadily different rates, so the bound leaves room for the seat spread
+        assertFairWithin(statistics, 0.6);
+        assertTrue(statistics.simulatedDuration().compareTo(statistics.dinnerDuration()) > 0,
+                "Simulated dinner should take longer than its real-time simulation");
+    }
+
+    @ParameterizedTest
+    @EnumSource(SpoonAcquisitionType.class)
+    void allPortionsShouldBeEatenWithEverySpoonAcquisitionTypeTest(SpoonAcquisitionType acquisitionType)
+            throws InterruptedException, ExecutionException {
+        var initialPortionsCount = 2000;
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(70)
+                .waitersCount(4)
+                .soupPortionsCount(initialPortionsCount)
+                .waitersServingDelay(Duration.ZERO)
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(2)))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(2)))
+                .spoonAcquisitionType(acquisitionType)
+                .build();
+
+        var statistics = new DinnerSimulation(dinnerConfig).simulateDinner();
+
+        assertEquals(0, statistics.remainingPortionsInKitchen());
+        assertEquals(initialPortionsCount, statistics.totalEatenCount());
+    }
+
+    @Test
+    void metricsShouldOnlyBeRecordedWhenEnabledTest() throws InterruptedException, ExecutionException {
+        var initialPortionsCount = 500;
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(5)
+                .waitersCount(2)
+                .soupPortionsCount(initialPortionsCount)
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ZERO))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ZERO))
+                .build();
+
+        var unrecorded = new DinnerSimulation(dinnerConfig);
+        unrecorded.simulateDinner();
+        var recorded = new DinnerSimulation(dinnerConfig.toBuilder().metricsConfig(MetricsConfig.recorded()).build());
+        recorded.simulateDinner();
+
+        assertEquals(0, unrecorded.getMetrics().portionsServed());
+        assertEquals(initialPortionsCount, recorded.getMetrics().portionsServed());
+    }
+
+    @Test
+    void liveMetricsShouldBeReportedWhileDinnerRunsTest() throws Exception {
+        var initialPortionsCount = 500;
+        var snapshots = new CopyOnWriteArrayList<MetricsSnapshot>();
+        var mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        var metricsNames = new ObjectName("org.labs:type=DinnerMetrics,*");
+        var registeredMBeansCounts = new CopyOnWriteArrayList<Integer>();
+
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(7)
+                .waitersCount(2)
+                .soupPortionsCount(initialPortionsCount)
+                .waitersServingDelay(Duration.ofMillis(1))
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(5)))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(5)))
+                .metricsConfig(new MetricsConfig(true, Duration.ofMillis(20), snapshot -> {
+                    snapshots.add(snapshot);
+                    registeredMBeansCounts.add(mBeanServer.queryNames(metricsNames, null).size());
+                }))
+                .build();
+
+        new DinnerSimulation(dinnerConfig).simulateDinner();
+
+        assertTrue(snapshots.size() > 1, "Snapshots should be reported while the dinner runs");
+        assertTrue(registeredMBeansCounts.getFirst() > 0, "Metrics MBean should be registered while the dinner runs");
+        assertEquals(0, mBeanServer.queryNames(metricsNames, null).size());
+
+        var lastSnapshot = snapshots.getLast();
+        assertEquals(initialPortionsCount, lastSnapshot.portionsServed());
+        assertEquals(initialPortionsCount, lastSnapshot.orderLatency().count());
+        assertEquals(initialPortionsCount, lastSnapshot.spoonWait().count());
+        assertTrue(lastSnapshot.waiterBusyRatio() > 0 && lastSnapshot.waiterBusyRatio() < 1);
+        for (var meanOrderLatency : lastSnapshot.meanOrderLatencyNanoseconds()) {
+            assertTrue(meanOrderLatency > 0);
+        }
+    }
+
+    @Test
+    void logicalTimeDinnerShouldRejectSettingsItDoesNotModelTest() {
+        var logicalConfig = DinnerConfig.builder()
+                .visitorsCount(7)
+                .waitersCount(2)
+                .soupPortionsCount(100)
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(2)))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(2)))
+                .timeMode(TimeMode.LOGICAL)
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> new DinnerSimulation(logicalConfig.toBuilder()
+                .trayService(TrayService.trays(4, Duration.ZERO, Duration.ZERO))
+                .build()));
+        assertThrows(IllegalArgumentException.class, () -> new DinnerSimulation(logicalConfig.toBuilder()
+                .spoonAcquisitionType(SpoonAcquisitionType.BITMASK)
+                .build()));
+        assertThrows(IllegalArgumentException.class, () -> new DinnerSimulation(logicalConfig.toBuilder()
+                .fairnessDelta(2)
+                .build()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(TimeMode.class)
+    void latencyHistogramsShouldCoverEveryPortionTest(TimeMode timeMode)
+            throws InterruptedException, ExecutionException {
+        var initialPortionsCount = 1000;
+        var servingDelay = Duration.ofMillis(1);
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(7)
+                .waitersCount(2)
+                .soupPortionsCount(initialPortionsCount)
+                .waitersServingDelay(servingDelay)
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(2)))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(2)))
+                .timeMode(timeMode)
+                .build();
+
+        var statistics = new DinnerSimulation(dinnerConfig).simulateDinner();
+
+        for (var summary : new LatencySummary[] {
+                statistics.orderWait(), statistics.spoonWait(), statistics.serviceTime() }) {
+            assertEquals(initialPortionsCount, summary.count());
+            assertTrue(summary.p50().compareTo(summary.p90()) <= 0);
+            assertTrue(summary.p90().compareTo(summary.p99()) <= 0);
+            assertTrue(summary.p99().compareTo(summary.p999()) <= 0);
+            assertTrue(summary.p999().compareTo(summary.max()) <= 0);
+        }
+        assertTrue(statistics.serviceTime().p50().compareTo(servingDelay) >= 0);
+        assertTrue(statistics.orderWait().p50().compareTo(servingDelay) >= 0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 2, 3, 5 })
+    void shardedDinnerShouldStayFairAcrossTablesTest(int tablesCount)
+            throws InterruptedException, ExecutionException {
+        var initialPortionsCount = 10_000;
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(23)
+                .waitersCount(5)
+                .soupPortionsCount(initialPortionsCount)
+                .waitersServingDelay(Duration.ofNanos(5))
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(2)))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(2)))
+                .tablesCount(tablesCount)
+                .build();
+
+        var statistics = new DinnerSimulation(dinnerConfig).simulateDinner();
+
+        assertEquals(0, statistics.remainingPortionsInKitchen());
+        assertEquals(initialPortionsCount, statistics.totalEatenCount());
+        // A table left without portions would put its visitors a whole share behind
+        assertFairWithin(statistics, 0.5);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 4, 16 })
+    void trayWaitersShouldServeExactlyInitialPortionsTest(int traySize)
+            throws InterruptedException, ExecutionException {
+        var initialPortionsCount = 3001;
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(40)
+                .waitersCount(3)
+                .soupPortionsCount(initialPortionsCount)
+                .waitersServingDelay(Duration.ofNanos(5))
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(2)))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(2)))
+                .trayService(TrayService.trays(traySize, Duration.ofNanos(5), Duration.ofNanos(1)))
+                .build();
+
+        var statistics = new DinnerSimulation(dinnerConfig).simulateDinner();
+
+        assertEquals(0, statistics.remainingPortionsInKitchen());
+        assertEquals(initialPortionsCount, statistics.totalEatenCount());
+        assertEquals(initialPortionsCount, statistics.serviceTime().count());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2 })
+    void elasticWaitersShouldStayWithinBoundsAndServeAllPortionsTest(int tablesCount)
+            throws InterruptedException, ExecutionException {
+        var initialPortionsCount = 2000;
+        var maxWaiters = 8;
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(60)
+                .waitersCount(maxWaiters)
+                .soupPortionsCount(initialPortionsCount)
+                .waitersServingDelay(Duration.ofMillis(1))
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(3)))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(3)))
+                .tablesCount(tablesCount)
+                .waiterStaffing(WaiterStaffing.elastic(tablesCount))
+                .build();
+
+        var statistics = new DinnerSimulation(dinnerConfig).simulateDinner();
+
+        assertEquals(0, statistics.remainingPortionsInKitchen());
+        assertEquals(initialPortionsCount, statistics.totalEatenCount());
+        var samples = statistics.activeWaiters();
+        assertEquals(tablesCount, samples.getFirst().activeWaiters(), "The dinner should start with the minimum");
+        for (var sample : samples) {
+            assertTrue(sample.activeWaiters() >= tablesCount && sample.activeWaiters() <= maxWaiters,
+                    "Active waiters out of bounds: " + sample.activeWaiters());
+        }
+        assertTrue(samples.stream().anyMatch(sample -> sample.activeWaiters() > tablesCount),
+                "Waiters should be called when orders pile up");
+    }
+
+    @ParameterizedTest
+    @EnumSource(SpoonAcquisitionType.class)
+    void asyncDinnerShouldServeTenThousandVisitorsFairlyTest(SpoonAcquisitionType acquisitionType)
+            throws InterruptedException, ExecutionException {
+        var visitorsCount = 10_000;
+        var initialPortionsCount = 5L * visitorsCount;
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(visitorsCount)
+                .waitersCount(8)
+                .soupPortionsCount(initialPortionsCount)
+                .waitersServingDelay(Duration.ZERO)
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(2)))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(2)))
+                .executionMode(ExecutionMode.async())
+                .spoonAcquisitionType(acquisitionType)
+                .build();
+
+        var statistics = new DinnerSimulation(dinnerConfig).simulateDinner();
+
+        assertEquals(0, statistics.remainingPortionsInKitchen());
+        assertEquals(initialPortionsCount, statistics.totalEatenCount());
+        assertEquals(initialPortionsCount, statistics.orderWait().count());
+        assertFairWithin(statistics, 0.05);
+    }
+
+    @ParameterizedTest
+    @Timeout(60)
+    @EnumSource(OrderDispatcherType.class)
+    void asyncDinnerShouldServeEveryPortionWithEveryOrderDispatcherTest(OrderDispatcherType dispatcherType)
+            throws InterruptedException, ExecutionException {
+        var visitorsCount = 1_000;
+        var initialPortionsCount = 20L * visitorsCount;
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(visitorsCount)
+                .waitersCount(4)
+                .soupPortionsCount(initialPortionsCount)
+                .waitersServingDelay(Duration.ZERO)
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(1)))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(1)))
+                .executionMode(ExecutionMode.async())
+                .orderDispatcherType(dispatcherType)
+                .build();
+
+        var statistics = new DinnerSimulation(dinnerConfig).simulateDinner();
+
+        assertEquals(0, statistics.remainingPortionsInKitchen());
+        assertEquals(initialPortionsCount, statistics.totalEatenCount());
+        assertEquals(initialPortionsCount, statistics.orderWait().count());
+    }
+
+    @Test
+    void asyncDinnerShouldRejectSettingsItDoesNotModelTest() {
+        var asyncConfig = DinnerConfig.builder()
+                .visitorsCount(7)
+                .waitersCount(4)
+                .soupPortionsCount(100)
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(2)))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(2)))
+                .executionMode(ExecutionMode.async())
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> new DinnerSimulation(asyncConfig.toBuilder()
+                .tablesCount(2)
+                .build()));
+        assertThrows(IllegalArgumentException.class, () -> new DinnerSimulation(asyncConfig.toBuilder()
+                .portionReservationBatchSize(4)
+                .build()));
+        assertThrows(IllegalArgumentException.class, () -> new DinnerSimulation(asyncConfig.toBuilder()
+                .waiterStaffing(WaiterStaffing.elastic(1))
+                .build()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 3 })
+    void fairnessDeltaShouldBoundEatenCountsOfFastAndSlowEatersTest(int fairnessDelta)
+            throws InterruptedException, ExecutionException {
+        var visitorsCount = 10;
+        var initialPortionsCount = 2000;
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(visitorsCount)
+                .waitersCount(2)
+                .soupPortionsCount(initialPortionsCount)
+                .waitersServingDelay(Duration.ZERO)
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ZERO))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ZERO))
+                .fairnessDelta(fairnessDelta)
+                .build();
+        // Half of the visitors eat instantly, so without the bound they would eat most of the soup
+        var noDelay = new DurationRange(Duration.ZERO, Duration.ZERO);
+        var slowEating = new DurationRange(Duration.ofMillis(1), Duration.ofMillis(2));
+        var random = new SplittableRandom(dinnerConfig.seed());
+        var delays = new ArrayList<VisitorDelays>(visitorsCount);
+        for (var i = 0; i < visitorsCount; i++) {
+            delays.add(VisitorDelays.random(noDelay, i % 2 == 0 ? noDelay : slowEating, random.split()));
+        }
+
+        var statistics = new DinnerSimulation(dinnerConfig, delays).simulateDinner();
+
+        assertEquals(0, statistics.remainingPortionsInKitchen());
+        assertEquals(initialPortionsCount, statistics.totalEatenCount());
+        var minEaten = Arrays.stream(statistics.eatenCounts()).min().orElse(0);
+        var maxEaten = Arrays.stream(statistics.eatenCounts()).max().orElse(0);
+        // A visitor may eat one portion more than its last order reported
+        assertTrue(maxEaten - minEaten <= fairnessDelta + 1,
+                "Eaten counts differ from " + minEaten + " to " + maxEaten);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 2, 3 })
+    void fairnessDeltaShouldBoundEatenCountsWithinEveryTableTest(int tablesCount)
+            throws InterruptedException, ExecutionException {
+        var fairnessDelta = 1;
+        var visitorsPerTable = 6;
+        var visitorsCount = visitorsPerTable * tablesCount;
+        var initialPortionsCount = 600 * tablesCount;
+        var noDelay = new DurationRange(Duration.ZERO, Duration.ZERO);
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(visitorsCount)
+                .waitersCount(2 * tablesCount)
+                .soupPortionsCount(initialPortionsCount)
+                .waitersServingDelay(Duration.ZERO)
+                .visitorsDiscussionDelay(noDelay)
+                .visitorsEatingDelay(noDelay)
+                .tablesCount(tablesCount)
+                .fairnessDelta(fairnessDelta)
+                .build();
+        // Fast and slow eaters sit at every table
+        var slowEating = new DurationRange(Duration.ofMillis(1), Duration.ofMillis(2));
+        var random = new SplittableRandom(dinnerConfig.seed());
+        var delays = new ArrayList<VisitorDelays>(visitorsCount);
+        for (var i = 0; i < visitorsCount; i++) {
+            delays.add(VisitorDelays.random(noDelay, i % 2 == 0 ? noDelay : slowEating, random.split()));
+        }
+
+        var statistics = new DinnerSimulation(dinnerConfig, delays).simulateDinner();
+
+        assertEquals(0, statistics.remainingPortionsInKitchen());
+        assertEquals(initialPortionsCount, statistics.totalEatenCount());
+        // Tables seat consecutive visitor ids, and the bound holds at each of them
+        for (var table = 0; table < tablesCount; table++) {
+            var tableEatenCounts = Arrays.copyOfRange(statistics.eatenCounts(),
+                    table * visitorsPerTable, (table + 1) * visitorsPerTable);
+            var minEaten = Arrays.stream(tableEatenCounts).min().orElse(0);
+            var maxEaten = Arrays.stream(tableEatenCounts).max().orElse(0);
+            assertTrue(maxEaten - minEaten <= fairnessDelta + 1,
+                    "Eaten counts at table " + table + " differ from " + minEaten + " to " + maxEaten);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 3 })
+    void everyoneShouldLeaveSoonAfterOrdersCloseTest(int tablesCount) throws InterruptedException, ExecutionException {
+        var visitorsCount = 30;
+        var waitersCount = 6;
+        var initialPortionsCount = 100;
+        // Most visitors are in the middle of a long discussion when the last portion is served
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(visitorsCount)
+                .waitersCount(waitersCount)
+                .soupPortionsCount(initialPortionsCount)
+                .waitersServingDelay(Duration.ZERO)
+                .visitorsDiscussionDelay(new DurationRange(Duration.ofMillis(300), Duration.ofMillis(500)))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(1)))
+                .tablesCount(tablesCount)
+                .build();
+
+        var statistics = new DinnerSimulation(dinnerConfig).simulateDinner();
+
+        assertEquals(0, statistics.remainingPortionsInKitchen());
+        assertEquals(initialPortionsCount, statistics.totalEatenCount());
+        assertEquals(initialPortionsCount, statistics.orderWait().count());
+        assertEquals(visitorsCount + waitersCount, statistics.shutdown().count());
+        assertTrue(statistics.shutdown().max().compareTo(Duration.ofMillis(100)) < 0,
+                "Shutdown took " + statistics.shutdown().max());
+    }
+
+    @ParameterizedTest
+    @EnumSource(TimeMode.class)
+    void subMillisecondTailHeavyWorkloadShouldServeEveryPortionTest(TimeMode timeMode)
+            throws InterruptedException, ExecutionException {
+        var initialPortionsCount = 5_000;
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(7)
+                .waitersCount(2)
+                .soupPortionsCount(initialPortionsCount)
+                .waitersServingDelay(Duration.ofNanos(5))
+                .visitorsDiscussionDelay(DelayDistribution.exponential(Duration.ofNanos(10_000)))
+                .visitorsEatingDelay(DelayDistribution.logNormal(Duration.ofNanos(10_000), 1.5))
+                .timeMode(timeMode)
+                .build();
+
+        var statistics = new DinnerSimulation(dinnerConfig).simulateDinner();
+
+        assertEquals(0, statistics.remainingPortionsInKitchen());
+        assertEquals(initialPortionsCount, statistics.totalEatenCount());
+    }
+
+    @ParameterizedTest
+    @EnumSource(TimeMode.class)
+    void objectiveTierShouldWaitLessWithoutStarvingBestEffortTest(TimeMode timeMode)
+            throws InterruptedException, ExecutionException {
+        var visitorsCount = 16;
+        var initialPortionsCount = 400;
+        // A single slow waiter keeps most visitors waiting in the queue
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(visitorsCount)
+                .waitersCount(1)
+                .soupPortionsCount(initialPortionsCount)
+                .waitersServingDelay(Duration.ofMillis(1))
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ZERO))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(1)))
+                .serviceTiers(ServiceTiers.of(
+                        ServiceTier.objective("interactive", Duration.ofMillis(5), 1),
+                        ServiceTier.bestEffort("batch", Duration.ofMillis(100), 3)
+                ))
+                .timeMode(timeMode)
+                .build();
+
+        var statistics = new DinnerSimulation(dinnerConfig).simulateDinner();
+
+        var interactive = statistics.tiers().get(0);
+        var batch = statistics.tiers().get(1);
+        assertEquals(initialPortionsCount, interactive.orderWait().count() + batch.orderWait().count());
+        assertTrue(interactive.orderWait().p90().compareTo(batch.orderWait().p90()) < 0,
+                "Interactive p90 " + interactive.orderWait().p90() + ", batch p90 " + batch.orderWait().p90());
+        assertTrue(batch.orderWait().max().compareTo(Duration.ofMillis(150)) < 0,
+                "Batch orders should age to the front, but waited " + batch.orderWait().max());
+        var minEaten = Arrays.stream(statistics.eatenCounts()).min().orElse(0);
+        assertTrue(minEaten > 0, "Every visitor should be served");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 3 })
+    void dinnersSharingKitchenServerShouldEatExactlyItsPortionsTest(int tablesCount)
+            throws IOException, InterruptedException, ExecutionException {
+        var initialPortionsCount = 3_000L;
+        var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (var server = new KitchenServer(new AtomicPortionCounter(initialPortionsCount), address)) {
+            var dinnerConfig = DinnerConfig.builder()
+                    .visitorsCount(6)
+                    .waitersCount(3)
+                    .tablesCount(tablesCount)
+                    .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ofNanos(20_000)))
+                    .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ofNanos(20_000)))
+                    .portionReservationBatchSize(4)
+                    .sharedKitchen(SharedKitchenConfig.server(server.address()))
+                    .build();
+
+            // Stand-ins for the dinners of two processes drawing from the same kitchen
+            var firstDinner = CompletableFuture.supplyAsync(() -> simulate(dinnerConfig));
+            var secondDinner = CompletableFuture.supplyAsync(() -> simulate(dinnerConfig));
+            var first = firstDinner.get();
+            var second = secondDinner.get();
+
+            assertEquals(0, server.remaining());
+            assertEquals(0, first.remainingPortionsInKitchen());
+            assertEquals(initialPortionsCount, first.totalEatenCount() + second.totalEatenCount(),
+                    "Every portion of the shared kitchen should be eaten exactly once");
+        }
+    }
+
+    // The spread of eaten counts is bounded by a share of the portions eaten by an average visitor
+    private static void assertFairWithin(DinnerStatistics statistics, double share) {
+        var eatenCounts = statistics.eatenCounts();
+        var minEaten = Arrays.stream(eatenCounts).min().orElse(0);
+        var maxEaten = Arrays.stream(eatenCounts).max().orElse(0);
+        var portionsPerVisitor = statistics.totalEatenCount() / (double) eatenCounts.length;
+        assertTrue(maxEaten - minEaten <= Math.max(2, share * portionsPerVisitor),
+                "Eaten counts differ from " + minEaten + " to " + maxEaten);
+    }
+
+    private static DinnerStatistics simulate(DinnerConfig dinnerConfig) {
+        try {
+            return new DinnerSimulation(dinnerConfig).simulateDinner();
+        } catch (InterruptedException | ExecutionException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
 }
@@ -5,11 +5,14 @@ import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.labs.config.DinnerConfig;
+import org.labs.config.ExecutionMode;
 import org.labs.model.DurationRange;
 
 import java.time.Duration;
 import java.util.concurrent.ExecutionException;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 class ValidMultithreadingTests {
     @ParameterizedTest
     @Timeout(120)
@@ -41,4 +44,25 @@ class ValidMultithreadingTests {
         var dinnerSimulation = new DinnerSimulation(dinnerConfig);
         dinnerSimulation.simulateDinner();
     }
+
+    @ParameterizedTest
+    @Timeout(120)
+    @ValueSource(ints = { 100, 1000, 5000 })
+    void noDeadlockDuringVirtualThreadsDinnerSimulationTest(int programmersCount)
+            throws InterruptedException, ExecutionException {
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(programmersCount)
+                .waitersCount(8)
+                .soupPortionsCount(2L * programmersCount)
+                .waitersServingDelay(Duration.ZERO)
+                .visitorsDiscussionDelay(new DurationRange(Duration.ofMillis(1), Duration.ofMillis(2)))
+                .visitorsEatingDelay(new DurationRange(Duration.ofMillis(1), Duration.ofMillis(2)))
+                .executionMode(ExecutionMode.virtual())
+                .build();
+        var dinnerSimulation = new DinnerSimulation(dinnerConfig);
+        var statistics = dinnerSimulation.simulateDinner();
+
+        assertEquals(0, statistics.remainingPortionsInKitchen(),
+                "All soup portions should be eaten");
+    }
 }
@@ -0,0 +1,98 @@
+package org.labs.checkpoint;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.labs.DinnerSimulation;
+import org.labs.config.CheckpointConfig;
+import org.labs.config.DinnerConfig;
+import org.labs.model.DurationRange;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckpointTests {
+    @TempDir
+    Path directory;
+
+    @Test
+    void latestCompleteCheckpointShouldBeReadTest() throws IOException {
+        var path = directory.resolve("dinner.checkpoint");
+        var visitorsCount = 70;
+        var pendingOrders = new boolean[visitorsCount];
+        pendingOrders[3] = true;
+        pendingOrders[69] = true;
+        try (var file = CheckpointFile.open(path, visitorsCount, true)) {
+            for (var sequence = 0; sequence < 3; sequence++) {
+                var eatenCounts = new int[visitorsCount];
+                Arrays.fill(eatenCounts, sequence);
+                file.write(sequence, 1000 * sequence, 1000, 1000 - visitorsCount * sequence, eatenCounts, pendingOrders);
+            }
+        }
+
+        var latest = CheckpointFile.read(path);
+        assertEquals(2, latest.sequence());
+        assertEquals(1000 - 2 * visitorsCount, latest.remainingPortionsCount());
+        assertEquals(2, latest.eatenCounts()[visitorsCount - 1]);
+        assertTrue(latest.pendingOrders()[3] && latest.pendingOrders()[69] && !latest.pendingOrders()[4]);
+
+        // A torn write of the latest slot leaves the previous checkpoint
+        try (var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 1, 2, 3 }), 40);
+        }
+        assertEquals(1, CheckpointFile.read(path).sequence());
+    }
+
+    @Test
+    void interruptedDinnerShouldBeResumedFromCheckpointTest() throws Exception {
+        var initialPortionsCount = 8000;
+        var path = directory.resolve("dinner.checkpoint");
+        var config = DinnerConfig.builder()
+                .visitorsCount(10)
+                .waitersCount(3)
+                .soupPortionsCount(initialPortionsCount)
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(2)))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(2)))
+                .checkpoint(CheckpointConfig.every(Duration.ofMillis(20), path))
+                .build();
+
+        var dinnerThread = Thread.ofPlatform().start(() -> {
+            try {
+                new DinnerSimulation(config).simulateDinner();
+            } catch (ExecutionException | InterruptedException exception) {
+                // The dinner is interrupted on purpose
+            }
+        });
+        Thread.sleep(300);
+        dinnerThread.interrupt();
+        dinnerThread.join();
+
+        var checkpoint = CheckpointFile.read(path);
+        var eatenBeforeInterrupt = Arrays.stream(checkpoint.eatenCounts()).sum();
+        assertTrue(eatenBeforeInterrupt > 0 && checkpoint.remainingPortionsCount() > 0,
+                "The dinner should be interrupted halfway, eaten: " + eatenBeforeInterrupt);
+        assertEquals(initialPortionsCount, eatenBeforeInterrupt + checkpoint.remainingPortionsCount(),
+                "Remaining and eaten portions should add up to the initial count");
+
+        var statistics = DinnerSimulation.resume(config, path).simulateDinner();
+
+        assertEquals(0, statistics.remainingPortionsInKitchen());
+        assertEquals(initialPortionsCount, statistics.totalEatenCount());
+        for (var i = 0; i < config.visitorsCount(); i++) {
+            assertTrue(statistics.eatenCounts()[i] >= checkpoint.eatenCounts()[i],
+                    "A resumed programmer should keep its eaten portions");
+        }
+        var minEaten = Arrays.stream(statistics.eatenCounts()).min().orElse(0);
+        var maxEaten = Arrays.stream(statistics.eatenCounts()).max().orElse(0);
+        var percentageDifference = ((maxEaten - minEaten) / (double) initialPortionsCount) * 100;
+        assertTrue(percentageDifference <= 5, "Eaten counts differ from " + minEaten + " to " + maxEaten);
+        assertEquals(0, CheckpointFile.read(path).remainingPortionsCount(), "The last checkpoint should be complete");
+    }
+}
@@ -0,0 +1,157 @@
+package org.labs.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.labs.DinnerSimulation;
+import org.labs.config.DinnerConfig;
+import org.labs.config.EventJournalConfig;
+import org.labs.config.ExecutionMode;
+import org.labs.config.TimeMode;
+import org.labs.model.DurationRange;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventJournalTests {
+    @TempDir
+    Path directory;
+
+    @Test
+    void eventsOfEveryThreadShouldBeDecodedInOrderTest() throws IOException, InterruptedException {
+        var threadsCount = 4;
+        var eventsPerThread = 100_000;
+        var path = directory.resolve("threads.journal");
+        // Small rings shared by the threads make them contend for the slots and wait for the flusher
+        var journal = new EventJournal(new EventJournalConfig(path, 2, 64, Duration.ofMillis(1)));
+        journal.start();
+
+        var threads = new ArrayList<Thread>();
+        for (var i = 0; i < threadsCount; i++) {
+            var actorId = i + 1;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (var value = 0; value < eventsPerThread; value++) {
+                    journal.record(JournalEventType.PORTION_SERVED, actorId, value % 1000, value);
+                }
+            }));
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        journal.close();
+
+        var nextValues = new long[threadsCount + 1];
+        JournalDecoder.forEachEvent(path, event -> {
+            assertEquals(JournalEventType.PORTION_SERVED, event.type());
+            assertEquals(nextValues[event.actorId()], event.value(), "Events of a thread should keep their order");
+            assertEquals(event.value() % 1000, event.subjectId());
+            nextValues[event.actorId()]++;
+        });
+        for (var actorId = 1; actorId <= threadsCount; actorId++) {
+            assertEquals(eventsPerThread, nextValues[actorId], "Every event should be flushed");
+        }
+    }
+
+    @Test
+    void interruptedCloseShouldCompleteTheFileTest() throws IOException {
+        var eventsCount = 10_000;
+        var path = directory.resolve("interrupted.journal");
+        var journal = new EventJournal(new EventJournalConfig(path, 2, 64, Duration.ofMillis(1)));
+        journal.start();
+        for (var value = 0; value < eventsCount; value++) {
+            journal.record(JournalEventType.PORTION_SERVED, 1, 1, value);
+        }
+
+        Thread.currentThread().interrupt();
+        journal.close();
+
+        assertTrue(Thread.interrupted(), "The interrupt status should be restored");
+        var decodedCount = new long[1];
+        JournalDecoder.forEachEvent(path, event -> decodedCount[0]++);
+        assertEquals(eventsCount, decodedCount[0]);
+    }
+
+    @Test
+    void eventsOfManyVirtualThreadsShouldBeFlushedTest() throws IOException, InterruptedException {
+        var threadsCount = 20_000;
+        var eventsPerThread = 5;
+        var path = directory.resolve("virtual.journal");
+        var journal = new EventJournal(new EventJournalConfig(path, 4, 256, Duration.ofMillis(1)));
+        journal.start();
+
+        var threads = new ArrayList<Thread>(threadsCount);
+        for (var i = 0; i < threadsCount; i++) {
+            var actorId = i + 1;
+            threads.add(Thread.ofVirtual().start(() -> {
+                for (var value = 0; value < eventsPerThread; value++) {
+                    journal.record(JournalEventType.EATING_STARTED, actorId, 0, value);
+                }
+            }));
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        journal.close();
+
+        var nextValues = new long[threadsCount + 1];
+        JournalDecoder.forEachEvent(path, event -> {
+            assertEquals(nextValues[event.actorId()], event.value(), "Events of a thread should keep their order");
+            nextValues[event.actorId()]++;
+        });
+        for (var actorId = 1; actorId <= threadsCount; actorId++) {
+            assertEquals(eventsPerThread, nextValues[actorId], "Every event should be flushed");
+        }
+    }
+
+    @Test
+    void dinnerJournalShouldTraceEveryServedPortionTest()
+            throws IOException, ExecutionException, InterruptedException {
+        var initialPortionsCount = 1000;
+        var path = directory.resolve("dinner.journal");
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(7)
+                .waitersCount(2)
+                .soupPortionsCount(initialPortionsCount)
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(1)))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(1)))
+                .eventJournal(EventJournalConfig.to(path))
+                .build();
+        new DinnerSimulation(dinnerConfig).simulateDinner();
+
+        var eventCounts = new long[JournalEventType.values().length];
+        JournalDecoder.forEachEvent(path, event -> eventCounts[event.type().ordinal()]++);
+        assertEquals(initialPortionsCount, eventCounts[JournalEventType.PORTION_SERVED.ordinal()]);
+        assertEquals(initialPortionsCount, eventCounts[JournalEventType.EATING_STARTED.ordinal()]);
+        assertEquals(7, eventCounts[JournalEventType.PROGRAMMER_FINISHED.ordinal()]);
+        assertEquals(2, eventCounts[JournalEventType.WAITER_FINISHED.ordinal()]);
+
+        var csv = new StringBuilder();
+        var decodedCount = JournalDecoder.decode(path, JournalFormat.CSV, csv);
+        var lines = csv.toString().split("\n");
+        assertEquals(JournalFormat.CSV.header(), lines[0]);
+        assertEquals(decodedCount + 1, lines.length, "Every event should be decoded into a line");
+    }
+
+    @Test
+    void journalOfDinnerWithoutThreadsShouldBeRejectedTest() {
+        var dinnerConfig = DinnerConfig.builder()
+                .visitorsCount(7)
+                .waitersCount(2)
+                .soupPortionsCount(100)
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(1)))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(1)))
+                .eventJournal(EventJournalConfig.to(directory.resolve("rejected.journal")))
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> new DinnerSimulation(dinnerConfig.toBuilder()
+                .timeMode(TimeMode.LOGICAL)
+                .build()));
+        assertThrows(IllegalArgumentException.class, () -> new DinnerSimulation(dinnerConfig.toBuilder()
+                .executionMode(ExecutionMode.async())
+                .build()));
+    }
+}
@@ -0,0 +1,56 @@
+package org.labs.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentHistogramTests {
+    @Test
+    void bucketsShouldCoverEveryValueTest() {
+        var previousIndex = -1;
+        for (var value = 0L; value < 1_000_000; value++) {
+            var index = ConcurrentHistogram.bucketIndex(value);
+            assertTrue(index == previousIndex || index == previousIndex + 1, "Buckets should be contiguous");
+            assertTrue(ConcurrentHistogram.bucketUpperBound(index) >= value);
+            previousIndex = index;
+        }
+        assertEquals(ConcurrentHistogram.BUCKETS_COUNT - 1, ConcurrentHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    void percentilesShouldBeWithinBucketPrecisionTest() throws InterruptedException, ExecutionException {
+        var histogram = new ConcurrentHistogram();
+        var threadsCount = 4;
+        var valuesCount = 100_000;
+
+        try (var executor = Executors.newFixedThreadPool(threadsCount)) {
+            var futures = new ArrayList<Future<?>>();
+            for (var i = 0; i < threadsCount; i++) {
+                futures.add(executor.submit(() -> {
+                    for (var value = 1L; value <= valuesCount; value++) {
+                        histogram.record(value * 1_000);
+                    }
+                }));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        }
+
+        var summary = histogram.summary();
+        assertEquals((long) threadsCount * valuesCount, summary.count());
+        assertEquals(valuesCount * 1_000L, summary.max().toNanos());
+        assertWithinPrecision(valuesCount * 500L, summary.p50().toNanos());
+        assertWithinPrecision(valuesCount * 990L, summary.p99().toNanos());
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected * 1.125,
+                "Expected about " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,86 @@
+package org.labs.model;
+
+import org.junit.jupiter.api.Test;
+import org.labs.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DelayDistributionTests {
+    private static final int SAMPLES_COUNT = 200_000;
+
+    @Test
+    void distributionsShouldHaveTheirMeanAndMedianTest() {
+        var exponential = draw(DelayDistribution.exponential(Duration.ofNanos(10_000)));
+        var logNormal = draw(DelayDistribution.logNormal(Duration.ofNanos(10_000), 1.0));
+        var fixed = draw(DelayDistribution.fixed(Duration.ofNanos(5)));
+
+        assertEquals(10_000, Arrays.stream(exponential).average().orElseThrow(), 200);
+        assertEquals(10_000, median(logNormal), 300);
+        assertTrue(Arrays.stream(fixed).allMatch(nanoseconds -> nanoseconds == 5),
+                "Fixed delay should keep its nanoseconds");
+    }
+
+    @Test
+    void tailHeavyDistributionShouldHaveLongerTailAtSameMedianTest() {
+        var light = draw(DelayDistribution.logNormal(Duration.ofNanos(10_000), 0.25));
+        var heavy = draw(DelayDistribution.logNormal(Duration.ofNanos(10_000), 1.5));
+
+        assertTrue(percentile(heavy, 0.99) > 5 * percentile(light, 0.99),
+                "Larger sigma should stretch the tail");
+    }
+
+    @Test
+    void replayedHistogramShouldKeepPercentilesOfRecordedTimesTest() {
+        var recorded = new LatencyHistogram();
+        var source = DelayDistribution.exponential(Duration.ofNanos(50_000));
+        var random = new SplittableRandom(1);
+        for (var i = 0; i < SAMPLES_COUNT; i++) {
+            recorded.record(source.nextNanoseconds(random));
+        }
+
+        var replayed = new LatencyHistogram();
+        for (var nanoseconds : draw(DelayDistribution.replay(recorded))) {
+            replayed.record(nanoseconds);
+        }
+
+        var expected = recorded.summary();
+        var actual = replayed.summary();
+        assertEquals(expected.p50().toNanos(), actual.p50().toNanos(), expected.p50().toNanos() * 0.15);
+        assertEquals(expected.p99().toNanos(), actual.p99().toNanos(), expected.p99().toNanos() * 0.15);
+    }
+
+    @Test
+    void empiricalDistributionShouldOnlyDrawSamplesTest() {
+        var samples = List.of(Duration.ofNanos(1), Duration.ofNanos(1_000), Duration.ofNanos(1_000_000));
+
+        var drawn = draw(DelayDistribution.empirical(samples));
+
+        assertEquals(3, Arrays.stream(drawn).distinct().count());
+        assertTrue(Arrays.stream(drawn).allMatch(nanoseconds -> nanoseconds == 1 || nanoseconds == 1_000
+                || nanoseconds == 1_000_000), "Only the samples should be drawn");
+    }
+
+    private static long[] draw(DelayDistribution distribution) {
+        var random = new SplittableRandom(42);
+        var drawn = new long[SAMPLES_COUNT];
+        for (var i = 0; i < SAMPLES_COUNT; i++) {
+            drawn[i] = distribution.nextNanoseconds(random);
+        }
+        return drawn;
+    }
+
+    private static long median(long[] values) {
+        return percentile(values, 0.5);
+    }
+
+    private static long percentile(long[] values, double percentile) {
+        var sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) (percentile * (sorted.length - 1))];
+    }
+}
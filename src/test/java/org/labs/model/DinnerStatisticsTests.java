@@ -0,0 +1,37 @@
+package org.labs.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DinnerStatisticsTests {
+    @Test
+    void eatenCountsShouldNotBeChangedFromOutsideTest() {
+        var eatenCounts = new int[] { 3, 1, 2 };
+        var statistics = DinnerStatistics.builder()
+                .eatenCounts(eatenCounts)
+                .dinnerDuration(Duration.ofMillis(5))
+                .build();
+
+        eatenCounts[0] = 100;
+        statistics.eatenCounts()[1] = 100;
+
+        assertArrayEquals(new int[] { 3, 1, 2 }, statistics.eatenCounts());
+        assertEquals(6, statistics.totalEatenCount());
+        assertEquals(3, (int) statistics.visitorIdToEatenCount().get(1));
+        assertEquals(Duration.ofMillis(5), statistics.simulatedDuration());
+    }
+
+    @Test
+    void statisticsWithEqualEatenCountsShouldBeEqualTest() {
+        var first = DinnerStatistics.builder().eatenCounts(new int[] { 2, 2 }).build();
+        var second = DinnerStatistics.builder().eatenCounts(new int[] { 2, 2 }).build();
+        var third = DinnerStatistics.builder().eatenCounts(new int[] { 2, 3 }).build();
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, third);
+    }
+}
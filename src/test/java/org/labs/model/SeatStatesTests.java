@@ -0,0 +1,61 @@
+package org.labs.model;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatStatesTests {
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    void seatsShouldKeepTheirStatesApartTest(boolean isPadded) {
+        var seatStates = isPadded ? SeatStates.padded(3) : SeatStates.compact(3);
+        assertEquals(3, seatStates.seatsCount());
+
+        seatStates.setStatus(1, SeatStates.HAS_PORTION);
+        seatStates.setEatenCount(1, 7);
+        seatStates.setStatus(2, SeatStates.NO_MORE_PORTIONS);
+
+        assertEquals(SeatStates.NO_PORTION, seatStates.status(0));
+        assertEquals(0, seatStates.eatenCount(0));
+        assertEquals(SeatStates.HAS_PORTION, seatStates.status(1));
+        assertEquals(7, seatStates.eatenCount(1));
+        assertEquals(SeatStates.NO_MORE_PORTIONS, seatStates.status(2));
+        assertEquals(0, seatStates.eatenCount(2));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    void concurrentVisitorsShouldNotLoseEachOtherCountsTest(boolean isPadded)
+            throws InterruptedException, ExecutionException {
+        var seatsCount = 8;
+        var mealsCount = 10_000;
+        var seatStates = isPadded ? SeatStates.padded(seatsCount) : SeatStates.compact(seatsCount);
+
+        try (var executor = Executors.newFixedThreadPool(seatsCount)) {
+            var futures = new Future<?>[seatsCount];
+            for (var seat = 0; seat < seatsCount; seat++) {
+                var ownSeat = seat;
+                futures[seat] = executor.submit(() -> {
+                    for (var i = 0; i < mealsCount; i++) {
+                        seatStates.setStatus(ownSeat, SeatStates.HAS_PORTION);
+                        seatStates.setEatenCount(ownSeat, seatStates.eatenCount(ownSeat) + 1);
+                        seatStates.setStatus(ownSeat, SeatStates.NO_PORTION);
+                    }
+                });
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        }
+
+        for (var seat = 0; seat < seatsCount; seat++) {
+            assertEquals(mealsCount, seatStates.eatenCount(seat));
+            assertEquals(SeatStates.NO_PORTION, seatStates.status(seat));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.labs.model;
+
+import org.junit.jupiter.api.Test;
+import org.labs.config.PortionWaitStrategy;
+import org.labs.service.KitchenService;
+import org.labs.service.OrdersService;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaiterTests {
+    @Test
+    void standaloneWaiterShouldServeUntilKitchenIsEmptyTest() throws InterruptedException {
+        var ordersService = new OrdersService(1);
+        var kitchenService = new KitchenService(3);
+        var noDelay = new DurationRange(Duration.ZERO, Duration.ZERO);
+        var programmer = new Programmer(1, new Spoon(), new Spoon(), ordersService,
+                noDelay, noDelay, PortionWaitStrategy.park());
+        var waiter = new Waiter(1, ordersService, kitchenService, Duration.ZERO);
+
+        var failure = new AtomicReference<Throwable>();
+        var programmerThread = new Thread(programmer);
+        var waiterThread = new Thread(waiter);
+        waiterThread.setUncaughtExceptionHandler((thread, exception) -> failure.set(exception));
+        programmerThread.start();
+        waiterThread.start();
+        waiterThread.join(Duration.ofSeconds(10));
+        programmerThread.join(Duration.ofSeconds(10));
+
+        assertNull(failure.get(), "The waiter should finish without errors");
+        assertFalse(waiterThread.isAlive(), "The waiter should finish once the kitchen is empty");
+        assertTrue(ordersService.awaitOrdersClosed(0), "The waiter should close the queue");
+        assertEquals(3, programmer.getEatenCount());
+        assertEquals(0L, kitchenService.getSoupPortionsCount());
+    }
+}
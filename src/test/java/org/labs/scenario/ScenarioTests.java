@@ -0,0 +1,108 @@
+package org.labs.scenario;
+
+import org.junit.jupiter.api.Test;
+import org.labs.DinnerSimulation;
+import org.labs.config.DinnerConfig;
+import org.labs.config.OrderDispatcherType;
+import org.labs.config.SpoonAcquisitionType;
+import org.labs.config.TimeMode;
+import org.labs.model.DurationRange;
+import org.labs.model.VisitorDelays;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioTests {
+    @Test
+    void sameSeedShouldGiveSameDelaysTest() {
+        var discussionRange = new DurationRange(Duration.ofMillis(1), Duration.ofMillis(20));
+        var eatingRange = new DurationRange(Duration.ofMillis(5), Duration.ofMillis(10));
+        var first = VisitorDelays.seeded(discussionRange, eatingRange, 42, 10);
+        var second = VisitorDelays.seeded(discussionRange, eatingRange, 42, 10);
+
+        for (var visitor = 0; visitor < 10; visitor++) {
+            for (var i = 0; i < 100; i++) {
+                assertEquals(first.get(visitor).nextDiscussionNanoseconds(),
+                        second.get(visitor).nextDiscussionNanoseconds(), "Discussion times should match");
+                assertEquals(first.get(visitor).nextEatingNanoseconds(),
+                        second.get(visitor).nextEatingNanoseconds(), "Eating times should match");
+            }
+        }
+    }
+
+    @Test
+    void sameSeedShouldRepeatLogicalDinnerTest() throws ExecutionException, InterruptedException {
+        var config = DinnerConfig.builder()
+                .visitorsCount(50)
+                .waitersCount(3)
+                .soupPortionsCount(10_000)
+                .waitersServingDelay(Duration.ofMillis(1))
+                .visitorsDiscussionDelay(new DurationRange(Duration.ofMillis(1), Duration.ofMillis(20)))
+                .visitorsEatingDelay(new DurationRange(Duration.ofMillis(1), Duration.ofMillis(20)))
+                .timeMode(TimeMode.LOGICAL)
+                .seed(2024)
+                .build();
+
+        var first = new DinnerSimulation(config).simulateDinner();
+        var second = new DinnerSimulation(config).simulateDinner();
+
+        assertArrayEquals(first.eatenCounts(), second.eatenCounts());
+        assertEquals(first.simulatedDuration(), second.simulatedDuration(), "Simulated durations should match");
+    }
+
+    @Test
+    void recordedScenarioShouldReplayAgainstAnotherStrategyTest()
+            throws ExecutionException, InterruptedException, IOException {
+        var initialPortionsCount = 200;
+        var config = DinnerConfig.builder()
+                .visitorsCount(5)
+                .waitersCount(2)
+                .soupPortionsCount(initialPortionsCount)
+                .visitorsDiscussionDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(2)))
+                .visitorsEatingDelay(new DurationRange(Duration.ZERO, Duration.ofMillis(2)))
+                .seed(7)
+                .scenarioRecording(true)
+                .build();
+        var simulation = new DinnerSimulation(config);
+        simulation.simulateDinner();
+        var scenario = simulation.getRecordedScenario();
+
+        var servedCount = scenario.events().stream()
+                .filter(event -> event.type() == ScenarioEventType.SERVE)
+                .count();
+        var eatenCount = scenario.events().stream()
+                .filter(event -> event.type() == ScenarioEventType.EAT)
+                .count();
+        assertEquals(initialPortionsCount, servedCount, "Every served portion should be recorded");
+        assertEquals(initialPortionsCount, eatenCount, "Every eaten portion should be recorded");
+        var pendingOrders = new int[config.visitorsCount() + 1];
+        for (var event : scenario.events()) {
+            if (event.type() == ScenarioEventType.ORDER) {
+                pendingOrders[event.visitorId()]++;
+            } else if (event.type() == ScenarioEventType.SERVE) {
+                assertTrue(--pendingOrders[event.visitorId()] >= 0, "An order should be served after it is placed");
+            }
+        }
+
+        var bytes = new ByteArrayOutputStream();
+        scenario.write(bytes);
+        var readScenario = Scenario.read(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(scenario, readScenario, "Scenario should survive the binary round trip");
+
+        var replayConfig = config.toBuilder()
+                .orderDispatcherType(OrderDispatcherType.PRIORITY_QUEUE)
+                .spoonAcquisitionType(SpoonAcquisitionType.CHANDY_MISRA)
+                .scenarioRecording(false)
+                .build();
+        var statistics = ScenarioReplay.replay(readScenario, replayConfig);
+
+        assertEquals(0, statistics.remainingPortionsInKitchen(), "All soup portions should be eaten");
+        assertEquals(initialPortionsCount, statistics.totalEatenCount(),
+                "Replayed dinner should serve the recorded portions");
+    }
+}
@@ -0,0 +1,115 @@
+package org.labs.service;
+
+import org.junit.jupiter.api.Test;
+import org.labs.config.OrderDispatcherType;
+import org.labs.model.Order;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairnessControllerTests {
+    @Test
+    void orderAheadOfTheBoundShouldBeHeldUntilLeastFedVisitorsCatchUpTest() {
+        var dispatcher = OrderDispatcherType.BUCKETS.create(3);
+        var fairness = new FairnessController(dispatcher, 1, 3, 1);
+
+        fairness.submit(createOrder(1, 1));
+        assertEquals(1, dispatcher.poll().visitorId());
+        fairness.submit(createOrder(2, 1));
+        assertEquals(2, dispatcher.poll().visitorId());
+
+        // Visitor 3 has not eaten yet, so an order with two portions eaten is held
+        fairness.submit(createOrder(1, 2));
+        assertNull(dispatcher.poll());
+        assertEquals(2, fairness.spread());
+
+        fairness.submit(createOrder(3, 1));
+        assertEquals(3, dispatcher.poll().visitorId());
+        assertEquals(1, dispatcher.poll().visitorId());
+        assertNull(dispatcher.poll());
+    }
+
+    @Test
+    void heldOrdersShouldBeWithdrawnOrReleasedOnceQueueClosesTest() {
+        var dispatcher = OrderDispatcherType.BUCKETS.create(3);
+        var fairness = new FairnessController(dispatcher, 0, 3, 1);
+        var withdrawnOrder = createOrder(1, 5);
+        fairness.submit(withdrawnOrder);
+        fairness.submit(createOrder(2, 7));
+        assertNull(dispatcher.poll());
+
+        assertTrue(fairness.withdraw(withdrawnOrder));
+        assertFalse(fairness.withdraw(withdrawnOrder));
+        fairness.releaseAll();
+        assertEquals(2, dispatcher.poll().visitorId());
+        assertNull(dispatcher.poll());
+    }
+
+    @Test
+    void bucketsShouldGrowWithTheSpreadOfEatenCountsTest() {
+        var dispatcher = OrderDispatcherType.BUCKETS.create(2);
+        var fairness = new FairnessController(dispatcher, 100, 2, 1);
+        for (var portionsEaten = 1; portionsEaten <= 100; portionsEaten++) {
+            fairness.submit(createOrder(1, portionsEaten));
+            assertEquals(1, dispatcher.poll().visitorId());
+        }
+        assertEquals(100, fairness.spread());
+
+        fairness.submit(createOrder(2, 60));
+        assertEquals(2, dispatcher.poll().visitorId());
+        assertEquals(40, fairness.spread());
+    }
+
+    @Test
+    void heldOrdersShouldBeReleasedByTheirCountsTest() {
+        var dispatcher = OrderDispatcherType.PRIORITY_QUEUE.create(5);
+        var fairness = new FairnessController(dispatcher, 1, 5, 1);
+        fairness.submit(createOrder(1, 1));
+        fairness.submit(createOrder(2, 1));
+        fairness.submit(createOrder(3, 1));
+        while (dispatcher.poll() != null) { }
+
+        // Visitors 4 and 5 have not eaten yet, so every order with two or three portions eaten is held
+        var withdrawnOrder = createOrder(2, 2);
+        fairness.submit(createOrder(1, 3));
+        fairness.submit(withdrawnOrder);
+        fairness.submit(createOrder(3, 2));
+        assertNull(dispatcher.poll());
+        assertTrue(fairness.withdraw(withdrawnOrder));
+
+        fairness.submit(createOrder(4, 1));
+        assertEquals(4, dispatcher.poll().visitorId());
+        assertNull(dispatcher.poll());
+
+        // The least count moves to one, which releases the held order with two portions eaten only
+        fairness.submit(createOrder(5, 1));
+        assertEquals(5, dispatcher.poll().visitorId());
+        assertEquals(3, dispatcher.poll().visitorId());
+        assertNull(dispatcher.poll());
+
+        fairness.releaseAll();
+        assertEquals(1, dispatcher.poll().visitorId());
+        assertNull(dispatcher.poll());
+    }
+
+    @Test
+    void restoredEatenCountsShouldBeBoundedRightAwayTest() {
+        var dispatcher = OrderDispatcherType.PRIORITY_QUEUE.create(3, 4);
+        var fairness = new FairnessController(dispatcher, 2, 3, 4);
+        fairness.restore(new int[] { 0, 0, 0, 40, 42, 100 });
+        assertEquals(60, fairness.spread());
+
+        fairness.submit(createOrder(6, 101));
+        assertNull(dispatcher.poll(), "The visitor far ahead before the resume should be held");
+        fairness.submit(createOrder(5, 42));
+        assertEquals(5, dispatcher.poll().visitorId());
+
+        fairness.submit(createOrder(4, 41));
+        assertEquals(4, dispatcher.poll().visitorId());
+        assertNull(dispatcher.poll());
+        assertEquals(60, fairness.spread());
+    }
+
+    private static Order createOrder(int visitorId, int portionsEaten) {
+        return new Order(visitorId, portionsEaten, () -> { }, () -> { });
+    }
+}
@@ -0,0 +1,62 @@
+package org.labs.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShutdownProtocolTests {
+    @Test
+    void waiterInterruptedAfterFinishingServingShouldNotArriveTwiceTest() throws InterruptedException {
+        var closings = new AtomicBoolean();
+        var shutdown = new ShutdownProtocol(() -> assertFalse(closings.getAndSet(true), "Closed twice"));
+        shutdown.registerWaiter();
+        shutdown.registerWaiter();
+
+        var interrupted = new AtomicBoolean();
+        var waiter = new Thread(() -> {
+            var hasFinishedServing = false;
+            try {
+                hasFinishedServing = true;
+                shutdown.finishServing();
+            } catch (InterruptedException exception) {
+                interrupted.set(true);
+            } finally {
+                shutdown.leave(hasFinishedServing);
+            }
+        });
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        waiter.interrupt();
+        while (!interrupted.get()) {
+            Thread.onSpinWait();
+        }
+
+        // The other waiter is still serving, so the queue stays open
+        assertFalse(shutdown.awaitClosed(TimeUnit.MILLISECONDS.toNanos(50)));
+        assertTrue(waiter.isAlive(), "The interrupted waiter should deregister only after the serving");
+
+        assertTrue(shutdown.finishServing(), "The last waiter to finish serving should close the queue");
+        shutdown.leave(true);
+        waiter.join();
+        assertTrue(closings.get());
+    }
+
+    @Test
+    void waiterLeavingWhileServingShouldCountAsFinishedServingTest() throws InterruptedException {
+        var shutdown = new ShutdownProtocol(() -> { });
+        shutdown.registerWaiter();
+        shutdown.registerWaiter();
+
+        shutdown.leave(false);
+        assertFalse(shutdown.awaitClosed(0));
+
+        assertTrue(shutdown.finishServing());
+        assertTrue(shutdown.awaitClosed(0));
+        shutdown.leave(true);
+    }
+}
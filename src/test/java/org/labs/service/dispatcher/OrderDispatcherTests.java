@@ -0,0 +1,176 @@
+package org.labs.service.dispatcher;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.labs.config.OrderDispatcherType;
+import org.labs.config.PortionWaitStrategy;
+import org.labs.model.DurationRange;
+import org.labs.model.Order;
+import org.labs.model.Programmer;
+import org.labs.model.Spoon;
+import org.labs.service.OrdersService;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderDispatcherTests {
+    @ParameterizedTest
+    @EnumSource(OrderDispatcherType.class)
+    void leastFedVisitorShouldBeServedFirstTest(OrderDispatcherType dispatcherType) {
+        var dispatcher = dispatcherType.create(4);
+        dispatcher.offer(createOrder(1, 7));
+        dispatcher.offer(createOrder(2, 3));
+        dispatcher.offer(createOrder(3, 5));
+        dispatcher.offer(createOrder(4, 0));
+
+        assertEquals(4, dispatcher.poll().visitorId());
+        assertEquals(2, dispatcher.poll().visitorId());
+        assertEquals(3, dispatcher.poll().visitorId());
+        assertEquals(1, dispatcher.poll().visitorId());
+        assertNull(dispatcher.poll());
+    }
+
+    @ParameterizedTest
+    @EnumSource(OrderDispatcherType.class)
+    void removedOrderShouldNotBeServedTest(OrderDispatcherType dispatcherType) throws InterruptedException {
+        var dispatcher = dispatcherType.create(2);
+        var removedOrder = createOrder(1, 0);
+        dispatcher.offer(removedOrder);
+        dispatcher.offer(createOrder(2, 1));
+
+        assertTrue(dispatcher.remove(removedOrder));
+        assertFalse(dispatcher.remove(removedOrder));
+        assertEquals(2, dispatcher.poll(10, TimeUnit.MILLISECONDS).visitorId());
+        assertNull(dispatcher.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void skipListSizeShouldBeExactAfterConcurrentPollsTest() throws InterruptedException {
+        var dispatcher = new SkipListOrderDispatcher();
+        var threads = new Thread[4];
+        for (var i = 0; i < threads.length; i++) {
+            var visitorId = i + 1;
+            threads[i] = Thread.ofPlatform().start(() -> {
+                for (var portionsEaten = 0; portionsEaten < 100_000; portionsEaten++) {
+                    var order = createOrder(visitorId, portionsEaten);
+                    dispatcher.offer(order);
+                    dispatcher.poll();
+                    dispatcher.remove(order);
+                }
+            });
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        assertNull(dispatcher.poll());
+        assertEquals(0, dispatcher.size());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = OrderDispatcherType.class, names = { "PRIORITY_QUEUE", "BUCKETS" })
+    void orderRoundTripShouldNotAllocateTest(OrderDispatcherType dispatcherType) {
+        var threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var visitorsCount = 16;
+        var ordersService = new OrdersService(visitorsCount, dispatcherType);
+        var noDelay = new DurationRange(Duration.ZERO, Duration.ZERO);
+        var programmers = new Programmer[visitorsCount];
+        for (var i = 0; i < visitorsCount; i++) {
+            programmers[i] = new Programmer(i + 1, new Spoon(), new Spoon(), ordersService,
+                    noDelay, noDelay, PortionWaitStrategy.park());
+        }
+
+        var roundTripsCount = 200_000;
+        // The first pass warms up the code, the second one is measured
+        var allocatedBytes = 0L;
+        for (var pass = 0; pass < 2; pass++) {
+            var allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+            for (var i = 0; i < roundTripsCount; i++) {
+                ordersService.makeOrder(programmers[i % visitorsCount]);
+                ordersService.getOrder().soupPortionNotifier().setSoupPortion();
+            }
+            allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        }
+
+        assertTrue(allocatedBytes < roundTripsCount / 100,
+                "Steady-state order path should not allocate, but allocated " + allocatedBytes + " bytes");
+    }
+
+    @Test
+    void earliestDeadlineShouldBeServedFirstTest() {
+        var dispatcher = new DeadlineOrderDispatcher(4, 1, Duration.ofMillis(100).toNanos());
+        dispatcher.offer(createOrder(1, 0, Duration.ofMillis(80)));
+        dispatcher.offer(createOrder(2, 9, Duration.ofMillis(1)));
+        dispatcher.offer(createOrder(3, 0, Duration.ofMillis(40)));
+        dispatcher.offer(createOrder(4, 0, Duration.ofMillis(10)));
+
+        assertEquals(2, dispatcher.poll().visitorId());
+        assertEquals(4, dispatcher.poll().visitorId());
+        assertEquals(3, dispatcher.poll().visitorId());
+        assertEquals(1, dispatcher.poll().visitorId());
+        assertNull(dispatcher.poll());
+    }
+
+    @Test
+    void agedBestEffortOrderShouldOvertakeNewUrgentOrderTest() throws InterruptedException {
+        var dispatcher = new DeadlineOrderDispatcher(2, 1, Duration.ofMillis(50).toNanos());
+        dispatcher.offer(createOrder(1, 0, Duration.ofMillis(50)));
+        TimeUnit.MILLISECONDS.sleep(60);
+        dispatcher.offer(createOrder(2, 0, Duration.ofMillis(5)));
+
+        assertEquals(1, dispatcher.poll().visitorId());
+        assertEquals(2, dispatcher.poll().visitorId());
+    }
+
+    @Test
+    void prioritiesWrappingAroundIntShouldKeepTheirOrderTest() {
+        var dispatcher = new BucketOrderDispatcher(3, 1, 16, Order::portionsEaten);
+        dispatcher.offer(createOrder(1, Integer.MAX_VALUE - 1));
+        dispatcher.offer(createOrder(2, Integer.MIN_VALUE));
+        dispatcher.offer(createOrder(3, Integer.MAX_VALUE));
+
+        assertEquals(1, dispatcher.poll().visitorId());
+        assertEquals(3, dispatcher.poll().visitorId());
+        assertEquals(2, dispatcher.poll().visitorId());
+        assertNull(dispatcher.poll());
+    }
+
+    @Test
+    void ordersBeyondTheRotationShouldNotOvertakeNearerOnesTest() {
+        var dispatcher = new BucketOrderDispatcher(4, 1, 16, Order::portionsEaten);
+        dispatcher.offer(createOrder(1, 0));
+        // 20 would share the bucket of 4 and be served before 5
+        dispatcher.offer(createOrder(2, 20));
+        dispatcher.offer(createOrder(3, 16));
+        dispatcher.offer(createOrder(4, 5));
+
+        assertEquals(1, dispatcher.poll().visitorId());
+        assertEquals(4, dispatcher.poll().visitorId());
+        var farthest = Set.of(dispatcher.poll().visitorId(), dispatcher.poll().visitorId());
+        assertEquals(Set.of(2, 3), farthest);
+        assertNull(dispatcher.poll());
+
+        // Without pending orders the next rotation starts at the new order
+        dispatcher.offer(createOrder(1, 1_000));
+        dispatcher.offer(createOrder(2, 1_010));
+        dispatcher.offer(createOrder(3, 1_003));
+        assertEquals(1, dispatcher.poll().visitorId());
+        assertEquals(3, dispatcher.poll().visitorId());
+        assertEquals(2, dispatcher.poll().visitorId());
+    }
+
+    private static Order createOrder(int visitorId, int portionsEaten, Duration deadline) {
+        var order = createOrder(visitorId, portionsEaten);
+        order.setServiceTier(0, deadline.toNanos());
+        return order.renew(portionsEaten);
+    }
+
+    private static Order createOrder(int visitorId, int portionsEaten) {
+        return new Order(visitorId, portionsEaten, () -> { }, () -> { });
+    }
+}
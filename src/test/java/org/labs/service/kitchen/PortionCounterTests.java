@@ -0,0 +1,113 @@
+package org.labs.service.kitchen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.labs.service.KitchenService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class PortionCounterTests {
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 3, 8 })
+    void stripedCounterShouldHandOutExactlyInitialPortionsTest(int stripesCount)
+            throws InterruptedException, ExecutionException {
+        var initialPortionsCount = 100_003L;
+        var counter = new StripedPortionCounter(initialPortionsCount, stripesCount);
+        assertEquals(initialPortionsCount, counter.remaining());
+
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            var futures = new ArrayList<Future<Long>>();
+            for (var i = 0; i < 8; i++) {
+                var batchSize = i + 1;
+                futures.add(executor.submit(() -> {
+                    var taken = 0L;
+                    long portions;
+                    while ((portions = counter.take(batchSize)) > 0) {
+                        taken += portions;
+                    }
+                    return taken;
+                }));
+            }
+
+            var takenCount = 0L;
+            for (var future : futures) {
+                takenCount += future.get();
+            }
+            assertEquals(initialPortionsCount, takenCount, "Every portion should be taken exactly once");
+        }
+        assertEquals(0, counter.remaining());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 4 })
+    void quotaCountersShouldHandOutExactlyInitialPortionsTest(int tablesCount)
+            throws InterruptedException, ExecutionException {
+        var initialPortionsCount = 100_003L;
+        var tableVisitorsCounts = new int[tablesCount];
+        Arrays.fill(tableVisitorsCounts, 3);
+        var globalKitchen = new GlobalKitchen(initialPortionsCount, tableVisitorsCounts, 4);
+
+        try (var executor = Executors.newFixedThreadPool(2 * tablesCount)) {
+            var futures = new ArrayList<Future<Long>>();
+            for (var table = 0; table < tablesCount; table++) {
+                var counter = new QuotaPortionCounter(globalKitchen, table);
+                for (var i = 0; i < 2; i++) {
+                    var batchSize = i + 1;
+                    futures.add(executor.submit(() -> {
+                        var taken = 0L;
+                        long portions;
+                        while ((portions = counter.take(batchSize)) > 0) {
+                            taken += portions;
+                        }
+                        return taken;
+                    }));
+                }
+            }
+
+            var takenCount = 0L;
+            for (var future : futures) {
+                takenCount += future.get();
+            }
+            assertEquals(initialPortionsCount, takenCount, "Every portion should be taken exactly once");
+        }
+        assertEquals(0, globalKitchen.remaining());
+    }
+
+    @Test
+    void interruptedRefillShouldNotExhaustKitchenTest() throws InterruptedException {
+        var globalKitchen = new GlobalKitchen(1_000, new int[] { 1, 1 }, 4);
+        var kitchenService = new KitchenService(new QuotaPortionCounter(globalKitchen, 0));
+        var failure = new AtomicReference<Throwable>();
+
+        // The first table runs out of its rounds and waits for the second one, which never draws
+        var waiter = new Thread(() -> {
+            try {
+                while (true) {
+                    kitchenService.reservePortions(1);
+                }
+            } catch (Throwable throwable) {
+                failure.set(throwable);
+            }
+        });
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        waiter.interrupt();
+        waiter.join();
+
+        assertInstanceOf(InterruptedException.class, failure.get());
+        assertFalse(kitchenService.isExhausted(), "An interrupted refill should not exhaust the kitchen");
+        assertEquals(1_000 - 8, globalKitchen.remaining());
+    }
+}
@@ -0,0 +1,122 @@
+package org.labs.service.kitchen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedPortionCounterTests {
+    private static final long INITIAL_PORTIONS_COUNT = 20_003L;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void mappedCountersOfOneFileShouldHandOutExactlyInitialPortionsTest()
+            throws IOException, InterruptedException, ExecutionException {
+        var path = directory.resolve("kitchen");
+        try (var creator = MappedPortionCounter.create(path, INITIAL_PORTIONS_COUNT);
+             var first = MappedPortionCounter.open(path);
+             var second = MappedPortionCounter.open(path)) {
+            assertEquals(INITIAL_PORTIONS_COUNT, second.remaining());
+
+            assertEquals(INITIAL_PORTIONS_COUNT, takeAll(List.of(first, second)),
+                    "Every portion should be taken exactly once");
+            assertEquals(0, creator.remaining());
+        }
+    }
+
+    @Test
+    void fileOfAnotherFormatShouldNotBeOpenedTest() throws IOException {
+        var path = Files.write(directory.resolve("not-a-kitchen"), new byte[128]);
+
+        assertThrows(IOException.class, () -> MappedPortionCounter.open(path));
+    }
+
+    @Test
+    void remoteCountersOverTcpShouldHandOutExactlyInitialPortionsTest()
+            throws IOException, InterruptedException, ExecutionException {
+        var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (var server = new KitchenServer(new AtomicPortionCounter(INITIAL_PORTIONS_COUNT), address);
+             var first = RemotePortionCounter.connect(server.address());
+             var second = RemotePortionCounter.connect(server.address())) {
+            assertEquals(INITIAL_PORTIONS_COUNT, first.remaining());
+
+            assertEquals(INITIAL_PORTIONS_COUNT, takeAll(List.of(first, second)),
+                    "Every portion should be taken exactly once");
+            assertEquals(0, server.remaining());
+        }
+    }
+
+    @Test
+    void remoteCountersOverUnixSocketShouldHandOutExactlyInitialPortionsTest()
+            throws IOException, InterruptedException, ExecutionException {
+        var path = directory.resolve("kitchen.sock");
+        try (var server = new KitchenServer(new AtomicPortionCounter(INITIAL_PORTIONS_COUNT),
+                UnixDomainSocketAddress.of(path));
+             var first = RemotePortionCounter.connect(server.address());
+             var second = RemotePortionCounter.connect(server.address())) {
+            assertEquals(INITIAL_PORTIONS_COUNT, takeAll(List.of(first, second)),
+                    "Every portion should be taken exactly once");
+            assertEquals(0, server.remaining());
+        }
+        assertFalse(Files.exists(path), "The socket file should be deleted with the server");
+    }
+
+    @Test
+    void nonPositiveTakeShouldBeRejectedTest() throws IOException {
+        var path = directory.resolve("kitchen");
+        try (var counter = MappedPortionCounter.create(path, INITIAL_PORTIONS_COUNT)) {
+            assertThrows(IllegalArgumentException.class, () -> counter.take(-1));
+            assertThrows(IllegalArgumentException.class, () -> new AtomicPortionCounter(1).take(0));
+
+            var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+            try (var server = new KitchenServer(counter, address);
+                 var remote = RemotePortionCounter.connect(server.address())) {
+                assertThrows(UncheckedIOException.class, () -> remote.take(-INITIAL_PORTIONS_COUNT),
+                        "The server should drop a client asking for a negative count");
+                assertEquals(INITIAL_PORTIONS_COUNT, counter.remaining());
+            }
+        }
+    }
+
+    // Draws the counters dry from four threads per counter with different batch sizes
+    private static long takeAll(List<? extends PortionCounter> counters)
+            throws InterruptedException, ExecutionException {
+        try (var executor = Executors.newFixedThreadPool(4 * counters.size())) {
+            var futures = new ArrayList<Future<Long>>();
+            for (var counter : counters) {
+                for (var i = 0; i < 4; i++) {
+                    var batchSize = i + 1;
+                    futures.add(executor.submit(() -> {
+                        var taken = 0L;
+                        long portions;
+                        while ((portions = counter.take(batchSize)) > 0) {
+                            taken += portions;
+                        }
+                        return taken;
+                    }));
+                }
+            }
+
+            var takenCount = 0L;
+            for (var future : futures) {
+                takenCount += future.get();
+            }
+            return takenCount;
+        }
+    }
+}
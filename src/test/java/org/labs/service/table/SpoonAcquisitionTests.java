@@ -0,0 +1,116 @@
+package org.labs.service.table;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.labs.config.SpoonAcquisitionType;
+import org.labs.model.Spoon;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpoonAcquisitionTests {
+    @ParameterizedTest
+    @EnumSource(SpoonAcquisitionType.class)
+    void neighboursShouldNeverEatAtTheSameTimeTest(SpoonAcquisitionType acquisitionType)
+            throws InterruptedException, ExecutionException {
+        // 130 seats make the bitmask span several words, with seats straddling word boundaries
+        for (var seatsCount : new int[] { 1, 2, 5, 130 }) {
+            var strategy = acquisitionType.create(createSpoons(seatsCount));
+            var eating = new AtomicIntegerArray(seatsCount);
+            var mealsCount = 2_000;
+
+            try (var executor = Executors.newFixedThreadPool(Math.min(seatsCount, 16))) {
+                var futures = new ArrayList<Future<Integer>>();
+                for (var seat = 0; seat < seatsCount; seat++) {
+                    var ownSeat = seat;
+                    futures.add(executor.submit(() -> {
+                        var eatenCount = 0;
+                        for (var i = 0; i < mealsCount; i++) {
+                            // Blocking and non-blocking acquisitions are interleaved
+                            boolean acquired;
+                            if (i % 2 == 0) {
+                                strategy.acquire(ownSeat);
+                                acquired = true;
+                            } else {
+                                acquired = strategy.tryAcquire(ownSeat);
+                            }
+                            if (!acquired) {
+                                continue;
+                            }
+                            assertEquals(0, eating.getAndIncrement(ownSeat));
+                            if (seatsCount > 1) {
+                                assertEquals(0, eating.get((ownSeat + 1) % seatsCount), "Right neighbour is eating");
+                                assertEquals(0, eating.get((ownSeat + seatsCount - 1) % seatsCount),
+                                        "Left neighbour is eating");
+                            }
+                            eating.decrementAndGet(ownSeat);
+                            strategy.release(ownSeat);
+                            eatenCount++;
+                        }
+                        return eatenCount;
+                    }));
+                }
+
+                for (var future : futures) {
+                    assertTrue(future.get() >= mealsCount / 2, "Every blocking acquisition should succeed");
+                }
+            }
+        }
+    }
+
+    @Test
+    void paddedAcquisitionShouldHoldBothSpoonsOfTheSeatTest() {
+        var strategy = new PaddedSpoonAcquisition(3);
+
+        assertTrue(strategy.tryAcquire(0));
+        assertFalse(strategy.tryAcquire(1), "Spoon 1 is held by seat 0");
+        assertFalse(strategy.tryAcquire(2), "Spoon 0 is held by seat 0");
+
+        strategy.release(0);
+        assertTrue(strategy.tryAcquire(2));
+        assertFalse(strategy.tryAcquire(1), "Spoon 2 is held by seat 2");
+        strategy.release(2);
+        assertTrue(strategy.tryAcquire(1));
+    }
+
+    @Test
+    void paddedAcquisitionInterruptedWhileWaitingShouldPutDownTakenSpoonTest() throws InterruptedException {
+        var strategy = new PaddedSpoonAcquisition(3);
+        // Seat 1 holds spoons 1 and 2, so seat 0 takes spoon 0 and waits for spoon 1
+        assertTrue(strategy.tryAcquire(1));
+
+        var failure = new AtomicReference<Throwable>();
+        var visitor = new Thread(() -> {
+            try {
+                strategy.acquire(0);
+            } catch (Throwable throwable) {
+                failure.set(throwable);
+            }
+        });
+        visitor.start();
+        while (visitor.getState() != Thread.State.TIMED_WAITING) {
+            Thread.onSpinWait();
+        }
+        visitor.interrupt();
+        visitor.join();
+
+        assertInstanceOf(InterruptedException.class, failure.get());
+        strategy.release(1);
+        assertTrue(strategy.tryAcquire(2), "Spoon 0 should be put down by the interrupted visitor");
+    }
+
+    private static ArrayList<Spoon> createSpoons(int count) {
+        var spoons = new ArrayList<Spoon>(count);
+        for (var i = 0; i < count; i++) {
+            spoons.add(new Spoon());
+        }
+        return spoons;
+    }
+}
@@ -0,0 +1,86 @@
+package org.labs.sweep;
+
+import org.junit.jupiter.api.Test;
+import org.labs.config.DinnerConfig;
+import org.labs.config.TimeMode;
+import org.labs.model.DurationRange;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SweepTests {
+    private static final DurationRange SHORT_DELAY = new DurationRange(Duration.ZERO, Duration.ofMillis(1));
+
+    @Test
+    void everyConfigOfTheGridShouldBeRunAndReportedTest() throws InterruptedException {
+        var grid = SweepGrid.builder(baseConfig())
+                .visitorsCounts(5, 20)
+                .waitersCounts(1, 4)
+                .eatingDelays(SHORT_DELAY, new DurationRange(Duration.ZERO, Duration.ZERO))
+                .build();
+        var csv = new StringBuilder();
+        var report = new SweepReport(csv, SweepFormat.CSV);
+        var streamed = new ArrayList<SweepResult>();
+
+        var results = new SweepRunner(4).run(grid, result -> {
+            streamed.add(result);
+            report.accept(result);
+        });
+        report.finish();
+
+        assertEquals(8, results.size());
+        assertEquals(8, streamed.size());
+        for (var i = 0; i < results.size(); i++) {
+            var result = results.get(i);
+            assertEquals(i, result.index());
+            assertTrue(result.isSucceeded(), "Dinner " + i + " failed: " + result.failure());
+            assertEquals(500, result.statistics().totalEatenCount());
+            assertTrue(result.portionsPerSecond() > 0);
+            assertTrue(result.waiterUtilization() > 0 && result.waiterUtilization() <= 1,
+                    "Utilization out of range: " + result.waiterUtilization());
+        }
+        assertEquals(List.of(5, 5, 5, 5, 20, 20, 20, 20),
+                results.stream().map(result -> result.config().visitorsCount()).toList());
+        var lines = csv.toString().split("\n");
+        assertEquals(9, lines.length);
+        assertTrue(lines[0].startsWith("index,visitors,waiters,portions"));
+    }
+
+    @Test
+    void failedDinnerShouldBeReportedWithoutStoppingTheSweepTest() throws InterruptedException {
+        var configs = List.of(
+                baseConfig(),
+                // A table without a waiter is rejected
+                baseConfig().toBuilder().tablesCount(3).build(),
+                baseConfig().toBuilder().timeMode(TimeMode.LOGICAL).build()
+        );
+        var json = new StringBuilder();
+        var report = new SweepReport(json, SweepFormat.JSON);
+
+        var results = new SweepRunner(2).run(configs, report);
+        report.finish();
+
+        assertTrue(results.get(0).isSucceeded());
+        assertFalse(results.get(1).isSucceeded());
+        assertTrue(results.get(1).failure() instanceof IllegalArgumentException);
+        assertTrue(results.get(2).isSucceeded());
+        var text = json.toString();
+        assertTrue(text.startsWith("[\n") && text.endsWith("]\n"), text);
+        assertEquals(3, text.split("\\{").length - 1);
+        assertTrue(text.contains("\"portions_per_second\": null"), text);
+    }
+
+    private static DinnerConfig baseConfig() {
+        return DinnerConfig.builder()
+                .visitorsCount(5)
+                .waitersCount(2)
+                .soupPortionsCount(500)
+                .waitersServingDelay(Duration.ofNanos(100))
+                .visitorsDiscussionDelay(SHORT_DELAY)
+                .visitorsEatingDelay(SHORT_DELAY)
+                .build();
+    }
+}